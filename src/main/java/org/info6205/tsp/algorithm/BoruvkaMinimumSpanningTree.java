@@ -0,0 +1,314 @@
+package org.info6205.tsp.algorithm;
+
+import org.info6205.tsp.core.Edge;
+import org.info6205.tsp.core.FrozenGraph;
+import org.info6205.tsp.core.Graph;
+import org.info6205.tsp.core.IndexedGraph;
+import org.info6205.tsp.core.UndirectedGraph;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Boruvka's algorithm for the minimum spanning tree, running every phase in parallel on a fork join pool.
+ * In each round every edge offers itself to the components of both its vertices, which keep the lightest
+ * edge leaving them, then the lightest edges join their components in a concurrent union find and the edges
+ * inside a component are dropped. The number of components at least halves every round, so there are
+ * at most log n rounds of O(m) work which is split between the threads.
+ * Edges of equal weight are ordered by their position, so the tree does not depend on the number of threads.
+ * Meant for sparse graphs such as the Delaunay or candidate graph, other graphs are frozen into adjacency arrays first
+ */
+public class BoruvkaMinimumSpanningTree {
+
+    /**
+     * Fewest edges or vertices a task handles before it is no longer split
+     */
+    static final int MIN_TASK_SIZE = 4096;
+
+    /**
+     * Graph object for which MST needs to be generated
+     */
+    private final Graph graph;
+
+    /**
+     * Number of threads of the fork join pool
+     */
+    private final int threads;
+
+    /**
+     * Undirected graph which is used to store the Minimum Spanning Tree
+     */
+    private UndirectedGraph mst;
+
+    /**
+     * Parent of every vertex in the union find, roots are their own parent
+     */
+    private AtomicIntegerArray parent;
+
+    /**
+     * Lightest edge leaving every component by its root, -1 if none is known
+     */
+    private AtomicIntegerArray lightest;
+
+    /**
+     * Vertices and weight of every undirected edge
+     */
+    private int[] sources, destinations;
+    private double[] weights;
+
+    /**
+     * Constructor using one thread per available processor
+     * @param graph Graph object for which MST needs to be generated
+     */
+    public BoruvkaMinimumSpanningTree(Graph graph) {
+        this(graph, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor to initialize the MST class with the Graph object
+     * @param graph Graph object for which MST needs to be generated
+     * @param threads Number of threads of the fork join pool
+     */
+    public BoruvkaMinimumSpanningTree(Graph graph, int threads) {
+        if (threads < 1)
+            throw new IllegalArgumentException("At least one thread is needed");
+        this.graph = graph;
+        this.threads = threads;
+    }
+
+    /**
+     * Method creates a minimum spanning tree from the provided undirected graph,
+     * a graph which is not connected gives a minimum spanning forest
+     * @return Returns the MST graph
+     * @throws Exception
+     */
+    public IndexedGraph getMinimumSpanningTree() throws Exception {
+        IndexedGraph indexedGraph = graph.freeze();
+        FrozenGraph frozenGraph = indexedGraph instanceof FrozenGraph ? (FrozenGraph) indexedGraph : new FrozenGraph(indexedGraph);
+        int n = frozenGraph.getVertexCount();
+        collectEdges(frozenGraph);
+
+        parent = new AtomicIntegerArray(n);
+        lightest = new AtomicIntegerArray(n);
+        for (int i = 0; i < n; i++) {
+            parent.set(i, i);
+            lightest.set(i, -1);
+        }
+        boolean[] inTree = new boolean[sources.length];
+        int[] edges = new int[sources.length];
+        for (int e = 0; e < edges.length; e++)
+            edges[e] = e;
+        int edgeCount = edges.length;
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            while (edgeCount > 0) {
+                int[] current = edges;
+                //Every edge between two components offers itself to both of them
+                pool.invoke(new RangeTask(0, edgeCount, (from, to) -> {
+                    for (int k = from; k < to; k++) {
+                        int e = current[k];
+                        int u = find(sources[e]), v = find(destinations[e]);
+                        if (u != v) {
+                            offer(u, e);
+                            offer(v, e);
+                        }
+                    }
+                }));
+
+                //The lightest edge of every component joins it to another component
+                pool.invoke(new RangeTask(0, n, (from, to) -> {
+                    for (int root = from; root < to; root++) {
+                        int e = lightest.get(root);
+                        if (e >= 0 && union(sources[e], destinations[e]))
+                            inTree[e] = true;
+                    }
+                }));
+                pool.invoke(new RangeTask(0, n, (from, to) -> {
+                    for (int root = from; root < to; root++)
+                        lightest.set(root, -1);
+                }));
+
+                edgeCount = removeInnerEdges(pool, edges, edgeCount);
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        mst = new UndirectedGraph();
+        for (int i = 0; i < n; i++)
+            mst.addVertex(frozenGraph.getVertex(i));
+        for (int e = 0; e < inTree.length; e++) {
+            if (inTree[e])
+                mst.addEdge(frozenGraph.getVertex(sources[e]), frozenGraph.getVertex(destinations[e]), weights[e]);
+        }
+        return mst;
+    }
+
+    /**
+     * Method to get the total cost of the MST
+     * @return Cost of the MST tree
+     */
+    public double getMSTCost() {
+        if (mst == null)
+            throw new IllegalStateException("No minimum spanning tree has been generated yet");
+        double cost = 0;
+        for (Edge e : mst.getAllEdges()) {
+            cost += e.getWeight();
+        }
+        return cost/2;
+    }
+
+    /**
+     * Collects every undirected edge once from the adjacency arrays, self loops are left out
+     * @param frozenGraph Graph read by index
+     */
+    private void collectEdges(FrozenGraph frozenGraph) {
+        int m = 0;
+        for (int i = 0; i < frozenGraph.getVertexCount(); i++) {
+            for (int k = 0; k < frozenGraph.getDegree(i); k++) {
+                if (i < frozenGraph.getNeighbour(i, k))
+                    m++;
+            }
+        }
+        sources = new int[m];
+        destinations = new int[m];
+        weights = new double[m];
+        int e = 0;
+        for (int i = 0; i < frozenGraph.getVertexCount(); i++) {
+            for (int k = 0; k < frozenGraph.getDegree(i); k++) {
+                int j = frozenGraph.getNeighbour(i, k);
+                if (i < j) {
+                    sources[e] = i;
+                    destinations[e] = j;
+                    weights[e++] = frozenGraph.getEdgeWeight(i, k);
+                }
+            }
+        }
+    }
+
+    /**
+     * Keeps an edge as the lightest edge of a component if it is lighter than the edge known so far
+     * @param root Root of the component
+     * @param e Index of the edge
+     */
+    private void offer(int root, int e) {
+        while (true) {
+            int current = lightest.get(root);
+            if (current >= 0 && !isLighter(e, current))
+                return;
+            if (lightest.compareAndSet(root, current, e))
+                return;
+        }
+    }
+
+    /**
+     * Total order of the edges by weight and then by index
+     */
+    private boolean isLighter(int e, int f) {
+        return weights[e] < weights[f] || (weights[e] == weights[f] && e < f);
+    }
+
+    /**
+     * Finds the root of the component of a vertex, halving the path on the way
+     * @param vertex Index of the vertex
+     * @return index of the root
+     */
+    private int find(int vertex) {
+        while (true) {
+            int p = parent.get(vertex);
+            if (p == vertex)
+                return vertex;
+            int grandparent = parent.get(p);
+            if (p != grandparent)
+                parent.compareAndSet(vertex, p, grandparent);
+            vertex = p;
+        }
+    }
+
+    /**
+     * Joins the components of two vertices, the root with the larger index is linked below the other
+     * @return true if the components were different and this call joined them
+     */
+    private boolean union(int a, int b) {
+        while (true) {
+            int ra = find(a), rb = find(b);
+            if (ra == rb)
+                return false;
+            if (ra < rb) {
+                int swap = ra;
+                ra = rb;
+                rb = swap;
+            }
+            if (parent.compareAndSet(ra, ra, rb))
+                return true;
+        }
+    }
+
+    /**
+     * Removes the edges whose vertices are in the same component. Every task compacts its own part of the list,
+     * then the parts are moved together
+     * @return number of edges left
+     */
+    private int removeInnerEdges(ForkJoinPool pool, int[] edges, int edgeCount) {
+        int parts = Math.max(1, Math.min(threads * 4, edgeCount / MIN_TASK_SIZE));
+        int[] kept = new int[parts];
+        int partSize = (edgeCount + parts - 1) / parts;
+        pool.invoke(new RangeTask(0, parts, 1, (from, to) -> {
+            for (int part = from; part < to; part++) {
+                int start = part * partSize, end = Math.min(edgeCount, start + partSize), count = start;
+                for (int k = start; k < end; k++) {
+                    int e = edges[k];
+                    if (find(sources[e]) != find(destinations[e]))
+                        edges[count++] = e;
+                }
+                kept[part] = count - start;
+            }
+        }));
+        int count = 0;
+        for (int part = 0; part < parts; part++) {
+            System.arraycopy(edges, part * partSize, edges, count, kept[part]);
+            count += kept[part];
+        }
+        return count;
+    }
+
+    /**
+     * Work on a range of indices
+     */
+    private interface RangeBody {
+        void run(int from, int to);
+    }
+
+    /**
+     * Fork join task splitting a range of indices in halves until the parts are small enough
+     */
+    private static final class RangeTask extends RecursiveAction {
+
+        private final int from, to, minSize;
+
+        private final RangeBody body;
+
+        private RangeTask(int from, int to, RangeBody body) {
+            this(from, to, MIN_TASK_SIZE, body);
+        }
+
+        private RangeTask(int from, int to, int minSize, RangeBody body) {
+            this.from = from;
+            this.to = to;
+            this.minSize = minSize;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= minSize) {
+                body.run(from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, middle, minSize, body), new RangeTask(middle, to, minSize, body));
+        }
+    }
+}
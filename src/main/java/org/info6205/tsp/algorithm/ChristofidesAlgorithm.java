@@ -1,6 +1,7 @@
 package org.info6205.tsp.algorithm;
 
 import org.info6205.tsp.core.Graph;
+import org.info6205.tsp.core.IndexedGraph;
 import org.info6205.tsp.core.UndirectedSubGraph;
 import org.info6205.tsp.core.Vertex;
 import org.info6205.tsp.util.GraphUtil;
@@ -8,21 +9,50 @@ import org.info6205.tsp.visualization.TSPVisualization;
 
 import java.awt.*;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class ChristofidesAlgorithm {
 
+    /**
+     * Largest number of odd degree vertices matched with the minimum weight perfect matching, larger sets are
+     * matched greedily on the edges to their nearest vertices as the complete subgraph between them gets too big
+     */
+    static final int EXACT_MATCHING_LIMIT = 1000;
+
+    /**
+     * Number of nearest vertices of every odd degree vertex considered by the greedy matching
+     */
+    static final int MATCHING_CANDIDATES = 10;
+
     /**
      * Initial input graph
      */
     Graph graph;
 
+    /**
+     * Graph the minimum spanning tree is built from, a subgraph of the input graph containing its minimum spanning tree
+     */
+    Graph spanningGraph;
+
     /**
      * Parameterized constructor taking inital graph as input
      * @param graph
      */
     public ChristofidesAlgorithm(Graph graph) {
+        this(graph, graph);
+    }
+
+    /**
+     * Parameterized constructor building the minimum spanning tree from a sparse subgraph of the input graph,
+     * such as the graph of the Delaunay triangulation of the vertices. The perfect matching still uses the input graph
+     * @param graph Initial input graph
+     * @param spanningGraph Subgraph of the input graph which contains a minimum spanning tree of it
+     */
+    public ChristofidesAlgorithm(Graph graph, Graph spanningGraph) {
         this.graph = graph;
+        this.spanningGraph = spanningGraph;
     }
 
     /**
@@ -30,21 +60,33 @@ public class ChristofidesAlgorithm {
      * @return A TSP tour containing a list of vertices
      */
     public List<Vertex> generateTSPTour() throws Exception{
+        return generateTSPTour(new Random());
+    }
+
+    /**
+     * Generates a TSP tour, the random number generator picks the start of the minimum spanning tree.
+     * The input graph is only read, so several tours can be generated concurrently from one graph
+     * @param random Random number generator of this run
+     * @return A TSP tour containing a list of vertices
+     */
+    public List<Vertex> generateTSPTour(Random random) throws Exception{
 
         // Creating minimum spanning tree algorithm class instance
-        MinimumSpanningTree minimumSpanningTree = new MinimumSpanningTree(graph);
+        MinimumSpanningTree minimumSpanningTree = new MinimumSpanningTree(spanningGraph, random);
 
         //Getting minimum spanning tree
-        Graph mst = minimumSpanningTree.getMinimumSpanningTree();
-
-        //Creating subgraph for greedy perfect matching input
-        Graph subGraph = new UndirectedSubGraph(mst.getOddDegreeVertices(), graph);
+        IndexedGraph mst = minimumSpanningTree.getMinimumSpanningTree();
 
-        //Creating Greedy perfect matching class instance
-        GreedyPerfectMatching greedyPerfectMatching = new GreedyPerfectMatching(subGraph);
+        //Matching the odd degree vertices, exactly on their complete subgraph or greedily on their nearest vertices
+        Set<Vertex> oddDegreeVertices = mst.getOddDegreeVertices();
+        Graph perfectMatching;
+        if (oddDegreeVertices.size() <= EXACT_MATCHING_LIMIT)
+            perfectMatching = new MinimumWeightPerfectMatching(new UndirectedSubGraph(oddDegreeVertices, graph)).getPerfectMatching();
+        else
+            perfectMatching = new GreedyPerfectMatching(oddDegreeVertices, MATCHING_CANDIDATES).getPerfectMatching();
 
         //Adding existing edges to minimum spanning tree to create multigraph
-        mst.addExistingEdgesToGraph(greedyPerfectMatching.getPerfectMatching().getAllEdges().stream().collect(Collectors.toList()));
+        mst.addExistingEdgesToGraph(perfectMatching.getAllEdges().stream().collect(Collectors.toList()));
 
         //Creating Hierholzer Eulerian Circuit class instance
         HierholzerEulerianCircuit hierholzerEulerianCircuit = new HierholzerEulerianCircuit(mst);
@@ -52,6 +94,6 @@ public class ChristofidesAlgorithm {
         //Getting a Eulerian Circuit
         List<Vertex> eulerianCircuit = hierholzerEulerianCircuit.getEulerianCircuit();
 
-        return GraphUtil.getTSPTour(eulerianCircuit);
+        return GraphUtil.getTSPTour(eulerianCircuit, mst);
     }
 }
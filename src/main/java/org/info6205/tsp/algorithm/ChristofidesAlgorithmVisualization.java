@@ -2,6 +2,7 @@ package org.info6205.tsp.algorithm;
 
 import org.info6205.tsp.core.Edge;
 import org.info6205.tsp.core.Graph;
+import org.info6205.tsp.core.IndexedGraph;
 import org.info6205.tsp.core.UndirectedSubGraph;
 import org.info6205.tsp.core.Vertex;
 import org.info6205.tsp.optimizations.SimulatedAnnealing;
@@ -35,7 +36,7 @@ public class ChristofidesAlgorithmVisualization {
         // Creating minimum spanning tree algorithm class instance
         MinimumSpanningTree minimumSpanningTree = new MinimumSpanningTree(graph);
         //Getting minimum spanning tree
-        Graph mst = minimumSpanningTree.getMinimumSpanningTree();
+        IndexedGraph mst = minimumSpanningTree.getMinimumSpanningTree();
         Double cost= minimumSpanningTree.getMSTCost();
         TSPVisualization viz= new TSPVisualization(mst, 1900, 1000);
         viz.visualizeMST(cost);
@@ -69,7 +70,7 @@ public class ChristofidesAlgorithmVisualization {
         List<Edge> eulerianEdges= GraphUtil.removeDuplicateUndirectedEdgesFromMultigraph(eulerianGraph);
         viz.highlightEdges(eulerianEdges, Color.MAGENTA, 2.0f, eulerianCost);
 
-        List<Vertex> tspTourVertices= GraphUtil.getTSPTour(eulerianCircuit);
+        List<Vertex> tspTourVertices= GraphUtil.getTSPTour(eulerianCircuit, mst);
         Graph tspGraph= GraphUtil.generateGraphFromEulerianCircuit(tspTourVertices);
         viz.visualizeTSPTour(tspGraph, Color.blue, "TSP", GraphUtil.getTotalCostOfTour(tspTourVertices));
 
@@ -4,6 +4,8 @@ import org.info6205.tsp.core.Edge;
 import org.info6205.tsp.core.Graph;
 import org.info6205.tsp.core.UndirectedGraph;
 import org.info6205.tsp.core.Vertex;
+import org.info6205.tsp.spatial.KdTree;
+import org.info6205.tsp.util.GraphUtil;
 
 import java.util.*;
 
@@ -14,11 +16,26 @@ import java.util.*;
  */
 public class GreedyPerfectMatching {
 
+    /**
+     * Number of unmatched vertices up to which the candidate mode matches on all the edges between them
+     */
+    static final int FULL_SCAN_LIMIT = 256;
+
     /**
      * Graph for which perfect matching has to be generated
      */
     Graph graph;
 
+    /**
+     * Vertices to be matched in the candidate mode, null when the edges of the graph are used
+     */
+    List<Vertex> vertices;
+
+    /**
+     * Number of nearest vertices of every vertex considered in the candidate mode
+     */
+    int candidates;
+
     /**
      * Parameterized constructor for GreedyPerfectMatching
      * @param graph Initial graph for which perfect matching has to be generated
@@ -27,6 +44,20 @@ public class GreedyPerfectMatching {
         this.graph = graph;
     }
 
+    /**
+     * Parameterized constructor for the candidate mode, which matches the vertices on the edges to their nearest
+     * vertices found with a k-d tree instead of sorting all the edges between them. The edges are weighted
+     * with the haversine distance like the complete graph of the vertices
+     * @param vertices Vertices for which perfect matching has to be generated
+     * @param candidates Number of nearest vertices of every vertex to consider
+     */
+    public GreedyPerfectMatching(Collection<Vertex> vertices, int candidates) {
+        if (candidates < 1)
+            throw new IllegalArgumentException("At least one candidate edge per vertex is needed");
+        this.vertices = new ArrayList<>(vertices);
+        this.candidates = candidates;
+    }
+
     /**
      * A greedy algorithm which sorts all the edges in the graph and
      * finds out the perfect matching by choosing edges with least weight
@@ -34,6 +65,8 @@ public class GreedyPerfectMatching {
      * @throws Exception
      */
     public Graph getPerfectMatching() throws Exception{
+        if (this.vertices != null)
+            return getCandidatePerfectMatching();
         Graph resGraph = new UndirectedGraph();
         Set<Vertex> vertices = graph.getAllVertices();
 
@@ -63,4 +96,101 @@ public class GreedyPerfectMatching {
         }
         return null;
     }
+
+    /**
+     * Greedy matching on the edges from every vertex to its nearest vertices. The edges are sorted as primitive keys
+     * holding the weight in the upper and the edge number in the lower half. The vertices whose candidates all got
+     * matched are matched again on their nearest unmatched vertices, until few are left which are then matched
+     * greedily on all the edges between them. O(n k log(n k)) for n vertices and k candidates
+     * @return A graph containing a perfect matching (not minimum cost perfect matching)
+     * @throws Exception
+     */
+    private Graph getCandidatePerfectMatching() throws Exception {
+        int n = vertices.size();
+        if (n % 2 != 0)
+            throw new Exception("Number of vertices is odd. Perfect matching not possible");
+        Graph resGraph = new UndirectedGraph();
+        for (Vertex v : vertices)
+            resGraph.addVertex(v);
+
+        int[] mate = new int[n];
+        Arrays.fill(mate, -1);
+        int[] remaining = new int[n];
+        for (int v = 0; v < n; v++)
+            remaining[v] = v;
+        while (remaining.length > FULL_SCAN_LIMIT) {
+            List<Vertex> unmatchedVertices = new ArrayList<>(remaining.length);
+            for (int v : remaining)
+                unmatchedVertices.add(vertices.get(v));
+            KdTree tree = new KdTree(unmatchedVertices);
+            int k = Math.min(candidates, remaining.length - 1);
+            int[] sources = new int[remaining.length * k], destinations = new int[remaining.length * k];
+            for (int i = 0; i < remaining.length; i++) {
+                int[] nearest = tree.nearest(i, k);
+                for (int t = 0; t < k; t++) {
+                    sources[i * k + t] = remaining[i];
+                    destinations[i * k + t] = remaining[nearest[t]];
+                }
+            }
+            //The lightest candidate edge is always taken, so every round makes progress
+            matchGreedily(sources, destinations, mate);
+            remaining = unmatched(remaining, mate);
+        }
+
+        //Full scan over the few vertices left unmatched
+        int pairs = remaining.length * (remaining.length - 1) / 2, e = 0;
+        int[] sources = new int[pairs], destinations = new int[pairs];
+        for (int i = 0; i < remaining.length; i++) {
+            for (int j = i + 1; j < remaining.length; j++) {
+                sources[e] = remaining[i];
+                destinations[e++] = remaining[j];
+            }
+        }
+        matchGreedily(sources, destinations, mate);
+
+        for (int v = 0; v < n; v++) {
+            if (v < mate[v])
+                resGraph.addEdge(vertices.get(v), vertices.get(mate[v]));
+        }
+        return resGraph;
+    }
+
+    /**
+     * Filters the unmatched vertices
+     * @param from Vertices to filter
+     * @param mate Matched vertex of every vertex, -1 if unmatched
+     * @return the vertices which are not matched
+     */
+    private static int[] unmatched(int[] from, int[] mate) {
+        int count = 0;
+        for (int v : from) {
+            if (mate[v] < 0)
+                from[count++] = v;
+        }
+        return Arrays.copyOf(from, count);
+    }
+
+    /**
+     * Matches the unmatched vertices on the given edges, lightest edge first
+     * @param sources First vertex of every edge
+     * @param destinations Second vertex of every edge
+     * @param mate Matched vertex of every vertex, -1 if unmatched
+     */
+    private void matchGreedily(int[] sources, int[] destinations, int[] mate) {
+        //Float bits of a non negative weight sort like the weight itself
+        long[] keys = new long[sources.length];
+        for (int e = 0; e < keys.length; e++) {
+            float weight = (float) GraphUtil.getDistanceBetweenVertices(vertices.get(sources[e]), vertices.get(destinations[e]));
+            keys[e] = (long) Float.floatToIntBits(weight) << 32 | e;
+        }
+        Arrays.sort(keys);
+        for (long key : keys) {
+            int e = (int) key;
+            int u = sources[e], v = destinations[e];
+            if (mate[u] < 0 && mate[v] < 0) {
+                mate[u] = v;
+                mate[v] = u;
+            }
+        }
+    }
 }
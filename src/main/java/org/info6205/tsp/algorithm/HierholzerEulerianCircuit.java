@@ -3,12 +3,15 @@ package org.info6205.tsp.algorithm;
 import org.info6205.tsp.core.Edge;
 import org.info6205.tsp.core.Graph;
 import org.info6205.tsp.core.Vertex;
+import org.info6205.tsp.core.VertexRegistry;
 import org.info6205.tsp.util.GraphUtil;
 
 import java.util.*;
 
 /**
- * Implementation of Hierholzer's algorithm to find euclidean circuit in a given connected undirected graph
+ * Implementation of Hierholzer's algorithm to find euclidean circuit in a given connected undirected graph.
+ * The circuit is built once with an explicit stack in O(m). Every rotation of the circuit gives a different
+ * tour once repeated vertices are skipped, the start whose shortcut tour is the cheapest is picked
  */
 public class HierholzerEulerianCircuit {
     Graph graph;
@@ -16,49 +19,204 @@ public class HierholzerEulerianCircuit {
         this.graph = graph;
     }
 
-    List<Vertex> result = new ArrayList<>();
-    Map<Edge, Integer> visited = new HashMap<>();
+    /**
+     * Dense index of the vertices of the graph
+     */
+    VertexRegistry registry;
+
+    /**
+     * Position of the first adjacent edge of every vertex in edgeIds and targets, the last entry is their length
+     */
+    int[] offsets;
+
+    /**
+     * Undirected edge of every adjacent edge, addressed by offsets
+     */
+    int[] edgeIds;
+
+    /**
+     * Index of the destination vertex of every adjacent edge, addressed by offsets
+     */
+    int[] targets;
 
     /**
      * Get the Eulerian path of the given vertex circuit.
-     * @return
+     * @return Closed circuit starting and ending at the start with the cheapest shortcut tour
      */
     public List<Vertex> getEulerianCircuit() {
-        List<Vertex> vertices = new ArrayList<>(graph.getAllVertices());
-        double minDistance = Double.MAX_VALUE;
-        List<Vertex> optimalResult = null;
-        for (int i = 0; i < vertices.size(); i++) {
-            Vertex startVertex = vertices.get(i);
-            dfs(startVertex);
-            result.add(startVertex);
-            visited = new HashMap<>();
-            double distance = GraphUtil.getTotalCostOfTour(result);
-            if (distance < minDistance) {
-                minDistance = distance;
-                optimalResult = new ArrayList<>(result);
+        buildAdjacency();
+        int[] circuit = buildCircuit();
+        if (circuit.length == 0)
+            return new ArrayList<>();
+        int m = circuit.length - 1;
+        int start = m > 0 ? findBestStart(circuit) : 0;
+
+        List<Vertex> result = new ArrayList<>(m + 1);
+        for (int i = 0; i < m; i++)
+            result.add(registry.getVertex(circuit[(start + i) % m]));
+        result.add(registry.getVertex(circuit[start]));
+        return result;
+    }
+
+    /**
+     * Iterative Hierholzer's algorithm, the walk is extended along unused edges on a stack
+     * and vertices without unused edges are moved from the stack to the circuit
+     * @return vertices of the closed circuit, the first vertex is repeated at the end
+     */
+    private int[] buildCircuit() {
+        int n = registry.size();
+        int m = edgeIds.length / 2;
+        int start = 0;
+        while (start < n && offsets[start] == offsets[start + 1])
+            start++;
+        if (start == n)
+            return n == 0 ? new int[0] : new int[]{0, 0};
+
+        boolean[] used = new boolean[m];
+        int[] next = Arrays.copyOf(offsets, n);
+        int[] stack = new int[m + 1];
+        int[] circuit = new int[m + 1];
+        int top = 0, length = 0;
+        stack[top++] = start;
+        while (top > 0) {
+            int v = stack[top - 1];
+            while (next[v] < offsets[v + 1] && used[edgeIds[next[v]]])
+                next[v]++;
+            if (next[v] == offsets[v + 1]) {
+                circuit[length++] = stack[--top];
+            }
+            else {
+                used[edgeIds[next[v]]] = true;
+                stack[top++] = targets[next[v]];
+            }
+        }
+        return Arrays.copyOf(circuit, length);
+    }
+
+    /**
+     * Finds the rotation of the circuit with the cheapest tour after skipping repeated vertices.
+     * The circuit is doubled and the window of the tour starting at s is [s, s + m). The positions kept in a window
+     * are the first occurrences of their vertices, they are held in a linked list in order. Going from the window
+     * at s + 1 to the one at s adds position s in front and drops the next occurrence of its vertex, so the cost of
+     * every window follows from the previous one with a constant number of distances. O(m) over all starts
+     * @param circuit Closed circuit
+     * @return position in the circuit of the best start
+     */
+    private int findBestStart(int[] circuit) {
+        int m = circuit.length - 1;
+        int n = registry.size();
+
+        //Next occurrence of the vertex at every position of the doubled circuit
+        int[] nextOccurrence = new int[m];
+        int[] last = new int[n];
+        Arrays.fill(last, -1);
+        for (int p = 2 * m - 1; p >= 0; p--) {
+            int v = circuit[p % m];
+            if (p < m)
+                nextOccurrence[p] = last[v];
+            last[v] = p;
+        }
+
+        //Linked list of the kept positions of the window at m
+        int[] previous = new int[2 * m];
+        int[] following = new int[2 * m];
+        boolean[] seen = new boolean[n];
+        int head = -1, tail = -1;
+        double pathCost = 0;
+        for (int p = m; p < 2 * m; p++) {
+            int v = circuit[p - m];
+            if (seen[v])
+                continue;
+            seen[v] = true;
+            previous[p] = tail;
+            following[p] = -1;
+            if (tail >= 0) {
+                following[tail] = p;
+                pathCost += distance(circuit, tail, p);
+            }
+            else {
+                head = p;
+            }
+            tail = p;
+        }
+
+        double bestCost = pathCost + distance(circuit, tail, head);
+        int bestStart = 0;
+        for (int s = m - 1; s >= 0; s--) {
+            previous[s] = -1;
+            following[s] = head;
+            previous[head] = s;
+            pathCost += distance(circuit, s, head);
+            head = s;
+
+            int p = nextOccurrence[s];
+            int before = previous[p], after = following[p];
+            pathCost -= distance(circuit, before, p);
+            following[before] = after;
+            if (after >= 0) {
+                pathCost += distance(circuit, before, after) - distance(circuit, p, after);
+                previous[after] = before;
+            }
+            else {
+                tail = before;
             }
 
-            result = new ArrayList<>();
+            double cost = pathCost + distance(circuit, tail, head);
+            if (cost <= bestCost) {
+                bestCost = cost;
+                bestStart = s;
+            }
         }
+        return bestStart;
+    }
 
-        return optimalResult;
+    /**
+     * Distance between the vertices at two positions of the doubled circuit
+     */
+    private double distance(int[] circuit, int p, int q) {
+        int m = circuit.length - 1;
+        return GraphUtil.getDistanceBetweenVertices(registry.getVertex(circuit[p % m]), registry.getVertex(circuit[q % m]));
     }
 
     /**
-     * Depth first search implementation of starting from the vertex provided.
-     * @param startVertex
+     * Indexes the vertices and stores every undirected edge once, the edges stored in both
+     * directions are taken from the source with the smaller index and self loops are left out
      */
-    private void dfs(Vertex startVertex) {
-        result.add(startVertex);
-        Set<Edge> edges;
-        try {
-            edges = graph.getAllAdjacentEdgesOfVertex(startVertex);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+    private void buildAdjacency() {
+        registry = new VertexRegistry(new ArrayList<>(graph.getAllVertices()));
+        int n = registry.size();
+        int[] degree = new int[n];
+        List<int[]> edges = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            Set<Edge> adjacentEdges;
+            try {
+                adjacentEdges = graph.getAllAdjacentEdgesOfVertex(registry.getVertex(i));
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+
+            for (Edge edge: adjacentEdges) {
+                int j = registry.getIndexOf(edge.getDestination());
+                if (i < j) {
+                    edges.add(new int[]{i, j});
+                    degree[i]++;
+                    degree[j]++;
+                }
+            }
         }
 
-        for (Edge edge: edges) {
-            if (visited.putIfAbsent(edge, 1) == null) dfs(edge.getDestination());
+        offsets = new int[n + 1];
+        for (int i = 0; i < n; i++)
+            offsets[i + 1] = offsets[i] + degree[i];
+        edgeIds = new int[offsets[n]];
+        targets = new int[offsets[n]];
+        int[] position = Arrays.copyOf(offsets, n);
+        for (int e = 0; e < edges.size(); e++) {
+            int i = edges.get(e)[0], j = edges.get(e)[1];
+            edgeIds[position[i]] = e;
+            targets[position[i]++] = j;
+            edgeIds[position[j]] = e;
+            targets[position[j]++] = i;
         }
     }
 }
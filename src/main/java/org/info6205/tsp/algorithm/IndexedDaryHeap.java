@@ -0,0 +1,143 @@
+package org.info6205.tsp.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Min heap of vertex indices keyed by a double, holding every vertex at most once.
+ * The position of every vertex in the heap is tracked, so the key of a queued vertex can be decreased
+ * in place instead of queueing the vertex again. Each node has d children, which makes the heap flatter
+ * than a binary heap so that the many decrease key operations of Prim's algorithm climb fewer levels
+ */
+class IndexedDaryHeap {
+
+    /**
+     * Number of children per node
+     */
+    private final int arity;
+
+    /**
+     * Queued vertices in heap order
+     */
+    private final int[] heap;
+
+    /**
+     * Position of every vertex in the heap, -1 if the vertex is not queued
+     */
+    private final int[] positions;
+
+    /**
+     * Key of every vertex by index
+     */
+    private final double[] keys;
+
+    /**
+     * Number of vertices in the heap
+     */
+    private int size;
+
+    /**
+     * Parameterized constructor creating an empty heap
+     * @param n Number of vertices
+     * @param arity Number of children per node, at least 2
+     */
+    IndexedDaryHeap(int n, int arity) {
+        if (arity < 2)
+            throw new IllegalArgumentException("A heap node needs at least two children");
+        this.arity = arity;
+        heap = new int[n];
+        positions = new int[n];
+        keys = new double[n];
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * Adds a vertex with a key, or lowers the key of a queued vertex if the new key is smaller
+     * @param vertex Index of the vertex
+     * @param key Key of the vertex
+     * @return true if the vertex was added or its key was lowered
+     */
+    boolean pushOrDecrease(int vertex, double key) {
+        int position = positions[vertex];
+        if (position < 0) {
+            position = size++;
+        }
+        else if (key >= keys[vertex]) {
+            return false;
+        }
+        keys[vertex] = key;
+        siftUp(vertex, position);
+        return true;
+    }
+
+    /**
+     * Removes the vertex with the smallest key
+     * @return index of the vertex
+     */
+    int pop() {
+        int min = heap[0];
+        positions[min] = -1;
+        int last = heap[--size];
+        if (size > 0)
+            siftDown(last, 0);
+        return min;
+    }
+
+    /**
+     * Key of a vertex, only valid while the vertex is queued or after it was popped
+     * @param vertex Index of the vertex
+     * @return key of the vertex
+     */
+    double getKey(int vertex) {
+        return keys[vertex];
+    }
+
+    /**
+     * Checks if there is no vertex left
+     * @return true if the heap is empty
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Moves a vertex up from a position until its parent has a smaller key
+     */
+    private void siftUp(int vertex, int position) {
+        double key = keys[vertex];
+        while (position > 0) {
+            int parent = (position - 1) / arity;
+            if (keys[heap[parent]] <= key)
+                break;
+            place(heap[parent], position);
+            position = parent;
+        }
+        place(vertex, position);
+    }
+
+    /**
+     * Moves a vertex down from a position until all its children have a larger key
+     */
+    private void siftDown(int vertex, int position) {
+        double key = keys[vertex];
+        while (true) {
+            int first = position * arity + 1;
+            if (first >= size)
+                break;
+            int min = first;
+            for (int child = first + 1; child < Math.min(first + arity, size); child++) {
+                if (keys[heap[child]] < keys[heap[min]])
+                    min = child;
+            }
+            if (keys[heap[min]] >= key)
+                break;
+            place(heap[min], position);
+            position = min;
+        }
+        place(vertex, position);
+    }
+
+    private void place(int vertex, int position) {
+        heap[position] = vertex;
+        positions[vertex] = position;
+    }
+}
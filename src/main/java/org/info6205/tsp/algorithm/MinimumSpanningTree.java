@@ -1,27 +1,31 @@
 package org.info6205.tsp.algorithm;
 
+import org.info6205.tsp.core.DistanceMatrixGraph;
 import org.info6205.tsp.core.Edge;
+import org.info6205.tsp.core.FrozenGraph;
 import org.info6205.tsp.core.Graph;
+import org.info6205.tsp.core.IndexedGraph;
 import org.info6205.tsp.core.UndirectedGraph;
 import org.info6205.tsp.core.Vertex;
 
 import java.util.*;
 
+/**
+ * Prim's algorithm reading the graph by vertex index.
+ * Dense graphs pick the vertex closest to the tree by scanning an array, which is O(n^2) overall and needs
+ * no heap, sparse graphs keep the vertices next to the tree in an indexed d-ary heap, which is O(m log n)
+ */
 public class MinimumSpanningTree {
-    /**
-     * Boolean Map to keep track of visited nodes
-     */
-    private Map<Vertex, Boolean> visited;
 
     /**
-     * Priority queue to get the edge with the minimum weight
+     * Number of children per node of the heap used for sparse graphs
      */
-    private PriorityQueue<Edge> pq;
+    static final int HEAP_ARITY = 4;
 
     /**
      * Undirected graph which is used to store the Minimum Spanning Tree
      */
-    private Graph mst;
+    private UndirectedGraph mst;
 
     /**
      * Graph object for which MST needs to be generated
@@ -38,89 +42,194 @@ public class MinimumSpanningTree {
      * @param graph Graph object for which MST needs to be generated
      */
     public MinimumSpanningTree(Graph graph) throws Exception {
+        this(graph, new Random());
+    }
+
+    /**
+     * Constructor to initialize the MST class with the Graph object and the random number generator
+     * picking the start vertex, so that runs can be repeated
+     * @param graph Graph object for which MST needs to be generated
+     * @param random Random number generator picking the start vertex
+     */
+    public MinimumSpanningTree(Graph graph, Random random) throws Exception {
         //Initialize the graph object
         this.graph = graph;
-        //Initialize the pq, mst and visited boolean map
+        //Initialize the mst
         mst = new UndirectedGraph();
-        pq= new PriorityQueue<>(Comparator.comparingDouble(Edge::getWeight));
-        visited = new HashMap<>();
 
         //Get all vertices from the graph object
         List<Vertex> vertices= new ArrayList<>(graph.getAllVertices());
 
         //Random class to select the source starting point randomly
-        this.start= pickArbitraryStart(vertices);
+        this.start= pickArbitraryStart(vertices, random);
 
-        //Iterate over all the vertices in the graph and store them in visited hashmap as unvisited
+        //Add all the vertices in the MST
         for(Vertex v: vertices){
-            //Add the vertex v in visited set and set the value to false
-            visited.put(v, false);
-            //Add the vertex v in the MST
             mst.addVertex(v);
         }
     }
 
     /**
-     * Method creates a minimum spanning tree from the provided undirected graph
+     * Method creates a minimum spanning tree from the provided undirected graph.
+     * Graphs which are not backed by a distance matrix are frozen first so that their edges are read by index,
+     * the tree only spans the vertices reachable from the start vertex
+     * @return Returns the MST graph
+     * @throws Exception
+     */
+    public IndexedGraph getMinimumSpanningTree() throws Exception {
+        //Complete graphs backed by a distance matrix are read by index without creating edges
+        if(this.graph instanceof DistanceMatrixGraph)
+            return getMinimumSpanningTreeFromDistanceMatrix((DistanceMatrixGraph) this.graph);
+
+        IndexedGraph indexedGraph = this.graph.freeze();
+        FrozenGraph frozenGraph = indexedGraph instanceof FrozenGraph ? (FrozenGraph) indexedGraph : new FrozenGraph(indexedGraph);
+        if(isDense(frozenGraph.getVertexCount(), frozenGraph.getAllEdges().size()))
+            return getMinimumSpanningTreeFromArray(frozenGraph);
+        return getMinimumSpanningTreeFromHeap(frozenGraph);
+    }
+
+    /**
+     * Checks if scanning all vertices for the one closest to the tree is cheaper than keeping them in a heap,
+     * which is the case once the m log n heap operations exceed the n^2 scanned entries
+     * @param n Number of vertices
+     * @param m Number of edges, stored in both directions
+     * @return true if the array based algorithm should be used
+     */
+    static boolean isDense(int n, long m) {
+        return m * (64 - Long.numberOfLeadingZeros(n)) >= (long) n * n;
+    }
+
+    /**
+     * Array based Prim's algorithm for a complete graph backed by a distance matrix
+     * Runs in O(n^2) time reading every weight once by index
+     * @param matrixGraph Graph backed by a distance matrix
+     * @return Returns the MST graph
+     * @throws Exception
+     */
+    private IndexedGraph getMinimumSpanningTreeFromDistanceMatrix(DistanceMatrixGraph matrixGraph) throws Exception {
+        int n = matrixGraph.getVertexCount();
+        //Lightest known edge connecting each vertex to the tree and the tree vertex it comes from
+        double[] minWeight = new double[n];
+        int[] parent = new int[n];
+        boolean[] inTree = new boolean[n];
+        Arrays.fill(minWeight, Double.MAX_VALUE);
+        Arrays.fill(parent, -1);
+        minWeight[matrixGraph.getIndexOf(this.start)] = 0;
+
+        for (int added = 0; added < n; added++) {
+            int next = closestToTree(minWeight, inTree);
+            inTree[next] = true;
+            if(parent[next] != -1)
+                mst.addEdge(matrixGraph.getVertex(parent[next]), matrixGraph.getVertex(next), minWeight[next]);
+
+            //Relax the distances of the remaining vertices through the new tree vertex
+            for (int i = 0; i < n; i++) {
+                if(inTree[i])
+                    continue;
+                double weight = matrixGraph.getWeight(next, i);
+                if(weight < minWeight[i]){
+                    minWeight[i] = weight;
+                    parent[i] = next;
+                }
+            }
+        }
+        return mst;
+    }
+
+    /**
+     * Array based Prim's algorithm for a dense graph
+     * Runs in O(n^2 + m) time reading every edge once by index
+     * @param frozenGraph Graph read by index
      * @return Returns the MST graph
      * @throws Exception
      */
-    public Graph getMinimumSpanningTree() throws Exception {
-        //Visit the initial vertex and add all adjacent vertices in the pq
-        visit(this.start);
-
-        //Iterate over all the edges in the min heap and process all adjacent vertices in sequence
-        while(!pq.isEmpty()){
-            Edge e= pq.poll();
-            Vertex v1= e.getSource();
-            Vertex v2= e.getDestination();
-            //continue if both vertices in the edge are already visited
-            if(visited.get(v1) && visited.get(v2))
-                continue;
-
-            //Add the edge in the MST if vertices are not visited
-            mst.addEdge(v1, v2, e.getWeight());
-
-            //Visit the remaining vertex if not visited yet
-            if(!visited.get(v1))
-                visit(v1);
-            if(!visited.get(v2))
-                visit(v2);
+    private IndexedGraph getMinimumSpanningTreeFromArray(FrozenGraph frozenGraph) throws Exception {
+        int n = frozenGraph.getVertexCount();
+        //Lightest known edge connecting each vertex to the tree and the tree vertex it comes from
+        double[] minWeight = new double[n];
+        int[] parent = new int[n];
+        boolean[] inTree = new boolean[n];
+        Arrays.fill(minWeight, Double.MAX_VALUE);
+        Arrays.fill(parent, -1);
+        minWeight[frozenGraph.getIndexOf(this.start)] = 0;
+
+        for (int added = 0; added < n; added++) {
+            int next = closestToTree(minWeight, inTree);
+            //The remaining vertices are not connected to the tree
+            if(minWeight[next] == Double.MAX_VALUE)
+                break;
+            inTree[next] = true;
+            if(parent[next] != -1)
+                mst.addEdge(frozenGraph.getVertex(parent[next]), frozenGraph.getVertex(next), minWeight[next]);
+
+            //Relax the distances of the neighbours through the new tree vertex
+            for (int k = 0; k < frozenGraph.getDegree(next); k++) {
+                int i = frozenGraph.getNeighbour(next, k);
+                double weight = frozenGraph.getEdgeWeight(next, k);
+                if(!inTree[i] && weight < minWeight[i]){
+                    minWeight[i] = weight;
+                    parent[i] = next;
+                }
+            }
         }
         return mst;
     }
 
     /**
-     * Method to visit the vertex v and add it's adjacent vertices in the minimum priority queue
-     * @param v vertex which should be visited
+     * Heap based Prim's algorithm for a sparse graph, the vertices next to the tree are kept
+     * in an indexed heap keyed by their lightest edge to the tree
+     * Runs in O(m log n) time reading every edge once by index
+     * @param frozenGraph Graph read by index
+     * @return Returns the MST graph
      * @throws Exception
      */
-    private void visit(Vertex v) throws Exception {
-        //Mark the vertex as visited
-        visited.put(v, true);
-
-        //Get and iterate over all adjacent edges connected to v
-        for(Edge e: this.graph.getAllAdjacentEdgesOfVertex(v)){
-            //Check if the v is source or destination of the edge, and
-            //add unvisited vertex accordingly to the pq
-            if(e.getSource() == v){
-                if(!visited.get(e.getDestination()))
-                    pq.add(e);
-            }else{
-                if(!visited.get(e.getSource()))
-                    pq.add(e);
+    private IndexedGraph getMinimumSpanningTreeFromHeap(FrozenGraph frozenGraph) throws Exception {
+        int n = frozenGraph.getVertexCount();
+        int[] parent = new int[n];
+        boolean[] inTree = new boolean[n];
+        Arrays.fill(parent, -1);
+        IndexedDaryHeap heap = new IndexedDaryHeap(n, HEAP_ARITY);
+        heap.pushOrDecrease(frozenGraph.getIndexOf(this.start), 0);
+
+        while(!heap.isEmpty()){
+            int next = heap.pop();
+            inTree[next] = true;
+            if(parent[next] != -1)
+                mst.addEdge(frozenGraph.getVertex(parent[next]), frozenGraph.getVertex(next), heap.getKey(next));
+
+            //Relax the distances of the neighbours through the new tree vertex
+            for (int k = 0; k < frozenGraph.getDegree(next); k++) {
+                int i = frozenGraph.getNeighbour(next, k);
+                if(!inTree[i] && heap.pushOrDecrease(i, frozenGraph.getEdgeWeight(next, k)))
+                    parent[i] = next;
             }
         }
+        return mst;
+    }
+
+    /**
+     * Method to pick the vertex outside the tree with the lightest edge to the tree
+     * @param minWeight Lightest known edge connecting each vertex to the tree
+     * @param inTree Flags of the vertices in the tree
+     * @return index of the closest vertex
+     */
+    private int closestToTree(double[] minWeight, boolean[] inTree) {
+        int next = -1;
+        for (int i = 0; i < minWeight.length; i++) {
+            if(!inTree[i] && (next == -1 || minWeight[i] < minWeight[next]))
+                next = i;
+        }
+        return next;
     }
 
     /**
      * Method to pick arbitrary vertex as a starting point from a graph
      * @param vertices All vertices of a graph
+     * @param random Random number generator picking the vertex
      * @return returns a random start vertex
      */
-    private Vertex pickArbitraryStart(final List<Vertex> vertices){
-        Random rand= new Random();
-        int i= rand.nextInt(vertices.size());
+    private Vertex pickArbitraryStart(final List<Vertex> vertices, Random random){
+        int i= random.nextInt(vertices.size());
         return vertices.get(i);
     }
 
@@ -0,0 +1,867 @@
+package org.info6205.tsp.algorithm;
+
+import org.info6205.tsp.core.Edge;
+import org.info6205.tsp.core.Graph;
+import org.info6205.tsp.core.UndirectedGraph;
+import org.info6205.tsp.core.Vertex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Minimum weight perfect matching with Edmonds' blossom algorithm, keeping Christofides' 1.5 approximation.
+ * The matching is first searched on candidate edges only, the k lightest edges of every vertex, which nearly
+ * always contain the optimum. Edges left out whose reduced cost under the final dual variables is negative are added
+ * and the search is repeated, so the result is optimal on the whole graph. Vertices the candidates can not match
+ * get all their edges.
+ * The blossom algorithm grows alternating trees from the unmatched vertices along tight edges and adjusts
+ * the dual variables of the vertices and blossoms whenever no tight edge is left, it needs O(n^3) time.
+ * Weights are rounded to millimetres, so the dual variables are exact integers
+ */
+public class MinimumWeightPerfectMatching {
+
+    /**
+     * Number of lightest edges of every vertex which are candidates by default
+     */
+    public static final int DEFAULT_CANDIDATES = 10;
+
+    /**
+     * Factor turning the weights in meters into integers
+     */
+    private static final double WEIGHT_SCALE = 1000;
+
+    /**
+     * Graph for which perfect matching has to be generated
+     */
+    Graph graph;
+
+    /**
+     * Number of lightest edges of every vertex used in the first search
+     */
+    int candidates;
+
+    /**
+     * Parameterized constructor using the default number of candidate edges
+     * @param graph Initial graph for which perfect matching has to be generated
+     */
+    public MinimumWeightPerfectMatching(Graph graph) {
+        this(graph, DEFAULT_CANDIDATES);
+    }
+
+    /**
+     * Parameterized constructor
+     * @param graph Initial graph for which perfect matching has to be generated
+     * @param candidates Number of lightest edges of every vertex used in the first search
+     */
+    public MinimumWeightPerfectMatching(Graph graph, int candidates) {
+        if (candidates < 1)
+            throw new IllegalArgumentException("At least one candidate edge per vertex is needed");
+        this.graph = graph;
+        this.candidates = candidates;
+    }
+
+    /**
+     * Finds the perfect matching with the smallest total weight
+     * @return A graph containing the matched edges
+     * @throws Exception if the graph has no perfect matching
+     */
+    public Graph getPerfectMatching() throws Exception {
+        List<Vertex> vertices = new ArrayList<>(graph.getAllVertices());
+        int n = vertices.size();
+        if (n % 2 != 0)
+            throw new Exception("Number of vertices is odd. Perfect matching not possible");
+        UndirectedGraph positions = new UndirectedGraph();
+        for (Vertex vertex : vertices)
+            positions.addVertex(vertex);
+
+        //Every undirected edge once, the lightest of parallel edges is kept. The lightest edges of every vertex are candidates
+        Set<Long> candidateKeys = new HashSet<>();
+        List<int[]> pairs = new ArrayList<>();
+        List<Double> pairWeights = new ArrayList<>();
+        int[] seen = new int[n];
+        Arrays.fill(seen, -1);
+        for (int v = 0; v < n; v++) {
+            Vertex vertex = vertices.get(v);
+            List<Edge> edges = new ArrayList<>(graph.getAllAdjacentEdgesOfVertex(vertex));
+            edges.sort(null);
+            int taken = 0;
+            for (Edge edge : edges) {
+                Vertex other = edge.getSource() == vertex ? edge.getDestination() : edge.getSource();
+                int u = positions.getIndexOf(other);
+                if (u < 0 || u == v || seen[u] == v)
+                    continue;
+                seen[u] = v;
+                if (taken++ < candidates)
+                    candidateKeys.add(key(v, u, n));
+                if (v < u) {
+                    pairs.add(new int[]{v, u});
+                    pairWeights.add(edge.getWeight());
+                }
+            }
+        }
+        int m = pairs.size();
+        int[] sources = new int[m], destinations = new int[m];
+        long[] costs = new long[m];
+        boolean[] included = new boolean[m];
+        long maxCost = 0;
+        for (int e = 0; e < m; e++) {
+            sources[e] = pairs.get(e)[0];
+            destinations[e] = pairs.get(e)[1];
+            costs[e] = Math.round(pairWeights.get(e) * WEIGHT_SCALE);
+            included[e] = candidateKeys.contains(key(sources[e], destinations[e], n));
+            maxCost = Math.max(maxCost, costs[e]);
+        }
+
+        //Lighter edges get larger weights, so the maximum weight matching of maximum cardinality has minimum cost
+        long[] blossomWeights = new long[m];
+        for (int e = 0; e < m; e++)
+            blossomWeights[e] = maxCost - costs[e];
+
+        int[] mate;
+        while (true) {
+            Blossom blossom = solve(n, sources, destinations, blossomWeights, included);
+            mate = blossom.getMates();
+            boolean perfect = true;
+            for (int v = 0; v < n; v++)
+                perfect &= mate[v] >= 0;
+
+            boolean added = false;
+            if (perfect) {
+                //The duals prove the matching optimal unless an edge left out has negative reduced cost
+                for (int e = 0; e < m; e++) {
+                    if (!included[e] && blossom.getSlack(sources[e], destinations[e], blossomWeights[e]) < 0)
+                        added = included[e] = true;
+                }
+            }
+            else {
+                //Dense fallback, the unmatched vertices get all their edges and then every edge is allowed
+                for (int e = 0; e < m; e++) {
+                    if (!included[e] && (mate[sources[e]] < 0 || mate[destinations[e]] < 0))
+                        added = included[e] = true;
+                }
+                if (!added) {
+                    for (int e = 0; e < m; e++) {
+                        if (!included[e])
+                            added = included[e] = true;
+                    }
+                }
+            }
+            if (!added)
+                break;
+        }
+
+        Graph resGraph = new UndirectedGraph();
+        for (Vertex v : vertices)
+            resGraph.addVertex(v);
+        for (int e = 0; e < m; e++) {
+            if (mate[sources[e]] < 0 || mate[destinations[e]] < 0)
+                throw new Exception("Perfect matching not possible on this graph with current edge configuration");
+            if (mate[sources[e]] == destinations[e])
+                resGraph.addEdge(vertices.get(sources[e]), vertices.get(destinations[e]), pairWeights.get(e));
+        }
+        return resGraph;
+    }
+
+    /**
+     * Runs the blossom algorithm on the included edges
+     */
+    private static Blossom solve(int n, int[] sources, int[] destinations, long[] weights, boolean[] included) {
+        int count = 0;
+        for (boolean include : included) {
+            if (include)
+                count++;
+        }
+        int[] edgeSources = new int[count], edgeDestinations = new int[count];
+        long[] edgeWeights = new long[count];
+        count = 0;
+        for (int e = 0; e < included.length; e++) {
+            if (included[e]) {
+                edgeSources[count] = sources[e];
+                edgeDestinations[count] = destinations[e];
+                edgeWeights[count++] = weights[e];
+            }
+        }
+        Blossom blossom = new Blossom(n, edgeSources, edgeDestinations, edgeWeights);
+        blossom.maximumCardinalityMatching();
+        return blossom;
+    }
+
+    /**
+     * Packs an unordered pair of vertex indices into one key
+     */
+    private static long key(int v, int u, int n) {
+        return (long) Math.min(v, u) * n + Math.max(v, u);
+    }
+
+    /**
+     * Growable list of ints
+     */
+    private static final class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length)
+                values = Arrays.copyOf(values, 2 * size);
+            values[size++] = value;
+        }
+
+        int pop() {
+            return values[--size];
+        }
+
+        int get(int i) {
+            return values[i];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+
+    /**
+     * Maximum weight matching among the matchings of maximum cardinality on a general graph, with the
+     * primal dual blossom algorithm of Edmonds and Galil's O(n^3) bookkeeping of the least slack edges.
+     * Vertices 0 to n-1 are the vertices of the graph, n to 2n-1 are the blossoms. Every edge k has
+     * the two endpoints 2k and 2k+1, where endpoint p is the vertex reached through the edge from p^1
+     */
+    private static final class Blossom {
+
+        private final int n;
+        private final int[] sources, destinations;
+        private final long[] edgeWeights;
+        private final int[] endpoint;
+        private final int[][] neighbourEnds;
+
+        private final int[] mate;
+        private final int[] label;
+        private final int[] labelEnd;
+        private final int[] inBlossom;
+        private final int[] blossomParent;
+        private final int[][] blossomChildren;
+        private final int[] blossomBase;
+        private final int[][] blossomEnds;
+        private final int[] bestEdge;
+        private final int[][] blossomBestEdges;
+        private final IntList unusedBlossoms = new IntList();
+        private final long[] dualVariable;
+        private final boolean[] allowEdge;
+        private final IntList queue = new IntList();
+
+        Blossom(int n, int[] sources, int[] destinations, long[] edgeWeights) {
+            this.n = n;
+            this.sources = sources;
+            this.destinations = destinations;
+            this.edgeWeights = edgeWeights;
+            int m = sources.length;
+            long maxWeight = 0;
+            for (long weight : edgeWeights)
+                maxWeight = Math.max(maxWeight, weight);
+
+            endpoint = new int[2 * m];
+            int[] degree = new int[n];
+            for (int k = 0; k < m; k++) {
+                endpoint[2 * k] = sources[k];
+                endpoint[2 * k + 1] = destinations[k];
+                degree[sources[k]]++;
+                degree[destinations[k]]++;
+            }
+            neighbourEnds = new int[n][];
+            for (int v = 0; v < n; v++)
+                neighbourEnds[v] = new int[degree[v]];
+            Arrays.fill(degree, 0);
+            for (int k = 0; k < m; k++) {
+                neighbourEnds[sources[k]][degree[sources[k]]++] = 2 * k + 1;
+                neighbourEnds[destinations[k]][degree[destinations[k]]++] = 2 * k;
+            }
+
+            mate = new int[n];
+            Arrays.fill(mate, -1);
+            label = new int[2 * n];
+            labelEnd = new int[2 * n];
+            Arrays.fill(labelEnd, -1);
+            inBlossom = new int[n];
+            blossomParent = new int[2 * n];
+            Arrays.fill(blossomParent, -1);
+            blossomChildren = new int[2 * n][];
+            blossomBase = new int[2 * n];
+            Arrays.fill(blossomBase, -1);
+            blossomEnds = new int[2 * n][];
+            bestEdge = new int[2 * n];
+            Arrays.fill(bestEdge, -1);
+            blossomBestEdges = new int[2 * n][];
+            dualVariable = new long[2 * n];
+            for (int v = 0; v < n; v++) {
+                inBlossom[v] = v;
+                blossomBase[v] = v;
+                dualVariable[v] = maxWeight;
+            }
+            for (int b = 2 * n - 1; b >= n; b--)
+                unusedBlossoms.add(b);
+            allowEdge = new boolean[m];
+        }
+
+        /**
+         * Runs the stages of the algorithm, every stage augments the matching by one edge
+         * @return matched vertex of every vertex, -1 if it is unmatched
+         */
+        int[] maximumCardinalityMatching() {
+            for (int stage = 0; stage < n; stage++) {
+                Arrays.fill(label, 0);
+                Arrays.fill(bestEdge, -1);
+                for (int b = n; b < 2 * n; b++)
+                    blossomBestEdges[b] = null;
+                Arrays.fill(allowEdge, false);
+                queue.clear();
+                for (int v = 0; v < n; v++) {
+                    if (mate[v] == -1 && label[inBlossom[v]] == 0)
+                        assignLabel(v, 1, -1);
+                }
+
+                boolean augmented = false;
+                while (true) {
+                    augmented = scanQueue();
+                    if (augmented)
+                        break;
+                    if (!adjustDualVariables())
+                        break;
+                }
+                if (!augmented)
+                    break;
+
+                //Blossoms whose dual variable dropped to zero are expanded at the end of a stage
+                for (int b = n; b < 2 * n; b++) {
+                    if (blossomParent[b] == -1 && blossomBase[b] >= 0 && label[b] == 1 && dualVariable[b] == 0)
+                        expandBlossom(b, true);
+                }
+            }
+
+            return getMates();
+        }
+
+        /**
+         * Matched vertex of every vertex
+         * @return matched vertex of every vertex, -1 if it is unmatched
+         */
+        int[] getMates() {
+            int[] result = new int[n];
+            for (int v = 0; v < n; v++)
+                result[v] = mate[v] >= 0 ? endpoint[mate[v]] : -1;
+            return result;
+        }
+
+        /**
+         * Reduced cost of an edge under the current dual variables, including the blossoms containing both vertices.
+         * The edge does not need to be part of the graph, a negative value means the matching can improve with it
+         * @return twice the slack of the edge
+         */
+        long getSlack(int i, int j, long weight) {
+            long slack = dualVariable[i] + dualVariable[j] - 2 * weight;
+            IntList iBlossoms = new IntList(), jBlossoms = new IntList();
+            for (int b = blossomParent[i]; b != -1; b = blossomParent[b])
+                iBlossoms.add(b);
+            for (int b = blossomParent[j]; b != -1; b = blossomParent[b])
+                jBlossoms.add(b);
+            for (int a = iBlossoms.size() - 1, c = jBlossoms.size() - 1; a >= 0 && c >= 0 && iBlossoms.get(a) == jBlossoms.get(c); a--, c--)
+                slack += 2 * dualVariable[iBlossoms.get(a)];
+            return slack;
+        }
+
+        /**
+         * Grows the alternating trees from the queued outer vertices along tight edges
+         * @return true if the matching was augmented
+         */
+        private boolean scanQueue() {
+            while (queue.size() > 0) {
+                int v = queue.pop();
+                for (int p : neighbourEnds[v]) {
+                    int k = p / 2;
+                    int w = endpoint[p];
+                    if (inBlossom[v] == inBlossom[w])
+                        continue;
+                    long kSlack = 0;
+                    if (!allowEdge[k]) {
+                        kSlack = slack(k);
+                        if (kSlack <= 0)
+                            allowEdge[k] = true;
+                    }
+                    if (allowEdge[k]) {
+                        if (label[inBlossom[w]] == 0) {
+                            assignLabel(w, 2, p ^ 1);
+                        }
+                        else if (label[inBlossom[w]] == 1) {
+                            int base = scanBlossom(v, w);
+                            if (base >= 0) {
+                                addBlossom(base, k);
+                            }
+                            else {
+                                augmentMatching(k);
+                                return true;
+                            }
+                        }
+                        else if (label[w] == 0) {
+                            label[w] = 2;
+                            labelEnd[w] = p ^ 1;
+                        }
+                    }
+                    else if (label[inBlossom[w]] == 1) {
+                        int b = inBlossom[v];
+                        if (bestEdge[b] == -1 || kSlack < slack(bestEdge[b]))
+                            bestEdge[b] = k;
+                    }
+                    else if (label[w] == 0) {
+                        if (bestEdge[w] == -1 || kSlack < slack(bestEdge[w]))
+                            bestEdge[w] = k;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Changes the dual variables by the largest amount keeping them feasible, which makes an edge tight
+         * or lets an inner blossom be expanded
+         * @return false if no further progress is possible in this stage
+         */
+        private boolean adjustDualVariables() {
+            int deltaType = -1;
+            long delta = 0;
+            int deltaEdge = -1, deltaBlossom = -1;
+
+            for (int v = 0; v < n; v++) {
+                if (label[inBlossom[v]] == 0 && bestEdge[v] != -1) {
+                    long d = slack(bestEdge[v]);
+                    if (deltaType == -1 || d < delta) {
+                        delta = d;
+                        deltaType = 2;
+                        deltaEdge = bestEdge[v];
+                    }
+                }
+            }
+            for (int b = 0; b < 2 * n; b++) {
+                if (blossomParent[b] == -1 && label[b] == 1 && bestEdge[b] != -1) {
+                    long d = slack(bestEdge[b]) / 2;
+                    if (deltaType == -1 || d < delta) {
+                        delta = d;
+                        deltaType = 3;
+                        deltaEdge = bestEdge[b];
+                    }
+                }
+            }
+            for (int b = n; b < 2 * n; b++) {
+                if (blossomBase[b] >= 0 && blossomParent[b] == -1 && label[b] == 2 && (deltaType == -1 || dualVariable[b] < delta)) {
+                    delta = dualVariable[b];
+                    deltaType = 4;
+                    deltaBlossom = b;
+                }
+            }
+            if (deltaType == -1) {
+                //No further improvement is possible, the dual variables are only made optimal
+                deltaType = 1;
+                long minimum = Long.MAX_VALUE;
+                for (int v = 0; v < n; v++)
+                    minimum = Math.min(minimum, dualVariable[v]);
+                delta = Math.max(0, minimum);
+            }
+
+            for (int v = 0; v < n; v++) {
+                if (label[inBlossom[v]] == 1)
+                    dualVariable[v] -= delta;
+                else if (label[inBlossom[v]] == 2)
+                    dualVariable[v] += delta;
+            }
+            for (int b = n; b < 2 * n; b++) {
+                if (blossomBase[b] >= 0 && blossomParent[b] == -1) {
+                    if (label[b] == 1)
+                        dualVariable[b] += delta;
+                    else if (label[b] == 2)
+                        dualVariable[b] -= delta;
+                }
+            }
+
+            switch (deltaType) {
+                case 1:
+                    return false;
+                case 2: {
+                    allowEdge[deltaEdge] = true;
+                    int i = sources[deltaEdge], j = destinations[deltaEdge];
+                    if (label[inBlossom[i]] == 0)
+                        i = j;
+                    queue.add(i);
+                    return true;
+                }
+                case 3:
+                    allowEdge[deltaEdge] = true;
+                    queue.add(sources[deltaEdge]);
+                    return true;
+                default:
+                    expandBlossom(deltaBlossom, false);
+                    return true;
+            }
+        }
+
+        private long slack(int k) {
+            return dualVariable[sources[k]] + dualVariable[destinations[k]] - 2 * edgeWeights[k];
+        }
+
+        /**
+         * Adds the vertices inside a blossom to a list
+         */
+        private void leaves(int b, IntList out) {
+            if (b < n) {
+                out.add(b);
+                return;
+            }
+            for (int child : blossomChildren[b])
+                leaves(child, out);
+        }
+
+        /**
+         * Labels a vertex and the top level blossom containing it, an inner blossom labels its matched partner outer
+         * @param w the vertex
+         * @param t 1 for outer, 2 for inner
+         * @param p endpoint through which the vertex was reached, -1 for a root
+         */
+        private void assignLabel(int w, int t, int p) {
+            while (true) {
+                int b = inBlossom[w];
+                label[w] = label[b] = t;
+                labelEnd[w] = labelEnd[b] = p;
+                bestEdge[w] = bestEdge[b] = -1;
+                if (t == 1) {
+                    IntList leaves = new IntList();
+                    leaves(b, leaves);
+                    for (int i = 0; i < leaves.size(); i++)
+                        queue.add(leaves.get(i));
+                    return;
+                }
+                int base = blossomBase[b];
+                w = endpoint[mate[base]];
+                t = 1;
+                p = mate[base] ^ 1;
+            }
+        }
+
+        /**
+         * Follows the trees of two outer vertices back to their roots
+         * @return base of the new blossom if both lead to the same tree, -1 if there is an augmenting path
+         */
+        private int scanBlossom(int v, int w) {
+            IntList path = new IntList();
+            int base = -1;
+            while (v != -1 || w != -1) {
+                int b = inBlossom[v];
+                if ((label[b] & 4) != 0) {
+                    base = blossomBase[b];
+                    break;
+                }
+                path.add(b);
+                label[b] = 5;
+                if (labelEnd[b] == -1) {
+                    v = -1;
+                }
+                else {
+                    v = endpoint[labelEnd[b]];
+                    b = inBlossom[v];
+                    v = endpoint[labelEnd[b]];
+                }
+                if (w != -1) {
+                    int swap = v;
+                    v = w;
+                    w = swap;
+                }
+            }
+            for (int i = 0; i < path.size(); i++)
+                label[path.get(i)] = 1;
+            return base;
+        }
+
+        /**
+         * Creates a blossom from the cycle closed by edge k through the given base
+         */
+        private void addBlossom(int base, int k) {
+            int v = sources[k], w = destinations[k];
+            int bb = inBlossom[base];
+            int bv = inBlossom[v];
+            int bw = inBlossom[w];
+            int b = unusedBlossoms.pop();
+            blossomBase[b] = base;
+            blossomParent[b] = -1;
+            blossomParent[bb] = b;
+
+            IntList path = new IntList();
+            IntList ends = new IntList();
+            while (bv != bb) {
+                blossomParent[bv] = b;
+                path.add(bv);
+                ends.add(labelEnd[bv]);
+                v = endpoint[labelEnd[bv]];
+                bv = inBlossom[v];
+            }
+            path.add(bb);
+            int[] children = reversed(path);
+            int[] childEnds = reversed(ends);
+            IntList allChildren = new IntList();
+            IntList allEnds = new IntList();
+            for (int child : children)
+                allChildren.add(child);
+            for (int end : childEnds)
+                allEnds.add(end);
+            allEnds.add(2 * k);
+            while (bw != bb) {
+                blossomParent[bw] = b;
+                allChildren.add(bw);
+                allEnds.add(labelEnd[bw] ^ 1);
+                w = endpoint[labelEnd[bw]];
+                bw = inBlossom[w];
+            }
+            blossomChildren[b] = toArray(allChildren);
+            blossomEnds[b] = toArray(allEnds);
+
+            label[b] = 1;
+            labelEnd[b] = labelEnd[bb];
+            dualVariable[b] = 0;
+            IntList leaves = new IntList();
+            leaves(b, leaves);
+            for (int i = 0; i < leaves.size(); i++) {
+                int leaf = leaves.get(i);
+                if (label[inBlossom[leaf]] == 2)
+                    queue.add(leaf);
+                inBlossom[leaf] = b;
+            }
+
+            //The least slack edges from the new blossom to every other outer blossom
+            int[] bestEdgeTo = new int[2 * n];
+            Arrays.fill(bestEdgeTo, -1);
+            for (int child : blossomChildren[b]) {
+                if (blossomBestEdges[child] == null) {
+                    IntList childLeaves = new IntList();
+                    leaves(child, childLeaves);
+                    for (int i = 0; i < childLeaves.size(); i++) {
+                        for (int p : neighbourEnds[childLeaves.get(i)])
+                            considerBestEdge(b, p / 2, bestEdgeTo);
+                    }
+                }
+                else {
+                    for (int edge : blossomBestEdges[child])
+                        considerBestEdge(b, edge, bestEdgeTo);
+                }
+                blossomBestEdges[child] = null;
+                bestEdge[child] = -1;
+            }
+            IntList best = new IntList();
+            for (int edge : bestEdgeTo) {
+                if (edge != -1)
+                    best.add(edge);
+            }
+            blossomBestEdges[b] = toArray(best);
+            bestEdge[b] = -1;
+            for (int edge : blossomBestEdges[b]) {
+                if (bestEdge[b] == -1 || slack(edge) < slack(bestEdge[b]))
+                    bestEdge[b] = edge;
+            }
+        }
+
+        private void considerBestEdge(int b, int k, int[] bestEdgeTo) {
+            int i = sources[k], j = destinations[k];
+            if (inBlossom[j] == b)
+                j = i;
+            int bj = inBlossom[j];
+            if (bj != b && label[bj] == 1 && (bestEdgeTo[bj] == -1 || slack(k) < slack(bestEdgeTo[bj])))
+                bestEdgeTo[bj] = k;
+        }
+
+        /**
+         * Dissolves a blossom into its children, an inner blossom relabels the children on its alternating path
+         * @param b the blossom
+         * @param endStage true at the end of a stage, where nested blossoms with zero dual are expanded as well
+         */
+        private void expandBlossom(int b, boolean endStage) {
+            for (int s : blossomChildren[b]) {
+                blossomParent[s] = -1;
+                if (s < n) {
+                    inBlossom[s] = s;
+                }
+                else if (endStage && dualVariable[s] == 0) {
+                    expandBlossom(s, endStage);
+                }
+                else {
+                    IntList leaves = new IntList();
+                    leaves(s, leaves);
+                    for (int i = 0; i < leaves.size(); i++)
+                        inBlossom[leaves.get(i)] = s;
+                }
+            }
+
+            if (!endStage && label[b] == 2) {
+                int[] children = blossomChildren[b];
+                int[] ends = blossomEnds[b];
+                int length = children.length;
+                int entryChild = inBlossom[endpoint[labelEnd[b] ^ 1]];
+                int j = indexOf(children, entryChild);
+                int jStep, endTrick;
+                if ((j & 1) != 0) {
+                    j -= length;
+                    jStep = 1;
+                    endTrick = 0;
+                }
+                else {
+                    jStep = -1;
+                    endTrick = 1;
+                }
+                int p = labelEnd[b];
+                while (j != 0) {
+                    label[endpoint[p ^ 1]] = 0;
+                    label[endpoint[ends[mod(j - endTrick, length)] ^ endTrick ^ 1]] = 0;
+                    assignLabel(endpoint[p ^ 1], 2, p);
+                    allowEdge[ends[mod(j - endTrick, length)] / 2] = true;
+                    j += jStep;
+                    p = ends[mod(j - endTrick, length)] ^ endTrick;
+                    allowEdge[p / 2] = true;
+                    j += jStep;
+                }
+                int bv = children[mod(j, length)];
+                label[endpoint[p ^ 1]] = label[bv] = 2;
+                labelEnd[endpoint[p ^ 1]] = labelEnd[bv] = p;
+                bestEdge[bv] = -1;
+                j += jStep;
+                while (children[mod(j, length)] != entryChild) {
+                    bv = children[mod(j, length)];
+                    if (label[bv] == 1) {
+                        j += jStep;
+                        continue;
+                    }
+                    IntList leaves = new IntList();
+                    leaves(bv, leaves);
+                    int v = -1;
+                    for (int i = 0; i < leaves.size(); i++) {
+                        v = leaves.get(i);
+                        if (label[v] != 0)
+                            break;
+                    }
+                    if (label[v] != 0) {
+                        label[v] = 0;
+                        label[endpoint[mate[blossomBase[bv]]]] = 0;
+                        assignLabel(v, 2, labelEnd[v]);
+                    }
+                    j += jStep;
+                }
+            }
+
+            label[b] = labelEnd[b] = -1;
+            blossomChildren[b] = blossomEnds[b] = null;
+            blossomBase[b] = -1;
+            blossomBestEdges[b] = null;
+            bestEdge[b] = -1;
+            unusedBlossoms.add(b);
+        }
+
+        /**
+         * Swaps matched and unmatched edges inside a blossom so that vertex v becomes its base
+         */
+        private void augmentBlossom(int b, int v) {
+            int t = v;
+            while (blossomParent[t] != b)
+                t = blossomParent[t];
+            if (t >= n)
+                augmentBlossom(t, v);
+            int[] children = blossomChildren[b];
+            int[] ends = blossomEnds[b];
+            int length = children.length;
+            int i = indexOf(children, t);
+            int j = i;
+            int jStep, endTrick;
+            if ((i & 1) != 0) {
+                j -= length;
+                jStep = 1;
+                endTrick = 0;
+            }
+            else {
+                jStep = -1;
+                endTrick = 1;
+            }
+            while (j != 0) {
+                j += jStep;
+                t = children[mod(j, length)];
+                int p = ends[mod(j - endTrick, length)] ^ endTrick;
+                if (t >= n)
+                    augmentBlossom(t, endpoint[p]);
+                j += jStep;
+                t = children[mod(j, length)];
+                if (t >= n)
+                    augmentBlossom(t, endpoint[p ^ 1]);
+                mate[endpoint[p]] = p ^ 1;
+                mate[endpoint[p ^ 1]] = p;
+            }
+            blossomChildren[b] = rotated(children, i);
+            blossomEnds[b] = rotated(ends, i);
+            blossomBase[b] = blossomBase[blossomChildren[b][0]];
+        }
+
+        /**
+         * Augments the matching along the path through edge k between the roots of two trees
+         */
+        private void augmentMatching(int k) {
+            for (int side = 0; side < 2; side++) {
+                int s = side == 0 ? sources[k] : destinations[k];
+                int p = side == 0 ? 2 * k + 1 : 2 * k;
+                while (true) {
+                    int bs = inBlossom[s];
+                    if (bs >= n)
+                        augmentBlossom(bs, s);
+                    mate[s] = p;
+                    if (labelEnd[bs] == -1)
+                        break;
+                    int t = endpoint[labelEnd[bs]];
+                    int bt = inBlossom[t];
+                    s = endpoint[labelEnd[bt]];
+                    int j = endpoint[labelEnd[bt] ^ 1];
+                    if (bt >= n)
+                        augmentBlossom(bt, j);
+                    mate[j] = labelEnd[bt];
+                    p = labelEnd[bt] ^ 1;
+                }
+            }
+        }
+
+        private static int mod(int j, int length) {
+            return j < 0 ? j + length : j;
+        }
+
+        private static int indexOf(int[] values, int value) {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] == value)
+                    return i;
+            }
+            throw new IllegalStateException(value + " not found");
+        }
+
+        private static int[] rotated(int[] values, int start) {
+            int[] result = new int[values.length];
+            for (int i = 0; i < values.length; i++)
+                result[i] = values[(start + i) % values.length];
+            return result;
+        }
+
+        private static int[] reversed(IntList list) {
+            int[] result = new int[list.size()];
+            for (int i = 0; i < result.length; i++)
+                result[i] = list.get(result.length - 1 - i);
+            return result;
+        }
+
+        private static int[] toArray(IntList list) {
+            int[] result = new int[list.size()];
+            for (int i = 0; i < result.length; i++)
+                result[i] = list.get(i);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package org.info6205.tsp.algorithm;
+
+import org.info6205.tsp.core.Graph;
+import org.info6205.tsp.core.Vertex;
+import org.info6205.tsp.util.GraphUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs Christofides algorithm several times from different random start vertices on a thread pool
+ * and keeps the shortest tour.
+ * All runs read the same frozen snapshot of the graph. Every run gets its own seed,
+ * drawn up front from the seed of the runner, for the start vertex of its minimum spanning tree
+ */
+public class MultiStartChristofides {
+
+    /**
+     * Read only graph shared by all the runs
+     */
+    private final Graph graph;
+
+    /**
+     * Number of runs
+     */
+    private final int starts;
+
+    /**
+     * Seed from which the seeds of the runs are drawn
+     */
+    private final long seed;
+
+    /**
+     * Number of threads executing the runs
+     */
+    private final int threads;
+
+    /**
+     * Shortest tour found so far
+     */
+    private final AtomicReference<Result> best = new AtomicReference<>();
+
+    /**
+     * Parameterized constructor using a random seed and one thread per available processor
+     * @param graph Graph for which the tours are generated
+     * @param starts Number of runs
+     */
+    public MultiStartChristofides(Graph graph, int starts) {
+        this(graph, starts, new Random().nextLong(), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Parameterized constructor
+     * @param graph Graph for which the tours are generated, it is frozen before the runs start
+     * @param starts Number of runs
+     * @param seed Seed from which the seeds of the runs are drawn
+     * @param threads Number of threads executing the runs
+     */
+    public MultiStartChristofides(Graph graph, int starts, long seed, int threads) {
+        if (starts < 1)
+            throw new IllegalArgumentException("At least one start is needed");
+        if (threads < 1)
+            throw new IllegalArgumentException("At least one thread is needed");
+        this.graph = graph.freeze();
+        this.starts = starts;
+        this.seed = seed;
+        this.threads = threads;
+    }
+
+    /**
+     * Runs all the starts and returns the shortest tour, ties are broken by the index of the run
+     * @return shortest TSP tour containing a list of vertices
+     */
+    public List<Vertex> getBestTour() throws Exception {
+        ChristofidesAlgorithm christofidesAlgorithm = new ChristofidesAlgorithm(graph);
+        Random seeds = new Random(seed);
+        List<Callable<Void>> runs = new ArrayList<>();
+        for (int run = 0; run < starts; run++) {
+            int index = run;
+            long runSeed = seeds.nextLong();
+            runs.add(() -> {
+                List<Vertex> tour = christofidesAlgorithm.generateTSPTour(new Random(runSeed));
+                Result result = new Result(tour, GraphUtil.getTotalCostOfTour(tour), index);
+                best.accumulateAndGet(result, (current, candidate) -> current == null || candidate.isBetterThan(current) ? candidate : current);
+                return null;
+            });
+        }
+
+        best.set(null);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, starts));
+        try {
+            for (Future<Void> future : executor.invokeAll(runs))
+                future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        } finally {
+            executor.shutdownNow();
+        }
+        return best.get().tour;
+    }
+
+    /**
+     * Cost of the shortest tour of the last call to getBestTour
+     * @return cost of the tour
+     */
+    public double getBestCost() {
+        Result result = best.get();
+        if (result == null)
+            throw new IllegalStateException("No tour has been generated yet");
+        return result.cost;
+    }
+
+    /**
+     * Tour of one run with its cost
+     */
+    private static final class Result {
+
+        private final List<Vertex> tour;
+
+        private final double cost;
+
+        private final int run;
+
+        private Result(List<Vertex> tour, double cost, int run) {
+            this.tour = tour;
+            this.cost = cost;
+            this.run = run;
+        }
+
+        private boolean isBetterThan(Result other) {
+            return cost < other.cost || (cost == other.cost && run < other.run);
+        }
+    }
+}
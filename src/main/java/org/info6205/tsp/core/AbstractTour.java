@@ -0,0 +1,144 @@
+package org.info6205.tsp.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Part of a tour shared by the representations: the graph, the cost and the moves built on reversal
+ */
+public abstract class AbstractTour implements Tour {
+
+    /**
+     * Graph providing the vertex indices and the distances
+     */
+    protected final DistanceMatrixGraph graph;
+
+    /**
+     * Total cost of the closed tour
+     */
+    protected double cost;
+
+    /**
+     * Parameterized constructor
+     * @param graph Graph providing the vertex indices and the distances
+     */
+    protected AbstractTour(DistanceMatrixGraph graph) {
+        this.graph = graph;
+    }
+
+    @Override
+    public void reverse(int from, int to) {
+        int p = prev(from), q = next(to);
+        if (q == from)
+            return;
+        cost += distance(p, to) + distance(from, q) - distance(p, from) - distance(to, q);
+        reversePath(from, to, p, q);
+    }
+
+    /**
+     * Reverses the path from one vertex to another, the cost is already updated
+     * @param from Index of the first vertex of the path
+     * @param to Index of the last vertex of the path
+     * @param p Index of the vertex before the path
+     * @param q Index of the vertex after the path
+     */
+    protected abstract void reversePath(int from, int to, int p, int q);
+
+    @Override
+    public void make2OptMove(int t1, int t2, int t3, int t4) {
+        if (next(t1) == t2)
+            reverse(t2, t3);
+        else
+            reverse(t3, t2);
+    }
+
+    @Override
+    public double getCost() {
+        return cost;
+    }
+
+    @Override
+    public double distance(int i, int j) {
+        return graph.getWeight(i, j);
+    }
+
+    @Override
+    public DistanceMatrixGraph getGraph() {
+        return graph;
+    }
+
+    @Override
+    public Vertex getVertex(int index) {
+        return graph.getVertex(index);
+    }
+
+    @Override
+    public int getIndexOf(Vertex vertex) {
+        return graph.getIndexOf(vertex);
+    }
+
+    @Override
+    public List<Vertex> toList() {
+        List<Vertex> vertices = new ArrayList<>(size() + 1);
+        if (size() == 0)
+            return vertices;
+        int start = first();
+        int vertex = start;
+        do {
+            vertices.add(graph.getVertex(vertex));
+            vertex = next(vertex);
+        } while (vertex != start);
+        vertices.add(vertices.get(0));
+        return vertices;
+    }
+
+    /**
+     * Vertex from which the tour is listed
+     * @return index of the first vertex
+     */
+    protected abstract int first();
+
+    /**
+     * Calculates the cost of the closed tour from scratch
+     * @return cost of the tour
+     */
+    protected double calculateCost() {
+        double total = 0;
+        for (int vertex = 0; vertex < size(); vertex++)
+            total += distance(vertex, next(vertex));
+        return total;
+    }
+
+    /**
+     * Maps the vertices of a tour to their index in the graph
+     * @param tour List of vertices, the repeated start vertex at the end is optional
+     * @param graph Graph containing every vertex of the tour
+     * @return vertex index at every position of the tour
+     */
+    protected static int[] toIndices(List<Vertex> tour, DistanceMatrixGraph graph) {
+        List<Vertex> vertices = withoutClosingVertex(tour);
+        if (vertices.size() != graph.getVertexCount())
+            throw new IllegalArgumentException("Tour has to visit every vertex of the graph exactly once");
+        int[] order = new int[vertices.size()];
+        boolean[] visited = new boolean[vertices.size()];
+        for (int i = 0; i < vertices.size(); i++) {
+            int index = graph.getIndexOf(vertices.get(i));
+            if (index == -1 || visited[index])
+                throw new IllegalArgumentException("Tour has to visit every vertex of the graph exactly once");
+            visited[index] = true;
+            order[i] = index;
+        }
+        return order;
+    }
+
+    /**
+     * Removes the repeated start vertex at the end of a tour if present
+     * @param tour List of vertices
+     * @return list of vertices visited exactly once
+     */
+    static List<Vertex> withoutClosingVertex(List<Vertex> tour) {
+        if (tour.size() > 1 && tour.get(0).equals(tour.get(tour.size() - 1)))
+            return tour.subList(0, tour.size() - 1);
+        return tour;
+    }
+}
@@ -0,0 +1,133 @@
+package org.info6205.tsp.core;
+
+import java.util.List;
+
+/**
+ * Array based representation of a TSP tour over the vertices of a distance matrix graph.
+ * Holds the vertex index at every tour position and the inverse position of every vertex index,
+ * so next, prev and between are O(1). Segment reversal is done in place on the shorter side of the
+ * cycle and the total cost of the tour is updated incrementally by every move
+ */
+public class ArrayTour extends AbstractTour {
+
+    /**
+     * Vertex index at every position of the tour
+     */
+    private final int[] order;
+
+    /**
+     * Position in the tour of every vertex index
+     */
+    private final int[] position;
+
+    /**
+     * Parameterized constructor calculating distances from the coordinates of the tour vertices
+     * @param tour List of vertices, the repeated start vertex at the end is optional
+     */
+    public ArrayTour(List<Vertex> tour) {
+        this(tour, new ImplicitCompleteGraph(withoutClosingVertex(tour)));
+    }
+
+    /**
+     * Parameterized constructor reading distances from a distance matrix graph
+     * @param tour List of vertices, the repeated start vertex at the end is optional
+     * @param graph Graph containing every vertex of the tour
+     */
+    public ArrayTour(List<Vertex> tour, DistanceMatrixGraph graph) {
+        super(graph);
+        this.order = toIndices(tour, graph);
+        this.position = new int[order.length];
+        for (int i = 0; i < order.length; i++)
+            position[order[i]] = i;
+        this.cost = calculateCost();
+    }
+
+    /**
+     * Copy constructor
+     * @param other Tour to be copied
+     */
+    private ArrayTour(ArrayTour other) {
+        super(other.graph);
+        this.order = other.order.clone();
+        this.position = other.position.clone();
+        this.cost = other.cost;
+    }
+
+    @Override
+    public Tour copy() {
+        return new ArrayTour(this);
+    }
+
+    @Override
+    public int size() {
+        return order.length;
+    }
+
+    /**
+     * Getter for the vertex index at a position
+     * @param position Position in the tour
+     * @return index of the vertex
+     */
+    public int at(int position) {
+        return order[position];
+    }
+
+    /**
+     * Getter for the position of a vertex
+     * @param vertex Index of the vertex
+     * @return position in the tour
+     */
+    public int getPosition(int vertex) {
+        return position[vertex];
+    }
+
+    @Override
+    public int next(int vertex) {
+        int next = position[vertex] + 1;
+        return order[next == order.length ? 0 : next];
+    }
+
+    @Override
+    public int prev(int vertex) {
+        int prev = position[vertex] - 1;
+        return order[prev < 0 ? order.length - 1 : prev];
+    }
+
+    @Override
+    public boolean between(int a, int b, int c) {
+        int pa = position[a], pb = position[b], pc = position[c];
+        if (pa <= pc)
+            return pa <= pb && pb <= pc;
+        return pb >= pa || pb <= pc;
+    }
+
+    /**
+     * Reverses the positions of the path in place.
+     * If the path is longer than half of the tour the rest of the tour is reversed instead, which gives the same cycle
+     */
+    @Override
+    protected void reversePath(int from, int to, int p, int q) {
+        int n = order.length;
+        int i = position[from], j = position[to];
+        int length = j - i >= 0 ? j - i + 1 : j - i + n + 1;
+        if (2 * length > n) {
+            i = position[q];
+            j = position[p];
+            length = n - length;
+        }
+        for (int k = 0; k < length / 2; k++) {
+            int vi = order[i], vj = order[j];
+            order[i] = vj;
+            position[vj] = i;
+            order[j] = vi;
+            position[vi] = j;
+            if (++i == n) i = 0;
+            if (--j < 0) j = n - 1;
+        }
+    }
+
+    @Override
+    protected int first() {
+        return order[0];
+    }
+}
@@ -0,0 +1,112 @@
+package org.info6205.tsp.core;
+
+import org.apache.lucene.util.SloppyMath;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A symmetric distance matrix stored as a flat upper triangular array of doubles.
+ * Only the n*(n-1)/2 distances above the diagonal are stored.
+ * The distances are filled in by the constructors and can not be changed afterwards
+ */
+public class DenseDistanceMatrix implements DistanceMatrix {
+
+    /**
+     * Largest number of vertices whose upper triangle still fits in a single java array
+     */
+    public static final int MAX_SIZE = 65536;
+
+    /**
+     * Number of vertices
+     */
+    private final int n;
+
+    /**
+     * Upper triangular distances stored row by row
+     */
+    private final double[] distances;
+
+    /**
+     * Parameterized constructor which calculates all distances using the haversine formula
+     * @param vertices Vertices in index order
+     */
+    public DenseDistanceMatrix(List<Vertex> vertices) {
+        this(vertices.size());
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            Vertex a = vertices.get(i);
+            for (int j = i + 1; j < n; j++) {
+                Vertex b = vertices.get(j);
+                distances[k++] = SloppyMath.haversinMeters(a.getXPos(), a.getYPos(), b.getXPos(), b.getYPos());
+            }
+        }
+    }
+
+    /**
+     * Parameterized constructor taking the distances from the weights of edges,
+     * pairs of vertices without an edge keep the distance 0
+     * @param vertices Vertices in index order
+     * @param edges Edges between the vertices
+     */
+    public DenseDistanceMatrix(List<Vertex> vertices, Collection<Edge> edges) {
+        this(vertices.size());
+        VertexRegistry registry = new VertexRegistry(vertices);
+        for (Edge edge : edges) {
+            int source = registry.getIndexOf(edge.getSource());
+            int destination = registry.getIndexOf(edge.getDestination());
+            if (source < 0 || destination < 0)
+                throw new IllegalArgumentException(edge + " has a vertex outside the matrix");
+            if (source != destination)
+                setDistance(source, destination, edge.getWeight());
+        }
+    }
+
+    /**
+     * Parameterized constructor creating a matrix with all distances set to 0
+     * @param n Number of vertices
+     */
+    DenseDistanceMatrix(int n) {
+        if (n > MAX_SIZE)
+            throw new IllegalArgumentException(n + " vertices do not fit in a dense distance matrix");
+        this.n = n;
+        this.distances = new double[(int) ((long) n * (n - 1) / 2)];
+    }
+
+    @Override
+    public int size() {
+        return n;
+    }
+
+    @Override
+    public double getDistance(int i, int j) {
+        if (i == j)
+            return 0;
+        return distances[offset(i, j)];
+    }
+
+    /**
+     * Sets the distance between two different vertices, only used while the matrix is built
+     * @param i Index of the first vertex
+     * @param j Index of the second vertex
+     * @param distance Distance between the vertices
+     */
+    void setDistance(int i, int j, double distance) {
+        distances[offset(i, j)] = distance;
+    }
+
+    /**
+     * Position of a pair of vertices in the upper triangular array
+     * @param i Index of the first vertex
+     * @param j Index of the second vertex
+     * @return offset into the distance array
+     */
+    private int offset(int i, int j) {
+        if (i > j) {
+            int temp = i;
+            i = j;
+            j = temp;
+        }
+        return (int) ((long) i * (2L * n - i - 1) / 2) + (j - i - 1);
+    }
+}
@@ -0,0 +1,24 @@
+package org.info6205.tsp.core;
+
+/**
+ * Index addressed access to the pairwise distances of a set of vertices.
+ * Vertices are identified by a dense index from 0 to size()-1.
+ * Implementations are read only, a matrix must not change once it is handed to a graph
+ */
+public interface DistanceMatrix {
+
+    /**
+     * Number of vertices covered by the matrix
+     * @return number of vertices
+     */
+    public int size();
+
+    /**
+     * Distance between two vertices identified by their index
+     * @param i Index of the first vertex
+     * @param j Index of the second vertex
+     * @return distance between the vertices, 0 if both indices are the same
+     */
+    public double getDistance(int i, int j);
+
+}
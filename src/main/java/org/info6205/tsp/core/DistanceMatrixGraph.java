@@ -0,0 +1,312 @@
+package org.info6205.tsp.core;
+
+import java.util.*;
+
+/**
+ * A read only complete graph backed by a distance matrix.
+ * Edges returned through the Graph interface are lazy views which create each edge
+ * while iterating, algorithms can read weights directly by vertex index using getWeight
+ */
+public class DistanceMatrixGraph implements IndexedGraph {
+
+    /**
+     * Vertices of the graph in index order
+     */
+    private final List<Vertex> vertices;
+
+    /**
+     * Read only set view of the vertices in index order
+     */
+    private final Set<Vertex> vertexSet;
+
+    /**
+     * Index of every vertex in the distance matrix
+     */
+    private final VertexRegistry registry;
+
+    /**
+     * Distances between all pairs of vertices
+     */
+    private final DistanceMatrix distanceMatrix;
+
+    /**
+     * Parameterized constructor which calculates the distance matrix from the vertex coordinates
+     * @param vertices Vertices of the graph in index order
+     */
+    public DistanceMatrixGraph(List<Vertex> vertices) {
+        this(vertices, new DenseDistanceMatrix(vertices));
+    }
+
+    /**
+     * Parameterized constructor for an already calculated distance matrix
+     * @param vertices Vertices of the graph in index order
+     * @param distanceMatrix Distances between all pairs of vertices
+     */
+    public DistanceMatrixGraph(List<Vertex> vertices, DistanceMatrix distanceMatrix) {
+        if (vertices.size() != distanceMatrix.size())
+            throw new IllegalArgumentException("Distance matrix size does not match number of vertices");
+        this.vertices = Collections.unmodifiableList(new ArrayList<>(vertices));
+        this.vertexSet = Collections.unmodifiableSet(new LinkedHashSet<>(vertices));
+        this.registry = new VertexRegistry(vertices);
+        if (registry.size() != vertices.size())
+            throw new IllegalArgumentException("Vertices of the graph have to be unique");
+        this.distanceMatrix = distanceMatrix;
+    }
+
+    /**
+     * Number of vertices in the graph
+     * @return number of vertices
+     */
+    @Override
+    public int getVertexCount() {
+        return vertices.size();
+    }
+
+    /**
+     * Getter for vertex by index
+     * @param index Index of the vertex
+     * @return vertex at the index
+     */
+    @Override
+    public Vertex getVertex(int index) {
+        return vertices.get(index);
+    }
+
+    /**
+     * Getter for the index of a vertex
+     * @param vertex Vertex for which index is needed
+     * @return index of the vertex, -1 if vertex is not present
+     */
+    @Override
+    public int getIndexOf(Vertex vertex) {
+        return registry.getIndexOf(vertex);
+    }
+
+    /**
+     * Weight of the edge between two vertices identified by their index
+     * @param i Index of the source vertex
+     * @param j Index of the destination vertex
+     * @return weight of the edge
+     */
+    public double getWeight(int i, int j) {
+        return distanceMatrix.getDistance(i, j);
+    }
+
+    /**
+     * Getter for the backing distance matrix
+     * @return distance matrix of the graph
+     */
+    public DistanceMatrix getDistanceMatrix() {
+        return distanceMatrix;
+    }
+
+    /**
+     * The graph is read only already, so it is returned as it is
+     * @return this graph
+     */
+    @Override
+    public IndexedGraph freeze() {
+        return this;
+    }
+
+    /**
+     * Vertices can not be added as the graph is read only
+     * @throws Exception always
+     */
+    @Override
+    public boolean addVertex(Vertex vertex) throws Exception {
+        throw new Exception("DistanceMatrixGraph is read only");
+    }
+
+    /**
+     * Vertices can not be removed as the graph is read only
+     * @throws Exception always
+     */
+    @Override
+    public List<Edge> removeVertex(Vertex vertex) throws Exception {
+        throw new Exception("DistanceMatrixGraph is read only");
+    }
+
+    /**
+     * Getting all vertices in the graph
+     * @return vertices in the graph in index order
+     */
+    @Override
+    public Set<Vertex> getAllVertices() {
+        return vertexSet;
+    }
+
+    /**
+     * Edges can not be added as the graph is read only
+     * @throws Exception always
+     */
+    @Override
+    public void addEdge(Vertex sourceVertex, Vertex destinationVertex, double cost) throws Exception {
+        throw new Exception("DistanceMatrixGraph is read only");
+    }
+
+    /**
+     * Edges can not be added as the graph is read only
+     * @throws Exception always
+     */
+    @Override
+    public void addEdge(Vertex sourceVertex, Vertex destinationVertex) throws Exception {
+        throw new Exception("DistanceMatrixGraph is read only");
+    }
+
+    /**
+     * Edges can not be added as the graph is read only
+     * @throws Exception always
+     */
+    @Override
+    public void addExistingEdgesToGraph(List<Edge> edges) throws Exception {
+        throw new Exception("DistanceMatrixGraph is read only");
+    }
+
+    /**
+     * Edges can not be removed as the graph is read only
+     * @throws Exception always
+     */
+    @Override
+    public void removeAllEdgesBetweenVertices(Vertex sourceVertex, Vertex destinationVertex) throws Exception {
+        throw new Exception("DistanceMatrixGraph is read only");
+    }
+
+    /**
+     * Getting all adjacent edges of a particular vertex
+     * @param vertex Vertex for which adjacent edges are needed
+     * @return A read only view creating an edge to every other vertex while iterating
+     * @throws Exception
+     */
+    @Override
+    public Set<Edge> getAllAdjacentEdgesOfVertex(Vertex vertex) throws Exception {
+        final int source = getIndexOfPresentVertex(vertex);
+        final int n = vertices.size();
+        return new AbstractSet<Edge>() {
+            @Override
+            public Iterator<Edge> iterator() {
+                return new Iterator<Edge>() {
+                    int next = source == 0 ? 1 : 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < n;
+                    }
+
+                    @Override
+                    public Edge next() {
+                        if (next >= n)
+                            throw new NoSuchElementException();
+                        Edge edge = new Edge(vertex, vertices.get(next), getWeight(source, next));
+                        next++;
+                        if (next == source)
+                            next++;
+                        return edge;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return n - 1;
+            }
+        };
+    }
+
+    /**
+     * Getting all edges between two vertices
+     * @param sourceVertex Source vertex of the edge
+     * @param destinationVertex Destination vertex of the edge
+     * @return A set containing the edge in both directions
+     * @throws Exception
+     */
+    @Override
+    public Set<Edge> getEdgesBetweenVertices(Vertex sourceVertex, Vertex destinationVertex) throws Exception {
+        int source = getIndexOfPresentVertex(sourceVertex);
+        int destination = getIndexOfPresentVertex(destinationVertex);
+        Set<Edge> edges = new HashSet<>();
+        if (source != destination) {
+            double weight = getWeight(source, destination);
+            edges.add(new Edge(sourceVertex, destinationVertex, weight));
+            edges.add(new Edge(destinationVertex, sourceVertex, weight));
+        }
+        return edges;
+    }
+
+    /**
+     * Get list of all edges in graph
+     * @return A read only view creating every edge in both directions while iterating
+     */
+    @Override
+    public Set<Edge> getAllEdges() {
+        final int n = vertices.size();
+        return new AbstractSet<Edge>() {
+            @Override
+            public Iterator<Edge> iterator() {
+                return new Iterator<Edge>() {
+                    int source = 0;
+                    int destination = n > 1 ? 1 : n;
+
+                    @Override
+                    public boolean hasNext() {
+                        return source < n && destination < n;
+                    }
+
+                    @Override
+                    public Edge next() {
+                        if (!hasNext())
+                            throw new NoSuchElementException();
+                        Edge edge = new Edge(vertices.get(source), vertices.get(destination), getWeight(source, destination));
+                        destination++;
+                        if (destination == source)
+                            destination++;
+                        if (destination >= n) {
+                            source++;
+                            destination = source == 0 ? 1 : 0;
+                        }
+                        return edge;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return (int) Math.min(Integer.MAX_VALUE, (long) n * (n - 1));
+            }
+        };
+    }
+
+    /**
+     * Get list of odd degree vertices in graph
+     * Every vertex has degree n-1 in a complete graph
+     * @return A set containing all vertices if n is even otherwise an empty set
+     */
+    @Override
+    public Set<Vertex> getOddDegreeVertices() {
+        if ((vertices.size() - 1) % 2 != 0)
+            return getAllVertices();
+        return new HashSet<>();
+    }
+
+    /**
+     * Getter for the index of a vertex which has to be present in the graph
+     * @param vertex Vertex for which index is needed
+     * @return index of the vertex
+     * @throws Exception Throws exception if vertex is not present
+     */
+    private int getIndexOfPresentVertex(Vertex vertex) throws Exception {
+        int index = getIndexOf(vertex);
+        if (index < 0)
+            throw new Exception(vertex + " not present in graph");
+        return index;
+    }
+
+    /**
+     * Overriding default to string
+     * @return Custom string containing the number of vertices in the graph
+     */
+    @Override
+    public String toString() {
+        return "DistanceMatrixGraph: " + vertices.size() + " vertices";
+    }
+}
@@ -0,0 +1,384 @@
+package org.info6205.tsp.core;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read only snapshot of a graph, with the adjacency lists compacted into primitive arrays.
+ * The adjacency of vertex i is stored at the positions offsets[i] to offsets[i+1]-1 of the target and weight arrays.
+ * All fields are final and never change after construction, so a frozen graph can be shared between threads
+ * without locking. The edge sets returned are read only views over the arrays instead of copies
+ */
+public class FrozenGraph implements IndexedGraph {
+
+    /**
+     * Vertices of the graph in index order
+     */
+    private final List<Vertex> vertices;
+
+    /**
+     * Unmodifiable set of the vertices in index order
+     */
+    private final Set<Vertex> vertexSet;
+
+    /**
+     * Index of every vertex
+     */
+    private final VertexRegistry registry;
+
+    /**
+     * Start of the adjacency of every vertex in the target and weight arrays, with n+1 entries
+     */
+    private final int[] offsets;
+
+    /**
+     * Index of the destination of every edge
+     */
+    private final int[] targets;
+
+    /**
+     * Weight of every edge
+     */
+    private final double[] weights;
+
+    /**
+     * Vertices with an odd number of adjacent edges
+     */
+    private final Set<Vertex> oddDegreeVertices;
+
+    /**
+     * Parameterized constructor copying the vertices and adjacent edges of a graph.
+     * Indexed graphs keep their vertex indices
+     * @param graph Graph to be copied, it must not be modified while it is copied
+     */
+    public FrozenGraph(Graph graph) {
+        List<Vertex> vertexList = new ArrayList<>(graph.getAllVertices());
+        if (graph instanceof IndexedGraph) {
+            IndexedGraph indexedGraph = (IndexedGraph) graph;
+            for (int i = 0; i < vertexList.size(); i++)
+                vertexList.set(i, indexedGraph.getVertex(i));
+        }
+        vertices = Collections.unmodifiableList(vertexList);
+        vertexSet = Collections.unmodifiableSet(new LinkedHashSet<>(vertexList));
+        registry = new VertexRegistry(vertexList);
+
+        int n = vertexList.size();
+        offsets = new int[n + 1];
+        List<Set<Edge>> adjacency = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Set<Edge> edges = adjacentEdges(graph, vertexList.get(i));
+            adjacency.add(edges);
+            offsets[i + 1] = offsets[i] + edges.size();
+        }
+        targets = new int[offsets[n]];
+        weights = new double[offsets[n]];
+        for (int i = 0; i < n; i++) {
+            int k = offsets[i];
+            for (Edge edge : adjacency.get(i)) {
+                targets[k] = registry.getIndexOf(edge.getDestination());
+                if (targets[k] < 0)
+                    throw new IllegalArgumentException(edge.getDestination() + " not present in graph");
+                weights[k] = edge.getWeight();
+                k++;
+            }
+        }
+        oddDegreeVertices = findOddDegreeVertices();
+    }
+
+    /**
+     * Parameterized constructor for adjacency lists which are already compacted into arrays,
+     * the adjacency of vertex i is stored at the positions offsets[i] to offsets[i+1]-1.
+     * The arrays are used as they are and must not be modified afterwards
+     * @param vertices Vertices of the graph in index order
+     * @param offsets Start of the adjacency of every vertex, with n+1 entries
+     * @param targets Index of the destination of every edge
+     * @param weights Weight of every edge
+     */
+    public FrozenGraph(List<Vertex> vertices, int[] offsets, int[] targets, double[] weights) {
+        int n = vertices.size();
+        if (offsets.length != n + 1 || offsets[0] != 0 || offsets[n] != targets.length || targets.length != weights.length)
+            throw new IllegalArgumentException("Adjacency arrays do not match the number of vertices");
+        for (int i = 0; i < n; i++) {
+            if (offsets[i] > offsets[i + 1])
+                throw new IllegalArgumentException("Adjacency offsets have to be ascending");
+        }
+        for (int target : targets) {
+            if (target < 0 || target >= n)
+                throw new IllegalArgumentException("Edge destination " + target + " not present in graph");
+        }
+        this.vertices = Collections.unmodifiableList(new ArrayList<>(vertices));
+        this.vertexSet = Collections.unmodifiableSet(new LinkedHashSet<>(vertices));
+        this.registry = new VertexRegistry(vertices);
+        if (registry.size() != n)
+            throw new IllegalArgumentException("Vertices of the graph have to be unique");
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.oddDegreeVertices = findOddDegreeVertices();
+    }
+
+    /**
+     * Collects the vertices with an odd number of adjacent edges
+     * @return unmodifiable set of the vertices in index order
+     */
+    private Set<Vertex> findOddDegreeVertices() {
+        Set<Vertex> odd = new LinkedHashSet<>();
+        for (int i = 0; i < vertices.size(); i++) {
+            if (getDegree(i) % 2 != 0)
+                odd.add(vertices.get(i));
+        }
+        return Collections.unmodifiableSet(odd);
+    }
+
+    /**
+     * Adjacent edges of a vertex which is known to be in the graph
+     */
+    private static Set<Edge> adjacentEdges(Graph graph, Vertex vertex) {
+        try {
+            return graph.getAllAdjacentEdgesOfVertex(vertex);
+        } catch (Exception e) {
+            throw new IllegalStateException("Graph was modified while it was frozen", e);
+        }
+    }
+
+    /**
+     * The graph is already frozen
+     * @return this graph
+     */
+    @Override
+    public IndexedGraph freeze() {
+        return this;
+    }
+
+    @Override
+    public int getVertexCount() {
+        return vertices.size();
+    }
+
+    @Override
+    public Vertex getVertex(int index) {
+        return vertices.get(index);
+    }
+
+    @Override
+    public int getIndexOf(Vertex vertex) {
+        return registry.getIndexOf(vertex);
+    }
+
+    /**
+     * Number of edges leaving a vertex
+     * @param index Index of the vertex
+     * @return degree of the vertex
+     */
+    public int getDegree(int index) {
+        return offsets[index + 1] - offsets[index];
+    }
+
+    /**
+     * Destination of one of the edges leaving a vertex
+     * @param index Index of the vertex
+     * @param k Position of the edge in the adjacency of the vertex, from 0 to degree-1
+     * @return index of the destination
+     */
+    public int getNeighbour(int index, int k) {
+        return targets[offsets[index] + k];
+    }
+
+    /**
+     * Weight of one of the edges leaving a vertex
+     * @param index Index of the vertex
+     * @param k Position of the edge in the adjacency of the vertex, from 0 to degree-1
+     * @return weight of the edge
+     */
+    public double getEdgeWeight(int index, int k) {
+        return weights[offsets[index] + k];
+    }
+
+    /**
+     * Vertices can not be added as the graph is read only
+     * @throws Exception always
+     */
+    @Override
+    public boolean addVertex(Vertex vertex) throws Exception {
+        throw new Exception("FrozenGraph is read only");
+    }
+
+    /**
+     * Vertices can not be removed as the graph is read only
+     * @throws Exception always
+     */
+    @Override
+    public List<Edge> removeVertex(Vertex vertex) throws Exception {
+        throw new Exception("FrozenGraph is read only");
+    }
+
+    /**
+     * Getting all vertices in the graph
+     * @return vertices in the graph in index order
+     */
+    @Override
+    public Set<Vertex> getAllVertices() {
+        return vertexSet;
+    }
+
+    /**
+     * Edges can not be added as the graph is read only
+     * @throws Exception always
+     */
+    @Override
+    public void addEdge(Vertex sourceVertex, Vertex destinationVertex, double cost) throws Exception {
+        throw new Exception("FrozenGraph is read only");
+    }
+
+    /**
+     * Edges can not be added as the graph is read only
+     * @throws Exception always
+     */
+    @Override
+    public void addEdge(Vertex sourceVertex, Vertex destinationVertex) throws Exception {
+        throw new Exception("FrozenGraph is read only");
+    }
+
+    /**
+     * Edges can not be added as the graph is read only
+     * @throws Exception always
+     */
+    @Override
+    public void addExistingEdgesToGraph(List<Edge> edges) throws Exception {
+        throw new Exception("FrozenGraph is read only");
+    }
+
+    /**
+     * Edges can not be removed as the graph is read only
+     * @throws Exception always
+     */
+    @Override
+    public void removeAllEdgesBetweenVertices(Vertex sourceVertex, Vertex destinationVertex) throws Exception {
+        throw new Exception("FrozenGraph is read only");
+    }
+
+    /**
+     * Getting all adjacent edges of a particular vertex
+     * @param vertex Vertex for which adjacent edges are needed
+     * @return A read only view creating the edges while iterating
+     * @throws Exception
+     */
+    @Override
+    public Set<Edge> getAllAdjacentEdgesOfVertex(Vertex vertex) throws Exception {
+        int source = getIndexOfPresentVertex(vertex);
+        return edgeView(source, source + 1);
+    }
+
+    /**
+     * Getting all edges between two vertices
+     * @param sourceVertex Source vertex of the edge
+     * @param destinationVertex Destination vertex of the edge
+     * @return A set containing the edges stored in either direction
+     * @throws Exception
+     */
+    @Override
+    public Set<Edge> getEdgesBetweenVertices(Vertex sourceVertex, Vertex destinationVertex) throws Exception {
+        int source = getIndexOfPresentVertex(sourceVertex);
+        int destination = getIndexOfPresentVertex(destinationVertex);
+        Set<Edge> edges = new HashSet<>();
+        addEdgesTo(edges, source, destination);
+        addEdgesTo(edges, destination, source);
+        return edges;
+    }
+
+    /**
+     * Adds the edges stored from source to destination to a set
+     */
+    private void addEdgesTo(Set<Edge> edges, int source, int destination) {
+        for (int k = offsets[source]; k < offsets[source + 1]; k++) {
+            if (targets[k] == destination)
+                edges.add(new Edge(vertices.get(source), vertices.get(destination), weights[k]));
+        }
+    }
+
+    /**
+     * Get list of all edges in graph
+     * @return A read only view creating the edges while iterating
+     */
+    @Override
+    public Set<Edge> getAllEdges() {
+        return edgeView(0, vertices.size());
+    }
+
+    /**
+     * Get list of odd degree vertices in graph
+     * @return Unmodifiable set of the vertices with an odd number of adjacent edges
+     */
+    @Override
+    public Set<Vertex> getOddDegreeVertices() {
+        return oddDegreeVertices;
+    }
+
+    /**
+     * Read only view of the edges leaving the vertices from one index up to another
+     * @param from Index of the first vertex
+     * @param to Index after the last vertex
+     * @return set creating the edges while iterating
+     */
+    private Set<Edge> edgeView(int from, int to) {
+        return new AbstractSet<Edge>() {
+            @Override
+            public Iterator<Edge> iterator() {
+                return new Iterator<Edge>() {
+                    int source = from;
+                    int k = offsets[from];
+
+                    @Override
+                    public boolean hasNext() {
+                        return k < offsets[to];
+                    }
+
+                    @Override
+                    public Edge next() {
+                        if (!hasNext())
+                            throw new NoSuchElementException();
+                        while (k >= offsets[source + 1])
+                            source++;
+                        Edge edge = new Edge(vertices.get(source), vertices.get(targets[k]), weights[k]);
+                        k++;
+                        return edge;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return offsets[to] - offsets[from];
+            }
+        };
+    }
+
+    /**
+     * Getter for the index of a vertex which has to be present in the graph
+     * @param vertex Vertex for which index is needed
+     * @return index of the vertex
+     * @throws Exception Throws exception if vertex is not present
+     */
+    private int getIndexOfPresentVertex(Vertex vertex) throws Exception {
+        int index = getIndexOf(vertex);
+        if (index < 0)
+            throw new Exception(vertex + " not present in graph");
+        return index;
+    }
+
+    /**
+     * Overriding default to string
+     * @return Custom string containing the number of vertices and edges in the graph
+     */
+    @Override
+    public String toString() {
+        return "FrozenGraph: " + vertices.size() + " vertices, " + targets.length + " edges";
+    }
+}
@@ -95,4 +95,13 @@ public interface Graph {
      */
     public Set<Vertex> getOddDegreeVertices();
 
+    /**
+     * Read only snapshot of the graph which can be shared between threads without locking.
+     * The graph must not be modified while it is frozen, later changes do not affect the snapshot
+     * @return an immutable copy of the graph, or the graph itself if it is immutable already
+     */
+    public default IndexedGraph freeze() {
+        return new FrozenGraph(this);
+    }
+
 }
@@ -0,0 +1,47 @@
+package org.info6205.tsp.core;
+
+import org.apache.lucene.util.SloppyMath;
+
+import java.util.List;
+
+/**
+ * A distance matrix which only stores the vertex coordinates and
+ * calculates every distance on demand using the haversine formula
+ */
+public class HaversineDistanceMatrix implements DistanceMatrix {
+
+    /**
+     * Latitude of every vertex by index
+     */
+    private final double[] latitudes;
+
+    /**
+     * Longitude of every vertex by index
+     */
+    private final double[] longitudes;
+
+    /**
+     * Parameterized constructor copying the coordinates of the vertices
+     * @param vertices Vertices in index order
+     */
+    public HaversineDistanceMatrix(List<Vertex> vertices) {
+        latitudes = new double[vertices.size()];
+        longitudes = new double[vertices.size()];
+        for (int i = 0; i < vertices.size(); i++) {
+            latitudes[i] = vertices.get(i).getXPos();
+            longitudes[i] = vertices.get(i).getYPos();
+        }
+    }
+
+    @Override
+    public int size() {
+        return latitudes.length;
+    }
+
+    @Override
+    public double getDistance(int i, int j) {
+        if (i == j)
+            return 0;
+        return SloppyMath.haversinMeters(latitudes[i], longitudes[i], latitudes[j], longitudes[j]);
+    }
+}
@@ -0,0 +1,28 @@
+package org.info6205.tsp.core;
+
+import java.util.List;
+
+/**
+ * A read only complete graph which only stores the coordinates of its vertices.
+ * Weights are calculated with the haversine formula whenever they are requested,
+ * so memory grows linearly with the number of vertices
+ */
+public class ImplicitCompleteGraph extends DistanceMatrixGraph {
+
+    /**
+     * Parameterized constructor for ImplicitCompleteGraph
+     * @param vertices Vertices of the graph in index order
+     */
+    public ImplicitCompleteGraph(List<Vertex> vertices) {
+        super(vertices, new HaversineDistanceMatrix(vertices));
+    }
+
+    /**
+     * Overriding default to string
+     * @return Custom string containing the number of vertices in the graph
+     */
+    @Override
+    public String toString() {
+        return "ImplicitCompleteGraph: " + getVertexCount() + " vertices";
+    }
+}
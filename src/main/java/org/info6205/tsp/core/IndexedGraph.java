@@ -0,0 +1,29 @@
+package org.info6205.tsp.core;
+
+/**
+ * A graph whose vertices are numbered with a dense index from 0 to n-1,
+ * allowing algorithms to keep per vertex state in arrays instead of maps
+ */
+public interface IndexedGraph extends Graph {
+
+    /**
+     * Number of vertices in the graph
+     * @return number of vertices
+     */
+    public int getVertexCount();
+
+    /**
+     * Getter for vertex by index
+     * @param index Index of the vertex
+     * @return vertex at the index
+     */
+    public Vertex getVertex(int index);
+
+    /**
+     * Getter for the index of a vertex
+     * @param vertex Vertex for which index is needed
+     * @return index of the vertex, -1 if vertex is not present
+     */
+    public int getIndexOf(Vertex vertex);
+
+}
@@ -0,0 +1,293 @@
+package org.info6205.tsp.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * A symmetric distance matrix stored off heap in a memory mapped file.
+ * The upper triangle is stored row by row as floats after a small header, so the file
+ * can be built once and reopened by later runs without reading it onto the heap.
+ * The header holds a fingerprint of the vertices the distances were calculated for, so a file left over
+ * from other or edited data is recognised and rebuilt instead of being reused.
+ * Files larger than 2 GB are mapped as several segments
+ */
+public class MappedDistanceMatrix implements DistanceMatrix, Closeable {
+
+    /**
+     * Marker at the start of every distance matrix file
+     */
+    private static final int MAGIC = 0x54535044;
+
+    /**
+     * Size of the file header in bytes, holds the marker, the number of vertices and the fingerprint
+     */
+    private static final int HEADER_BYTES = 16;
+
+    /**
+     * Bytes used by each stored distance
+     */
+    private static final int DISTANCE_BYTES = Float.BYTES;
+
+    /**
+     * Position of the fingerprint in the header
+     */
+    private static final int FINGERPRINT_OFFSET = 8;
+
+    /**
+     * Default segment size of 1 GB expressed as a power of two
+     */
+    static final int DEFAULT_SEGMENT_SHIFT = 30;
+
+    /**
+     * Number of vertices
+     */
+    private final int n;
+
+    /**
+     * Fingerprint of the vertices the distances belong to, 0 if unknown
+     */
+    private final long fingerprint;
+
+    /**
+     * File channel backing the mappings
+     */
+    private final FileChannel channel;
+
+    /**
+     * Mapped segments of the file
+     */
+    private final MappedByteBuffer[] segments;
+
+    /**
+     * Segment size expressed as a power of two
+     */
+    private final int segmentShift;
+
+    /**
+     * Mask to get the position inside a segment
+     */
+    private final long segmentMask;
+
+    /**
+     * Hidden constructor, use create or open
+     * @param channel File channel of the distance matrix file
+     * @param n Number of vertices
+     * @param fingerprint Fingerprint of the vertices the distances belong to
+     * @param mode Mapping mode
+     * @param segmentShift Segment size expressed as a power of two
+     * @throws IOException
+     */
+    private MappedDistanceMatrix(FileChannel channel, int n, long fingerprint, FileChannel.MapMode mode, int segmentShift) throws IOException {
+        this.channel = channel;
+        this.n = n;
+        this.fingerprint = fingerprint;
+        this.segmentShift = segmentShift;
+        this.segmentMask = (1L << segmentShift) - 1;
+
+        long fileSize = fileSize(n);
+        int segmentCount = (int) ((fileSize + segmentMask) >>> segmentShift);
+        segments = new MappedByteBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            long start = (long) i << segmentShift;
+            long size = Math.min(1L << segmentShift, fileSize - start);
+            segments[i] = channel.map(mode, start, size);
+            segments[i].order(ByteOrder.nativeOrder());
+        }
+    }
+
+    /**
+     * Opens the distance matrix file of a list of vertices, the file is created with the haversine distances
+     * of the vertices if it does not exist or was built for other vertices
+     * @param file Path of the distance matrix file
+     * @param vertices Vertices in the order of the matrix
+     * @return the mapped distance matrix of the vertices
+     * @throws IOException
+     */
+    public static MappedDistanceMatrix openOrCreate(Path file, List<Vertex> vertices) throws IOException {
+        long fingerprint = fingerprint(vertices);
+        if (Files.exists(file)) {
+            try {
+                MappedDistanceMatrix matrix = open(file);
+                if (matrix.size() == vertices.size() && matrix.getFingerprint() == fingerprint)
+                    return matrix;
+                matrix.close();
+            } catch (IOException e) {
+                //Not a valid distance matrix file, it is rebuilt below
+            }
+        }
+        return create(file, new HaversineDistanceMatrix(vertices), fingerprint);
+    }
+
+    /**
+     * Creates a distance matrix file by copying all the distances of another matrix, without a fingerprint
+     * @param file Path of the file to be created or overwritten
+     * @param source Distances to be stored
+     * @return the mapped distance matrix which can be used immediately
+     * @throws IOException
+     */
+    public static MappedDistanceMatrix create(Path file, DistanceMatrix source) throws IOException {
+        return create(file, source, 0);
+    }
+
+    /**
+     * Creates a distance matrix file by copying all the distances of another matrix
+     * @param file Path of the file to be created or overwritten
+     * @param source Distances to be stored
+     * @param fingerprint Fingerprint of the vertices the distances belong to, see fingerprint(List)
+     * @return the mapped distance matrix which can be used immediately
+     * @throws IOException
+     */
+    public static MappedDistanceMatrix create(Path file, DistanceMatrix source, long fingerprint) throws IOException {
+        return create(file, source, fingerprint, DEFAULT_SEGMENT_SHIFT);
+    }
+
+    /**
+     * Creates a distance matrix file using the given segment size
+     * @param file Path of the file to be created or overwritten
+     * @param source Distances to be stored
+     * @param fingerprint Fingerprint of the vertices the distances belong to
+     * @param segmentShift Segment size expressed as a power of two
+     * @return the mapped distance matrix which can be used immediately
+     * @throws IOException
+     */
+    static MappedDistanceMatrix create(Path file, DistanceMatrix source, long fingerprint, int segmentShift) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        int n = source.size();
+        MappedDistanceMatrix matrix = new MappedDistanceMatrix(channel, n, fingerprint, FileChannel.MapMode.READ_WRITE, segmentShift);
+
+        matrix.segments[0].putInt(0, MAGIC);
+        matrix.segments[0].putInt(4, n);
+        matrix.segments[0].putLong(FINGERPRINT_OFFSET, fingerprint);
+        long offset = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                matrix.putFloat(HEADER_BYTES + offset, (float) source.getDistance(i, j));
+                offset += DISTANCE_BYTES;
+            }
+        }
+
+        for (MappedByteBuffer segment : matrix.segments)
+            segment.force();
+        return matrix;
+    }
+
+    /**
+     * Opens a previously created distance matrix file read only
+     * @param file Path of the distance matrix file
+     * @return the mapped distance matrix
+     * @throws IOException Throws exception if the file is not a valid distance matrix file
+     */
+    public static MappedDistanceMatrix open(Path file) throws IOException {
+        return open(file, DEFAULT_SEGMENT_SHIFT);
+    }
+
+    /**
+     * Opens a previously created distance matrix file read only using the given segment size
+     * @param file Path of the distance matrix file
+     * @param segmentShift Segment size expressed as a power of two
+     * @return the mapped distance matrix
+     * @throws IOException Throws exception if the file is not a valid distance matrix file
+     */
+    static MappedDistanceMatrix open(Path file, int segmentShift) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(HEADER_BYTES, channel.size()));
+        header.order(ByteOrder.nativeOrder());
+        if (header.limit() < HEADER_BYTES || header.getInt(0) != MAGIC) {
+            channel.close();
+            throw new IOException(file + " is not a distance matrix file");
+        }
+
+        int n = header.getInt(4);
+        if (channel.size() != fileSize(n)) {
+            channel.close();
+            throw new IOException(file + " is truncated");
+        }
+        return new MappedDistanceMatrix(channel, n, header.getLong(FINGERPRINT_OFFSET), FileChannel.MapMode.READ_ONLY, segmentShift);
+    }
+
+    /**
+     * Fingerprint of an ordered list of vertices, a hash of their coordinates.
+     * Files built from other coordinates, or from the same ones in another order, have a different fingerprint
+     * @param vertices Vertices in the order of the matrix
+     * @return the fingerprint, never 0
+     */
+    public static long fingerprint(List<Vertex> vertices) {
+        long hash = vertices.size();
+        for (Vertex vertex : vertices) {
+            hash = mix(hash ^ Double.doubleToLongBits(vertex.getXPos()));
+            hash = mix(hash ^ Double.doubleToLongBits(vertex.getYPos()));
+        }
+        return hash == 0 ? 1 : hash;
+    }
+
+    /**
+     * Finalizer of the SplitMix64 generator spreading every input bit over the whole hash
+     */
+    private static long mix(long h) {
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+
+    /**
+     * Getter for the fingerprint stored in the file header
+     * @return fingerprint of the vertices the distances belong to, 0 if the file was created without one
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    @Override
+    public int size() {
+        return n;
+    }
+
+    @Override
+    public double getDistance(int i, int j) {
+        if (i == j)
+            return 0;
+        if (i > j) {
+            int temp = i;
+            i = j;
+            j = temp;
+        }
+        long index = (long) i * (2L * n - i - 1) / 2 + (j - i - 1);
+        long position = HEADER_BYTES + index * DISTANCE_BYTES;
+        return segments[(int) (position >>> segmentShift)].getFloat((int) (position & segmentMask));
+    }
+
+    /**
+     * Closes the file channel, the mapping itself is released once it is garbage collected
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Writes a float at an absolute position in the file
+     * @param position Position in the file
+     * @param value Value to be written
+     */
+    private void putFloat(long position, float value) {
+        segments[(int) (position >>> segmentShift)].putFloat((int) (position & segmentMask), value);
+    }
+
+    /**
+     * Size of the distance matrix file for a number of vertices
+     * @param n Number of vertices
+     * @return size of the file in bytes
+     */
+    private static long fileSize(int n) {
+        return HEADER_BYTES + (long) n * (n - 1) / 2 * DISTANCE_BYTES;
+    }
+}
@@ -0,0 +1,132 @@
+package org.info6205.tsp.core;
+
+import java.util.List;
+
+/**
+ * A closed TSP tour over the vertices of a distance matrix graph, addressed by vertex index.
+ * Local search only needs the neighbours of a vertex, the order of three vertices and
+ * path reversal, so optimizers written against this interface run on any representation
+ */
+public interface Tour {
+
+    /**
+     * Number of vertices from which the two level list representation is used by default
+     */
+    int TWO_LEVEL_THRESHOLD = 10000;
+
+    /**
+     * Creates a tour calculating distances from the coordinates of the tour vertices,
+     * large tours use the two level list representation
+     * @param tour List of vertices, the repeated start vertex at the end is optional
+     * @return the tour
+     */
+    static Tour create(List<Vertex> tour) {
+        return create(tour, new ImplicitCompleteGraph(AbstractTour.withoutClosingVertex(tour)));
+    }
+
+    /**
+     * Creates a tour reading distances from a distance matrix graph,
+     * large tours use the two level list representation
+     * @param tour List of vertices, the repeated start vertex at the end is optional
+     * @param graph Graph containing every vertex of the tour
+     * @return the tour
+     */
+    static Tour create(List<Vertex> tour, DistanceMatrixGraph graph) {
+        if (graph.getVertexCount() >= TWO_LEVEL_THRESHOLD)
+            return new TwoLevelListTour(tour, graph);
+        return new ArrayTour(tour, graph);
+    }
+
+    /**
+     * Creates an independent copy of the tour sharing the same graph
+     * @return copy of the tour
+     */
+    Tour copy();
+
+    /**
+     * Number of vertices in the tour
+     * @return number of vertices
+     */
+    int size();
+
+    /**
+     * Vertex visited after the given vertex
+     * @param vertex Index of the vertex
+     * @return index of the next vertex
+     */
+    int next(int vertex);
+
+    /**
+     * Vertex visited before the given vertex
+     * @param vertex Index of the vertex
+     * @return index of the previous vertex
+     */
+    int prev(int vertex);
+
+    /**
+     * Checks if b is visited on the way from a to c going forward (all inclusive)
+     * @param a Index of the start vertex
+     * @param b Index of the vertex to check
+     * @param c Index of the end vertex
+     * @return true if b lies between a and c
+     */
+    boolean between(int a, int b, int c);
+
+    /**
+     * Reverses the path going forward from one vertex to another (both inclusive)
+     * and updates the cost of the tour
+     * @param from Index of the first vertex of the path
+     * @param to Index of the last vertex of the path
+     */
+    void reverse(int from, int to);
+
+    /**
+     * Performs a 2-opt move removing the edges (t1, t2) and (t3, t4) and adding (t1, t3) and (t2, t4).
+     * t2 has to follow t1 in the same direction in which t4 follows t3
+     * @param t1 Index of the first vertex
+     * @param t2 Index of the neighbour of t1
+     * @param t3 Index of the third vertex
+     * @param t4 Index of the neighbour of t3
+     */
+    void make2OptMove(int t1, int t2, int t3, int t4);
+
+    /**
+     * Getter for the total cost of the closed tour
+     * @return cost of the tour
+     */
+    double getCost();
+
+    /**
+     * Distance between two vertices
+     * @param i Index of the first vertex
+     * @param j Index of the second vertex
+     * @return distance between the vertices
+     */
+    double distance(int i, int j);
+
+    /**
+     * Getter for the graph of the tour
+     * @return graph providing indices and distances
+     */
+    DistanceMatrixGraph getGraph();
+
+    /**
+     * Getter for vertex by index
+     * @param index Index of the vertex
+     * @return vertex at the index
+     */
+    Vertex getVertex(int index);
+
+    /**
+     * Getter for the index of a vertex
+     * @param vertex Vertex for which index is needed
+     * @return index of the vertex
+     */
+    int getIndexOf(Vertex vertex);
+
+    /**
+     * Converts the tour to a list of vertices
+     * @return list of vertices in tour order ending with the start vertex
+     */
+    List<Vertex> toList();
+}
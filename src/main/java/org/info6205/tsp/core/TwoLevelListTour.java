@@ -0,0 +1,458 @@
+package org.info6205.tsp.core;
+
+import java.util.List;
+
+/**
+ * Two level doubly linked list representation of a TSP tour, as used by LKH.
+ * The tour is split into about sqrt(n) segments kept in a doubly linked ring, every segment
+ * holding a doubly linked list of vertices and a reversal bit. Reversing a path splits at most two
+ * segments and flips the reversal bits of the whole segments in between, so a reversal costs O(sqrt(n))
+ * instead of the O(n) of an array. next, prev and between stay O(1)
+ */
+public class TwoLevelListTour extends AbstractTour {
+
+    /**
+     * Segments are rebalanced once one grows beyond this many times the initial segment size
+     */
+    private static final int MAX_GROWTH = 4;
+
+    /**
+     * Number of vertices
+     */
+    private final int n;
+
+    /**
+     * Number of segments
+     */
+    private final int m;
+
+    /**
+     * Segment of every vertex
+     */
+    private final int[] parent;
+
+    /**
+     * Sequence number of every vertex inside its segment, consecutive along the internal order
+     */
+    private final int[] rank;
+
+    /**
+     * Internal successor of every vertex inside its segment, -1 for the internal last vertex
+     */
+    private final int[] successor;
+
+    /**
+     * Internal predecessor of every vertex inside its segment, -1 for the internal first vertex
+     */
+    private final int[] predecessor;
+
+    /**
+     * True if the tour visits the segment against its internal order
+     */
+    private final boolean[] reversed;
+
+    /**
+     * Internal first vertex of every segment
+     */
+    private final int[] firstVertex;
+
+    /**
+     * Internal last vertex of every segment
+     */
+    private final int[] lastVertex;
+
+    /**
+     * Next segment in the tour
+     */
+    private final int[] nextSegment;
+
+    /**
+     * Previous segment in the tour
+     */
+    private final int[] prevSegment;
+
+    /**
+     * Sequence number of every segment in the ring
+     */
+    private final int[] segmentRank;
+
+    /**
+     * Number of vertices in every segment
+     */
+    private final int[] segmentSize;
+
+    /**
+     * Reused buffer for reversals inside a segment and for rebalancing
+     */
+    private final int[] buffer;
+
+    /**
+     * Size above which a segment triggers rebalancing
+     */
+    private int maxSegmentSize;
+
+    /**
+     * Parameterized constructor calculating distances from the coordinates of the tour vertices
+     * @param tour List of vertices, the repeated start vertex at the end is optional
+     */
+    public TwoLevelListTour(List<Vertex> tour) {
+        this(tour, new ImplicitCompleteGraph(withoutClosingVertex(tour)));
+    }
+
+    /**
+     * Parameterized constructor reading distances from a distance matrix graph
+     * @param tour List of vertices, the repeated start vertex at the end is optional
+     * @param graph Graph containing every vertex of the tour
+     */
+    public TwoLevelListTour(List<Vertex> tour, DistanceMatrixGraph graph) {
+        super(graph);
+        int[] order = toIndices(tour, graph);
+        this.n = order.length;
+        this.m = n < 3 ? 1 : Math.max(3, (int) Math.sqrt(n));
+        this.parent = new int[n];
+        this.rank = new int[n];
+        this.successor = new int[n];
+        this.predecessor = new int[n];
+        this.buffer = new int[n];
+        this.reversed = new boolean[m];
+        this.firstVertex = new int[m];
+        this.lastVertex = new int[m];
+        this.nextSegment = new int[m];
+        this.prevSegment = new int[m];
+        this.segmentRank = new int[m];
+        this.segmentSize = new int[m];
+        if (n > 0)
+            build(order);
+        this.cost = calculateCost();
+    }
+
+    /**
+     * Copy constructor
+     * @param other Tour to be copied
+     */
+    private TwoLevelListTour(TwoLevelListTour other) {
+        super(other.graph);
+        this.n = other.n;
+        this.m = other.m;
+        this.parent = other.parent.clone();
+        this.rank = other.rank.clone();
+        this.successor = other.successor.clone();
+        this.predecessor = other.predecessor.clone();
+        this.buffer = new int[n];
+        this.reversed = other.reversed.clone();
+        this.firstVertex = other.firstVertex.clone();
+        this.lastVertex = other.lastVertex.clone();
+        this.nextSegment = other.nextSegment.clone();
+        this.prevSegment = other.prevSegment.clone();
+        this.segmentRank = other.segmentRank.clone();
+        this.segmentSize = other.segmentSize.clone();
+        this.maxSegmentSize = other.maxSegmentSize;
+        this.cost = other.cost;
+    }
+
+    @Override
+    public Tour copy() {
+        return new TwoLevelListTour(this);
+    }
+
+    @Override
+    public int size() {
+        return n;
+    }
+
+    @Override
+    public int next(int vertex) {
+        int segment = parent[vertex];
+        int next = reversed[segment] ? predecessor[vertex] : successor[vertex];
+        return next != -1 ? next : head(nextSegment[segment]);
+    }
+
+    @Override
+    public int prev(int vertex) {
+        int segment = parent[vertex];
+        int prev = reversed[segment] ? successor[vertex] : predecessor[vertex];
+        return prev != -1 ? prev : tail(prevSegment[segment]);
+    }
+
+    @Override
+    public boolean between(int a, int b, int c) {
+        long ka = sequence(a), kb = sequence(b), kc = sequence(c);
+        if (ka <= kc)
+            return ka <= kb && kb <= kc;
+        return kb >= ka || kb <= kc;
+    }
+
+    /**
+     * Reverses the path inside a single segment when possible. Otherwise the segments are split
+     * so that the path starts at a segment head and ends at a segment tail, and the run of whole
+     * segments (or the complementary run if it is shorter) is reversed
+     */
+    @Override
+    protected void reversePath(int from, int to, int p, int q) {
+        while (true) {
+            int sf = parent[from], st = parent[to];
+            if (sf == st && inSegmentOrder(from, to)) {
+                reverseInSegment(sf, from, to);
+                return;
+            }
+            if (parent[q] == parent[p] && inSegmentOrder(q, p)) {
+                reverseInSegment(parent[q], q, p);
+                return;
+            }
+            if (from != head(sf)) {
+                int before = Math.abs(rank[from] - rank[head(sf)]);
+                if (prevSegment[sf] != st && 2 * before <= segmentSize[sf])
+                    movePrefixToPrevSegment(sf, p);
+                else
+                    moveSuffixToNextSegment(sf, from);
+                continue;
+            }
+            if (to != tail(st)) {
+                int after = Math.abs(rank[tail(st)] - rank[to]);
+                if (nextSegment[st] != sf && 2 * after <= segmentSize[st])
+                    moveSuffixToNextSegment(st, q);
+                else
+                    movePrefixToPrevSegment(st, to);
+                continue;
+            }
+            int count = Math.floorMod(segmentRank[st] - segmentRank[sf], m) + 1;
+            if (2 * count <= m)
+                reverseSegments(sf, st, count);
+            else
+                reverseSegments(nextSegment[st], prevSegment[sf], m - count);
+            return;
+        }
+    }
+
+    @Override
+    protected int first() {
+        for (int segment = 0; segment < m; segment++)
+            if (segmentRank[segment] == 0)
+                return head(segment);
+        return -1;
+    }
+
+    /**
+     * First vertex of a segment in tour order
+     */
+    private int head(int segment) {
+        return reversed[segment] ? lastVertex[segment] : firstVertex[segment];
+    }
+
+    /**
+     * Last vertex of a segment in tour order
+     */
+    private int tail(int segment) {
+        return reversed[segment] ? firstVertex[segment] : lastVertex[segment];
+    }
+
+    /**
+     * Key increasing along the tour starting from the segment of rank 0
+     */
+    private long sequence(int vertex) {
+        int segment = parent[vertex];
+        return ((long) segmentRank[segment] << 32) + (reversed[segment] ? -(long) rank[vertex] : rank[vertex]);
+    }
+
+    /**
+     * Checks if x comes before y (or is y) in tour order, both being in the same segment
+     */
+    private boolean inSegmentOrder(int x, int y) {
+        return reversed[parent[x]] ? rank[x] >= rank[y] : rank[x] <= rank[y];
+    }
+
+    /**
+     * Reverses the path from x to y which lies inside one segment, reusing the ranks of the path
+     */
+    private void reverseInSegment(int segment, int x, int y) {
+        int i = reversed[segment] ? y : x;
+        int j = reversed[segment] ? x : y;
+        int before = predecessor[i], after = successor[j], startRank = rank[i];
+        int length = 0;
+        for (int v = i; ; v = successor[v]) {
+            buffer[length++] = v;
+            if (v == j)
+                break;
+        }
+        for (int k = 0; k < length; k++) {
+            int v = buffer[length - 1 - k];
+            rank[v] = startRank + k;
+            predecessor[v] = k == 0 ? before : buffer[length - k];
+            successor[v] = k == length - 1 ? after : buffer[length - 2 - k];
+        }
+        if (before == -1)
+            firstVertex[segment] = buffer[length - 1];
+        else
+            successor[before] = buffer[length - 1];
+        if (after == -1)
+            lastVertex[segment] = buffer[0];
+        else
+            predecessor[after] = buffer[0];
+    }
+
+    /**
+     * Moves the vertices from the head of a segment up to x (inclusive) to the end of the previous segment
+     */
+    private void movePrefixToPrevSegment(int segment, int x) {
+        int target = prevSegment[segment];
+        int newHead = reversed[segment] ? predecessor[x] : successor[x];
+        int moved = 0;
+        for (int v = head(segment); ; ) {
+            int next = reversed[segment] ? predecessor[v] : successor[v];
+            appendToTail(target, v);
+            moved++;
+            if (v == x)
+                break;
+            v = next;
+        }
+        if (reversed[segment]) {
+            lastVertex[segment] = newHead;
+            successor[newHead] = -1;
+        }
+        else {
+            firstVertex[segment] = newHead;
+            predecessor[newHead] = -1;
+        }
+        segmentSize[segment] -= moved;
+        segmentSize[target] += moved;
+        if (segmentSize[target] > maxSegmentSize)
+            rebalance();
+    }
+
+    /**
+     * Moves the vertices from x (inclusive) up to the tail of a segment to the start of the next segment
+     */
+    private void moveSuffixToNextSegment(int segment, int x) {
+        int target = nextSegment[segment];
+        int newTail = reversed[segment] ? successor[x] : predecessor[x];
+        int moved = 0;
+        for (int v = tail(segment); ; ) {
+            int prev = reversed[segment] ? successor[v] : predecessor[v];
+            prependToHead(target, v);
+            moved++;
+            if (v == x)
+                break;
+            v = prev;
+        }
+        if (reversed[segment]) {
+            firstVertex[segment] = newTail;
+            predecessor[newTail] = -1;
+        }
+        else {
+            lastVertex[segment] = newTail;
+            successor[newTail] = -1;
+        }
+        segmentSize[segment] -= moved;
+        segmentSize[target] += moved;
+        if (segmentSize[target] > maxSegmentSize)
+            rebalance();
+    }
+
+    /**
+     * Adds a vertex after the tail of a segment in tour order
+     */
+    private void appendToTail(int segment, int v) {
+        parent[v] = segment;
+        if (reversed[segment]) {
+            int first = firstVertex[segment];
+            predecessor[first] = v;
+            successor[v] = first;
+            predecessor[v] = -1;
+            rank[v] = rank[first] - 1;
+            firstVertex[segment] = v;
+        }
+        else {
+            int last = lastVertex[segment];
+            successor[last] = v;
+            predecessor[v] = last;
+            successor[v] = -1;
+            rank[v] = rank[last] + 1;
+            lastVertex[segment] = v;
+        }
+    }
+
+    /**
+     * Adds a vertex before the head of a segment in tour order
+     */
+    private void prependToHead(int segment, int v) {
+        parent[v] = segment;
+        if (reversed[segment]) {
+            int last = lastVertex[segment];
+            successor[last] = v;
+            predecessor[v] = last;
+            successor[v] = -1;
+            rank[v] = rank[last] + 1;
+            lastVertex[segment] = v;
+        }
+        else {
+            int first = firstVertex[segment];
+            predecessor[first] = v;
+            successor[v] = first;
+            predecessor[v] = -1;
+            rank[v] = rank[first] - 1;
+            firstVertex[segment] = v;
+        }
+    }
+
+    /**
+     * Reverses the run of count whole segments going forward from segment a to segment b
+     */
+    private void reverseSegments(int a, int b, int count) {
+        int before = prevSegment[a], after = nextSegment[b], startRank = segmentRank[a];
+        int segment = a;
+        for (int k = 0; k < count; k++) {
+            int next = nextSegment[segment];
+            nextSegment[segment] = prevSegment[segment];
+            prevSegment[segment] = next;
+            reversed[segment] = !reversed[segment];
+            segment = next;
+        }
+        segment = b;
+        for (int k = 0; k < count; k++) {
+            segmentRank[segment] = (startRank + k) % m;
+            segment = nextSegment[segment];
+        }
+        nextSegment[before] = b;
+        prevSegment[b] = before;
+        nextSegment[a] = after;
+        prevSegment[after] = a;
+    }
+
+    /**
+     * Redistributes the vertices evenly over the segments keeping the tour order
+     */
+    private void rebalance() {
+        int vertex = first();
+        for (int i = 0; i < n; i++) {
+            buffer[i] = vertex;
+            vertex = next(vertex);
+        }
+        build(buffer);
+    }
+
+    /**
+     * Lays out the vertices in tour order into m segments of almost equal size
+     * @param order Vertex index at every position of the tour
+     */
+    private void build(int[] order) {
+        maxSegmentSize = MAX_GROWTH * ((n + m - 1) / m);
+        for (int segment = 0; segment < m; segment++) {
+            int start = (int) ((long) segment * n / m);
+            int end = (int) ((long) (segment + 1) * n / m);
+            for (int i = start; i < end; i++) {
+                int v = order[i];
+                parent[v] = segment;
+                rank[v] = i - start;
+                predecessor[v] = i == start ? -1 : order[i - 1];
+                successor[v] = i == end - 1 ? -1 : order[i + 1];
+            }
+            reversed[segment] = false;
+            firstVertex[segment] = order[start];
+            lastVertex[segment] = order[end - 1];
+            nextSegment[segment] = (segment + 1) % m;
+            prevSegment[segment] = (segment - 1 + m) % m;
+            segmentRank[segment] = segment;
+            segmentSize[segment] = end - start;
+        }
+    }
+}
@@ -3,7 +3,7 @@ package org.info6205.tsp.core;
 import java.util.*;
 import java.util.stream.Collectors;
 
-public class UndirectedGraph implements Graph{
+public class UndirectedGraph implements IndexedGraph{
 
     /**
      * Internal data structure to hold graph
@@ -11,12 +11,18 @@ public class UndirectedGraph implements Graph{
      */
     HashMap<Vertex, List<Edge>> graph;
 
+    /**
+     * Dense index of every vertex in the graph
+     */
+    VertexRegistry registry;
+
     /**
      * Default constructor for UndirectedGraph
      * Initializes an empty graph
      */
     public UndirectedGraph(){
         graph = new HashMap<>();
+        registry = new VertexRegistry();
     }
 
     /**
@@ -29,6 +35,7 @@ public class UndirectedGraph implements Graph{
     public boolean addVertex(Vertex vertex) throws Exception{
         if(isVertexAlreadyPresent(vertex))
             throw new Exception(vertex + " already present in graph");
+        registry.register(vertex);
         return graph.put(vertex, new ArrayList<Edge>()) == null;
     }
 
@@ -43,6 +50,7 @@ public class UndirectedGraph implements Graph{
         if(!isVertexAlreadyPresent(vertex))
             throw new Exception(vertex + " not present in graph");
 
+        registry.remove(vertex);
         return graph.remove(vertex);
     }
 
@@ -177,13 +185,42 @@ public class UndirectedGraph implements Graph{
         return graph.keySet().stream().filter(v -> graph.get(v).size() % 2 != 0).collect(Collectors.toSet());
     }
 
+    /**
+     * Number of vertices in the graph
+     * @return number of vertices
+     */
+    @Override
+    public int getVertexCount() {
+        return registry.size();
+    }
+
+    /**
+     * Getter for vertex by index
+     * @param index Index of the vertex
+     * @return vertex at the index
+     */
+    @Override
+    public Vertex getVertex(int index) {
+        return registry.getVertex(index);
+    }
+
+    /**
+     * Getter for the index of a vertex
+     * @param vertex Vertex for which index is needed
+     * @return index of the vertex, -1 if vertex is not present
+     */
+    @Override
+    public int getIndexOf(Vertex vertex) {
+        return registry.getIndexOf(vertex);
+    }
+
     /**
      * Checks if vertex is already present in graph
      * @param vertex Vertex to perform the check for
      * @return true if vertex is present else false
      */
     private boolean isVertexAlreadyPresent(Vertex vertex) {
-        return graph.containsKey(vertex) || graph.keySet().stream().anyMatch(v -> v.equals(vertex));
+        return graph.containsKey(vertex);
     }
 
     /**
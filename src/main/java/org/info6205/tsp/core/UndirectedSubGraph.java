@@ -17,7 +17,15 @@ public class UndirectedSubGraph extends UndirectedGraph{
      */
     public UndirectedSubGraph(Set<Vertex> vertices, Graph graph){
         this.graph = new HashMap<>();
-        vertices.forEach(v -> this.graph.put(v,new ArrayList<>()));
+        this.registry = new VertexRegistry();
+        vertices.forEach(v -> {
+            this.graph.put(v,new ArrayList<>());
+            this.registry.register(v);
+        });
+        if(graph instanceof DistanceMatrixGraph){
+            addEdgesFromDistanceMatrix(vertices, (DistanceMatrixGraph) graph);
+            return;
+        }
         try{
             for (Vertex v : vertices) {
                 for(Edge edge: graph.getAllAdjacentEdgesOfVertex(v)){
@@ -32,6 +40,27 @@ public class UndirectedSubGraph extends UndirectedGraph{
 
     }
 
+    /**
+     * Adds edges between the given vertices reading the weights by index,
+     * the edges to vertices outside the subgraph are never created
+     * @param vertices List of vertices to be included in the new graph
+     * @param matrixGraph Original graph backed by a distance matrix
+     */
+    private void addEdgesFromDistanceMatrix(Set<Vertex> vertices, DistanceMatrixGraph matrixGraph){
+        List<Vertex> vertexList = new ArrayList<>(vertices);
+        int[] indices = new int[vertexList.size()];
+        for (int i = 0; i < indices.length; i++)
+            indices[i] = matrixGraph.getIndexOf(vertexList.get(i));
+
+        for (int i = 0; i < indices.length; i++) {
+            for (int j = i+1; j < indices.length; j++) {
+                double weight = matrixGraph.getWeight(indices[i], indices[j]);
+                this.graph.get(vertexList.get(i)).add(new Edge(vertexList.get(i), vertexList.get(j), weight));
+                this.graph.get(vertexList.get(j)).add(new Edge(vertexList.get(j), vertexList.get(i), weight));
+            }
+        }
+    }
+
     /**
      * Default constructor is hidden
      */
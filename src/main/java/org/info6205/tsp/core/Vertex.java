@@ -60,10 +60,21 @@ public class Vertex{
      */
     @Override
     public boolean equals(Object o){
+        if(!(o instanceof Vertex))
+            return false;
         Vertex v = (Vertex) o;
         return this.getId() == v.getId();
     }
 
+    /**
+     * Hash code consistent with equals so that vertices can be used as hash keys
+     * @return hash of the unique identifier
+     */
+    @Override
+    public int hashCode() {
+        return Long.hashCode(id);
+    }
+
     /**
      * Overriding default toString() method
      * @return Custom string containing id of the vertex
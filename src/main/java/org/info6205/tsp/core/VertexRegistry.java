@@ -0,0 +1,121 @@
+package org.info6205.tsp.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns a dense index from 0 to n-1 to every registered vertex.
+ * When the vertex ids are already 0 to n-1 in registration order (as assigned by Preprocess)
+ * the id is used as the index directly and no lookup map is kept
+ */
+public class VertexRegistry {
+
+    /**
+     * Registered vertices in index order
+     */
+    private final List<Vertex> vertices;
+
+    /**
+     * Index of every vertex by id, only used once an id differs from its index
+     */
+    private Map<Long, Integer> indices;
+
+    /**
+     * Default constructor creating an empty registry
+     */
+    public VertexRegistry() {
+        vertices = new ArrayList<>();
+    }
+
+    /**
+     * Parameterized constructor registering the vertices in list order
+     * @param vertices Vertices to be registered
+     */
+    public VertexRegistry(List<Vertex> vertices) {
+        this();
+        for (Vertex vertex : vertices)
+            register(vertex);
+    }
+
+    /**
+     * Registers a vertex if it is not already present
+     * @param vertex Vertex to be registered
+     * @return index of the vertex
+     */
+    public int register(Vertex vertex) {
+        int index = getIndexOf(vertex);
+        if (index != -1)
+            return index;
+
+        index = vertices.size();
+        vertices.add(vertex);
+        if (indices == null && vertex.getId() != index)
+            createIndexMap();
+        if (indices != null)
+            indices.put(vertex.getId(), index);
+        return index;
+    }
+
+    /**
+     * Removes a vertex keeping the indices dense by moving the last vertex into its place
+     * @param vertex Vertex to be removed
+     * @return true if the vertex was present
+     */
+    public boolean remove(Vertex vertex) {
+        int index = getIndexOf(vertex);
+        if (index == -1)
+            return false;
+
+        if (indices == null)
+            createIndexMap();
+        Vertex last = vertices.remove(vertices.size() - 1);
+        indices.remove(vertex.getId());
+        if (index < vertices.size()) {
+            vertices.set(index, last);
+            indices.put(last.getId(), index);
+        }
+        return true;
+    }
+
+    /**
+     * Getter for the index of a vertex
+     * @param vertex Vertex for which index is needed
+     * @return index of the vertex, -1 if vertex is not registered
+     */
+    public int getIndexOf(Vertex vertex) {
+        if (indices == null) {
+            long id = vertex.getId();
+            return id >= 0 && id < vertices.size() ? (int) id : -1;
+        }
+        Integer index = indices.get(vertex.getId());
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Getter for vertex by index
+     * @param index Index of the vertex
+     * @return vertex at the index
+     */
+    public Vertex getVertex(int index) {
+        return vertices.get(index);
+    }
+
+    /**
+     * Number of registered vertices
+     * @return number of vertices
+     */
+    public int size() {
+        return vertices.size();
+    }
+
+    /**
+     * Switches from using ids as indices to an explicit lookup map
+     */
+    private void createIndexMap() {
+        indices = new HashMap<>();
+        for (int i = 0; i < vertices.size(); i++)
+            indices.put(vertices.get(i).getId(), i);
+    }
+}
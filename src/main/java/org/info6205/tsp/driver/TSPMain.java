@@ -28,21 +28,10 @@ public class TSPMain
         Graph graph = null;
         try {
             graph = preprocess.start("teamprojectfinal.csv");
-            ChristofidesAlgorithm christofidesAlgorithm = new ChristofidesAlgorithm(graph);
-
-            List<Vertex> bestTourYet = null;
-            double bestCostYet = Double.MAX_VALUE;
-            for (int i = 0; i < 20; i++) {
-
-                List<Vertex> tspTour = christofidesAlgorithm.generateTSPTour();
-
-                double tspTourCost = GraphUtil.getTotalCostOfTour(tspTour);
-
-                if(bestCostYet > tspTourCost){
-                    bestTourYet = tspTour;
-                    bestCostYet = tspTourCost;
-                }
-            }
+            //The 20 starts run concurrently, one thread per core
+            MultiStartChristofides multiStartChristofides = new MultiStartChristofides(graph, 20);
+            List<Vertex> bestTourYet = multiStartChristofides.getBestTour();
+            double bestCostYet = multiStartChristofides.getBestCost();
 
             System.out.println(GraphUtil.printTSPTour(bestTourYet, preprocess.getNodeMap()));
             System.out.println("Total cost of tour: " + bestCostYet);
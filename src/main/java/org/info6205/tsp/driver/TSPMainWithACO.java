@@ -25,9 +25,10 @@ public class TSPMainWithACO {
 
             List<Vertex> bestTourYet = null;
             double bestCostYet = Double.MAX_VALUE;
+            int threads = Runtime.getRuntime().availableProcessors();
             for (int i = 0; i < 10; i++) {
 
-                AntColonyOptimization antColonyOptimization = new AntColonyOptimization(graph);
+                AntColonyOptimization antColonyOptimization = new AntColonyOptimization(graph, i, threads);
                 List<Vertex> optimizedACOTour = antColonyOptimization.startOptimization();
 
                 double optimizedACOTourCost = GraphUtil.getTotalCostOfTour(optimizedACOTour);
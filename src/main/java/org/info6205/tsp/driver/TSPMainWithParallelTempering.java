@@ -0,0 +1,48 @@
+package org.info6205.tsp.driver;
+
+import org.info6205.tsp.algorithm.ChristofidesAlgorithm;
+import org.info6205.tsp.core.Graph;
+import org.info6205.tsp.core.Vertex;
+import org.info6205.tsp.io.PostProcess;
+import org.info6205.tsp.io.Preprocess;
+import org.info6205.tsp.optimizations.ParallelTempering;
+import org.info6205.tsp.util.GraphUtil;
+
+import java.util.List;
+
+public class TSPMainWithParallelTempering {
+
+    public static void main(String[] args) {
+
+        System.out.println("*".repeat(5) + " Starting application " + "*".repeat(5));
+
+        long startTime = System.nanoTime();
+        Preprocess preprocess = new Preprocess();
+        Graph graph = null;
+        try {
+            graph = preprocess.start("teamprojectfinal.csv");
+            ChristofidesAlgorithm christofidesAlgorithm = new ChristofidesAlgorithm(graph);
+
+            List<Vertex> tspTour = christofidesAlgorithm.generateTSPTour();
+
+            //One replica per core, the coldest replica at 5 meters and the hottest at 500 meters
+            ParallelTempering parallelTempering = new ParallelTempering(tspTour, 10000000, 5, 500);
+            List<Vertex> bestTourYet = parallelTempering.optimize();
+            double bestCostYet = GraphUtil.getTotalCostOfTour(bestTourYet);
+
+            System.out.println(GraphUtil.printTSPTour(bestTourYet, preprocess.getNodeMap()));
+            System.out.println("Total cost of tour: " + bestCostYet);
+
+            PostProcess postProcess = new PostProcess(preprocess);
+
+            postProcess.start(bestTourYet, "christofidesOutputWithParallelTempering.csv");
+
+        }
+        catch (Exception e){
+            e.printStackTrace();
+        }
+        long endTime = System.nanoTime();
+        System.out.println("*".repeat(5) + " Application has completed running " + "*".repeat(5));
+        System.out.println("Running time: " + (endTime-startTime)/Math.pow(10,9));
+    }
+}
@@ -7,8 +7,10 @@ import org.info6205.tsp.io.PostProcess;
 import org.info6205.tsp.io.Preprocess;
 import org.info6205.tsp.optimizations.ThreeOptSwapOptimization;
 import org.info6205.tsp.optimizations.TwoOptSwapOptimization;
+import org.info6205.tsp.spatial.CandidateList;
 import org.info6205.tsp.util.GraphUtil;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class TSPMainWithThreeOpt {
@@ -23,6 +25,7 @@ public class TSPMainWithThreeOpt {
         try {
             graph = preprocess.start("teamprojectfinal.csv");
             ChristofidesAlgorithm christofidesAlgorithm = new ChristofidesAlgorithm(graph);
+            CandidateList candidateList = new CandidateList(new ArrayList<>(graph.getAllVertices()), CandidateList.DEFAULT_K);
 
             List<Vertex> bestTourYet = null;
             double bestCostYet = Double.MAX_VALUE;
@@ -30,7 +33,7 @@ public class TSPMainWithThreeOpt {
 
                 List<Vertex> tspTour = christofidesAlgorithm.generateTSPTour();
 
-                ThreeOptSwapOptimization threeOptSwapOptimization = new ThreeOptSwapOptimization(tspTour);
+                ThreeOptSwapOptimization threeOptSwapOptimization = new ThreeOptSwapOptimization(tspTour, candidateList);
                 List<Vertex> threeOptTour = threeOptSwapOptimization.getOptimumTour();
                 double threeOptTourCost = GraphUtil.getTotalCostOfTour(threeOptTour);
 
@@ -6,8 +6,10 @@ import org.info6205.tsp.core.Vertex;
 import org.info6205.tsp.io.PostProcess;
 import org.info6205.tsp.io.Preprocess;
 import org.info6205.tsp.optimizations.TwoOptSwapOptimization;
+import org.info6205.tsp.spatial.CandidateList;
 import org.info6205.tsp.util.GraphUtil;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class TSPMainWithTwoOpt {
@@ -22,6 +24,7 @@ public class TSPMainWithTwoOpt {
         try {
             graph = preprocess.start("teamprojectfinal.csv");
             ChristofidesAlgorithm christofidesAlgorithm = new ChristofidesAlgorithm(graph);
+            CandidateList candidateList = new CandidateList(new ArrayList<>(graph.getAllVertices()), CandidateList.DEFAULT_K);
 
             List<Vertex> bestTourYet = null;
             double bestCostYet = Double.MAX_VALUE;
@@ -29,7 +32,7 @@ public class TSPMainWithTwoOpt {
 
                 List<Vertex> tspTour = christofidesAlgorithm.generateTSPTour();
 
-                TwoOptSwapOptimization twoOptSwapOptimization = new TwoOptSwapOptimization(tspTour);
+                TwoOptSwapOptimization twoOptSwapOptimization = new TwoOptSwapOptimization(tspTour, candidateList);
                 List<Vertex> twoOptTour = twoOptSwapOptimization.getOptimumTour();
                 double twoOptTourCost = GraphUtil.getTotalCostOfTour(twoOptTour);
 
@@ -1,10 +1,14 @@
 package org.info6205.tsp.io;
 
+import org.info6205.tsp.core.DistanceMatrixGraph;
 import org.info6205.tsp.core.Graph;
+import org.info6205.tsp.core.ImplicitCompleteGraph;
+import org.info6205.tsp.core.MappedDistanceMatrix;
 import org.info6205.tsp.core.UndirectedGraph;
 import org.info6205.tsp.core.Vertex;
 
 import java.net.URI;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -17,6 +21,25 @@ import java.util.Map;
  *  2. Replaces node hash id with an integer equivalent
  */
 public class Preprocess {
+
+    /**
+     * Representation of the complete graph generated from the file
+     */
+    public enum GraphType {
+        /**
+         * UndirectedGraph holding an edge object for every pair of vertices
+         */
+        ADJACENCY_LIST,
+        /**
+         * DistanceMatrixGraph holding a primitive upper triangular distance matrix
+         */
+        DISTANCE_MATRIX,
+        /**
+         * ImplicitCompleteGraph holding only the coordinates and calculating weights on demand
+         */
+        IMPLICIT
+    }
+
     private Map<Long, String> nodeMap;
     private List<String> rawLines;
     public Preprocess() {
@@ -38,9 +61,42 @@ public class Preprocess {
      * @return The list of strings after pre-processing
      */
     public Graph start(String fileName) throws Exception {
+        return start(fileName, GraphType.ADJACENCY_LIST);
+    }
+
+    /**
+     * Starts the pre-processing steps
+     * @param fileName Filename with extension
+     * @param graphType Representation of the generated graph
+     * @return The complete graph of all the nodes in the file
+     */
+    public Graph start(String fileName, GraphType graphType) throws Exception {
+        rawLines = readData(fileName);
+        rawLines = substituteNodeHash(rawLines);
+        switch (graphType) {
+            case DISTANCE_MATRIX:
+                return new DistanceMatrixGraph(getVertices(rawLines));
+            case IMPLICIT:
+                return new ImplicitCompleteGraph(getVertices(rawLines));
+            default:
+                return getGraph(rawLines);
+        }
+    }
+
+    /**
+     * Starts the pre-processing steps using a distance matrix stored in a memory mapped file.
+     * The file is created on the first run and reopened without recalculating the distances on later runs,
+     * it is rebuilt if the vertices of the CSV file no longer match the fingerprint stored in it
+     * @param fileName Filename with extension
+     * @param distanceMatrixFile Path of the memory mapped distance matrix file
+     * @return The complete graph of all the nodes in the file backed by the memory mapped distance matrix
+     */
+    public DistanceMatrixGraph start(String fileName, Path distanceMatrixFile) throws Exception {
         rawLines = readData(fileName);
         rawLines = substituteNodeHash(rawLines);
-        return getGraph(rawLines);
+        List<Vertex> vertices = getVertices(rawLines);
+
+        return new DistanceMatrixGraph(vertices, MappedDistanceMatrix.openOrCreate(distanceMatrixFile, vertices));
     }
 
     /**
@@ -99,9 +155,8 @@ public class Preprocess {
      */
     private Graph getGraph(List<String> lines) throws Exception {
         Graph graph = new UndirectedGraph();
-        for(String line: lines){
-            String[] lineSplit = line.split(",");
-            graph.addVertex(new Vertex(Long.parseLong(lineSplit[0]), Double.parseDouble(lineSplit[2]), Double.parseDouble(lineSplit[1])));
+        for(Vertex vertex: getVertices(lines)){
+            graph.addVertex(vertex);
         }
 
         List<Vertex> vertexList = new ArrayList<>(graph.getAllVertices());
@@ -116,4 +171,18 @@ public class Preprocess {
 
         return graph;
     }
+
+    /**
+     * Vertices are created from the lines in file order
+     * @param lines the raw lines that contains id and coordinates
+     * @return the list of vertices
+     */
+    private List<Vertex> getVertices(List<String> lines) {
+        List<Vertex> vertices = new ArrayList<>();
+        for(String line: lines){
+            String[] lineSplit = line.split(",");
+            vertices.add(new Vertex(Long.parseLong(lineSplit[0]), Double.parseDouble(lineSplit[2]), Double.parseDouble(lineSplit[1])));
+        }
+        return vertices;
+    }
 }
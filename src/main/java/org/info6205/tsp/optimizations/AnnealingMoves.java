@@ -0,0 +1,175 @@
+package org.info6205.tsp.optimizations;
+
+import org.info6205.tsp.core.Tour;
+import org.info6205.tsp.spatial.CandidateList;
+
+import java.util.Random;
+
+/**
+ * Random moves of simulated annealing on a tour which is modified in place.
+ * Every step proposes a 2-opt move, an Or-opt move of a segment of up to three vertices or
+ * a 3-opt segment exchange from a random vertex to random candidates, prices it in O(1) from the
+ * distances of the vertices involved and only touches the tour when the move is accepted
+ */
+class AnnealingMoves {
+
+    /**
+     * Longest segment moved by an Or-opt move
+     */
+    private static final int MAX_SEGMENT_LENGTH = 3;
+
+    /**
+     * Tour modified in place
+     */
+    private final Tour tour;
+
+    /**
+     * Size of the tour
+     */
+    private final int n;
+
+    /**
+     * Nearest neighbours of all the vertices of the tour, the new edges of a move lead to candidates
+     */
+    private final CandidateList candidateList;
+
+    /**
+     * Random number generator of the run
+     */
+    private final Random rand;
+
+    /**
+     * Parameterized constructor
+     * @param tour Tour which is modified in place
+     * @param candidateList Nearest neighbours of all the vertices of the tour, built on the graph of the tour
+     * @param rand Random number generator of the run
+     */
+    AnnealingMoves(Tour tour, CandidateList candidateList, Random rand) {
+        if (tour.getGraph() != candidateList.getGraph())
+            throw new IllegalArgumentException("Tour and candidate list have to share the same graph");
+        this.tour = tour;
+        this.n = tour.size();
+        this.candidateList = candidateList;
+        this.rand = rand;
+    }
+
+    /**
+     * Tour the moves are applied to
+     * @return the tour
+     */
+    Tour getTour() {
+        return tour;
+    }
+
+    /**
+     * Proposes one random move and applies it if the Metropolis criterion accepts it
+     * @param temp Current temperature
+     * @return cost delta of the applied move, 0 if the move was rejected
+     */
+    double step(double temp) {
+        if (n < MAX_SEGMENT_LENGTH + 3)
+            return 0;
+        switch (rand.nextInt(3)) {
+            case 0:
+                return twoOpt(temp);
+            case 1:
+                return orOpt(temp);
+            default:
+                return segmentExchange(temp);
+        }
+    }
+
+    /**
+     * Replaces the edges (a, b) and (c, d) with (a, c) and (b, d), c being a candidate of a
+     * and b, d either both successors or both predecessors
+     */
+    double twoOpt(double temp) {
+        int a = rand.nextInt(n), c = randomNeighbour(a);
+        boolean successors = rand.nextBoolean();
+        int b = successors ? tour.next(a) : tour.prev(a);
+        int d = successors ? tour.next(c) : tour.prev(c);
+        if (b == c || d == a)
+            return 0;
+        double delta = tour.distance(a, c) + tour.distance(b, d) - tour.distance(a, b) - tour.distance(c, d);
+        if (!accept(delta, temp))
+            return 0;
+        tour.make2OptMove(a, b, c, d);
+        return delta;
+    }
+
+    /**
+     * Moves the segment first..last next to a candidate of one of its end vertices, in either orientation
+     */
+    double orOpt(double temp) {
+        int first = rand.nextInt(n), last = first;
+        int length = 1 + rand.nextInt(MAX_SEGMENT_LENGTH);
+        for (int i = 1; i < length; i++)
+            last = tour.next(last);
+        int before = tour.prev(first), after = tour.next(last);
+        int end = rand.nextBoolean() ? first : last;
+        int c = randomNeighbour(end);
+        //Insert between x and y, end being next to the candidate
+        int x = rand.nextBoolean() ? c : tour.prev(c), y = tour.next(x);
+        //x has to lie outside the segment and not directly before it
+        if (tour.between(before, x, last))
+            return 0;
+        boolean reversed = (x == c) != (end == first);
+        int nextToX = reversed ? last : first, nextToY = reversed ? first : last;
+        double delta = tour.distance(before, after) + tour.distance(x, nextToX) + tour.distance(nextToY, y)
+                - tour.distance(before, first) - tour.distance(last, after) - tour.distance(x, y);
+        if (!accept(delta, temp))
+            return 0;
+        //before first..last after..x y becomes before after..x first..last y
+        exchange(before, first, last, after, x, y);
+        if (reversed)
+            tour.make2OptMove(x, first, last, y);
+        return delta;
+    }
+
+    /**
+     * Exchanges the segments b..c and d..e of the edges (a, b), (c, d) and (e, f) in tour order,
+     * adding the edges (a, d), (e, b) and (c, f) where d is a candidate of a and e a candidate of b
+     */
+    double segmentExchange(double temp) {
+        int a = rand.nextInt(n), b = tour.next(a);
+        int d = randomNeighbour(a), c = tour.prev(d);
+        int e = randomNeighbour(b), f = tour.next(e);
+        if (d == b || !tour.between(d, e, tour.prev(a)))
+            return 0;
+        double delta = tour.distance(a, d) + tour.distance(e, b) + tour.distance(c, f)
+                - tour.distance(a, b) - tour.distance(c, d) - tour.distance(e, f);
+        if (!accept(delta, temp))
+            return 0;
+        exchange(a, b, c, d, e, f);
+        return delta;
+    }
+
+    /**
+     * Picks one of the candidates of a vertex
+     * @param vertex Index of the vertex
+     * @return index of the candidate
+     */
+    private int randomNeighbour(int vertex) {
+        int[] neighbours = candidateList.getNeighbours(vertex);
+        return neighbours[rand.nextInt(neighbours.length)];
+    }
+
+    /**
+     * Turns a b..c d..e f into a d..e b..c f using three reversals
+     */
+    private void exchange(int a, int b, int c, int d, int e, int f) {
+        tour.make2OptMove(a, b, c, d);
+        tour.make2OptMove(a, c, e, f);
+        tour.make2OptMove(a, e, d, b);
+    }
+
+    /**
+     * Metropolis criterion, improving moves are always accepted
+     * @param delta Cost delta of the move
+     * @param temp Current temperature
+     * @return true if the move is accepted
+     */
+    private boolean accept(double delta, double temp) {
+        return delta < 0 || rand.nextDouble() < Math.exp(-delta / temp);
+    }
+}
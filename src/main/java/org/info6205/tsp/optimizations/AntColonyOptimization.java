@@ -1,26 +1,61 @@
 package org.info6205.tsp.optimizations;
 
+import org.info6205.tsp.core.DenseDistanceMatrix;
+import org.info6205.tsp.core.DistanceMatrix;
+import org.info6205.tsp.core.DistanceMatrixGraph;
 import org.info6205.tsp.core.Edge;
 import org.info6205.tsp.core.Graph;
 import org.info6205.tsp.core.Vertex;
+import org.info6205.tsp.core.VertexRegistry;
 import org.info6205.tsp.util.GraphUtil;
-import java.util.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 
 /**
- * Ant colony implementation to attempt TSP solution
+ * Ant colony implementation to attempt TSP solution.
+ * The heuristic factor of every edge is calculated once per run and the selection weight of every edge,
+ * heuristic factor times pheromone factor, is cached and only recalculated when the pheromone changes.
+ * An ant picks the next vertex by roulette wheel selection over the cached weights of the unvisited vertices,
+ * which are kept in a primitive array, so building a tour neither calls Math.pow nor allocates.
+ * The ants of a batch only read the weights, so they can be built concurrently. Every ant gets its own seed
+ * drawn from the seed of the run, so the result of a seed does not depend on the number of threads
  */
 public class AntColonyOptimization {
 
     /**
-     * The probability matrix based on which the node is chosen
+     * Number of ants in a run
      */
-    double[][] probabilityMatrix;
+    public static final int ANT_COUNT = 200;
 
     /**
-     * The distance between one node to another node
+     * Number of ants built with the same rewards, the rewards are updated once per batch
      */
-    double[][] distanceMatrix;
+    public static final int BATCH_SIZE = 10;
+
+    /**
+     * Heuristic factor of every edge, the inverse distance to the power of alpha
+     */
+    double[][] heuristicMatrix;
+
+    /**
+     * Selection weight of every edge, heuristic factor times the reward to the power of beta
+     */
+    double[][] weightMatrix;
+
+    /**
+     * The distance between one node to another node.
+     * Matrix backed graphs are read in place, which also covers memory mapped matrices
+     */
+    DistanceMatrix distanceMatrix;
 
     /**
      * Holds the weight of the pheromone trail of the ants
@@ -62,157 +97,302 @@ public class AntColonyOptimization {
      */
     List<Vertex> vertices;
 
+    /**
+     * Position of every vertex in the list of vertices
+     */
+    VertexRegistry registry;
+
+    /**
+     * Seed from which the seeds of the ants are drawn
+     */
+    long seed;
+
+    /**
+     * Number of threads building the ants and updating the rewards
+     */
+    int threads;
+
+    /**
+     * Executor of the current run, null when the run uses a single thread
+     */
+    private ExecutorService executor;
+
     /**
      * Meant to initialize the parameter that are going to be used throughout the class
      * @param graph graph containing vertices, edges and weights
      */
     public AntColonyOptimization(Graph graph) {
-        vertices = new ArrayList<>(graph.getAllVertices().stream().sorted(Comparator.comparingLong(Vertex::getId)).collect(Collectors.toList()));
+        this(graph, new Random().nextLong(), 1);
+    }
+
+    /**
+     * Meant to initialize the parameter that are going to be used throughout the class
+     * @param graph graph containing vertices, edges and weights
+     * @param seed seed from which the seeds of the ants are drawn
+     * @param threads number of threads building the ants of a batch concurrently
+     */
+    public AntColonyOptimization(Graph graph, long seed, int threads) {
+        if (threads < 1)
+            throw new IllegalArgumentException("At least one thread is needed");
+        this.graph = graph;
+        this.seed = seed;
+        this.threads = threads;
+        //Weights of a distance matrix graph are read by index so the edges are never created
+        if (graph instanceof DistanceMatrixGraph) {
+            DistanceMatrixGraph matrixGraph = (DistanceMatrixGraph) graph;
+            vertices = new ArrayList<>(matrixGraph.getAllVertices());
+            distanceMatrix = matrixGraph.getDistanceMatrix();
+        }
+        else {
+            vertices = new ArrayList<>(graph.getAllVertices().stream().sorted(Comparator.comparingLong(Vertex::getId)).collect(Collectors.toList()));
+            this.edges = new ArrayList<>(graph.getAllEdges().stream().sorted().collect(Collectors.toList()));
+        }
+        registry = new VertexRegistry(vertices);
         length = vertices.size();
-        distanceMatrix = new double[length][length];
-        probabilityMatrix = new double[length][length];
+        heuristicMatrix = new double[length][length];
+        weightMatrix = new double[length][length];
         rewardMartrix = new double[length][length];
-        this.edges = new ArrayList<>(graph.getAllEdges().stream().sorted().collect(Collectors.toList()));
-        this.graph = graph;
         this.alpha = 24.0;
         this.beta = 25.0;
     }
 
     /**
-     * Entry method to this class which starts the ant colony implementation
+     * Entry method to this class which starts the ant colony implementation.
+     * The ants are built in batches, the best ant of a batch is improved by 2-opt and deposits its reward
      * @return optimized tour
      */
     public List<Vertex> startOptimization() {
         initializeDistanceMatrix();
         initializeRewardMatrix();
-        initializeProbabilityMatrix();
+        initializeHeuristicMatrix();
+
+        Random seeds = new Random(seed);
+        int[][] antTours = new int[BATCH_SIZE][length];
+        int[][] unvisited = new int[BATCH_SIZE][length];
+        double[] antCosts = new double[BATCH_SIZE];
+        Random[] antRandoms = new Random[BATCH_SIZE];
+        for (int k = 0; k < BATCH_SIZE; k++) {
+            antRandoms[k] = new Random();
+        }
 
         double minTour = Double.MAX_VALUE;
-        double minBatchTour = Double.MAX_VALUE;
-        Random random = new Random();
         List<Vertex> minCircuit = new ArrayList<>();
-        List<Vertex> minBatchCircuit = new ArrayList<>();
-        double prevPheromoneTrail = 0.0;
-        for (int i = 1; i <= 200; i++) {
-            List<Integer> tour = calculateAntColonyTour(random.nextInt(length - 1));
-            List<Vertex> tourVertices = new ArrayList<>();
-            for (int v : tour) {
-                tourVertices.add(vertices.get(v));
-            }
+        executor = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+        try {
+            initializeWeightMatrix();
+            for (int batch = 0; batch < ANT_COUNT / BATCH_SIZE; batch++) {
+                for (int k = 0; k < BATCH_SIZE; k++) {
+                    antRandoms[k].setSeed(seeds.nextLong());
+                }
+                forEachInParallel(BATCH_SIZE, k -> {
+                    int source = antRandoms[k].nextInt(length - 1);
+                    calculateAntColonyTour(source, antRandoms[k], antTours[k], unvisited[k]);
+                    antCosts[k] = getTourCost(antTours[k]);
+                });
+
+                int bestAnt = 0;
+                for (int k = 1; k < BATCH_SIZE; k++) {
+                    if (antCosts[k] < antCosts[bestAnt])
+                        bestAnt = k;
+                }
+                double minBatchTour = antCosts[bestAnt];
+                List<Vertex> minBatchCircuit = toVertices(antTours[bestAnt]);
+                if (minBatchTour < minTour) {
+                    minTour = minBatchTour;
+                    minCircuit = minBatchCircuit;
+                }
 
-            double tourCost = GraphUtil.getTotalCostOfTour(tourVertices);
-            minTour = minTour > tourCost ? tourCost : minTour;
-            minCircuit = tourVertices;
-            if (minBatchTour > tourCost) {
-                minBatchTour = tourCost;
-                minBatchCircuit = tourVertices;
-            }
-            if (i % 10 == 0) {
                 TwoOptSwapOptimization twoOptSwapOptimization = new TwoOptSwapOptimization(minBatchCircuit);
                 minBatchCircuit = twoOptSwapOptimization.getOptimumTour();
-
-                if (GraphUtil.getTotalCostOfTour(minBatchCircuit) < minTour) {
-                    minTour = minBatchTour;
+                double optimizedCost = GraphUtil.getTotalCostOfTour(minBatchCircuit);
+                if (optimizedCost < minTour) {
+                    minTour = optimizedCost;
                     minCircuit = minBatchCircuit;
                 }
 
-                updateRewards(minBatchTour, prevPheromoneTrail, minBatchCircuit);
-                minBatchTour = Double.MAX_VALUE;
+                //As before the batching, the trail of the ant before the last one of the batch is the previous trail
+                updateRewards(minBatchTour, antCosts[BATCH_SIZE - 2], minBatchCircuit);
             }
-            initializeProbabilityMatrix();
-            prevPheromoneTrail = tourCost;
+        } finally {
+            if (executor != null)
+                executor.shutdownNow();
+            executor = null;
         }
 
         return minCircuit;
     }
 
     /**
-     * Update pheromone matrix based on the tour taken by the ant
+     * Update pheromone matrix based on the tour taken by the ant.
+     * The reward is deposited on the edges of the tour, then the evaporation of all rewards and the
+     * recalculation of the weights are done in a single pass over the matrix
      * @param tourCost the cost of the tour taken by the ant
      * @param prevPheromoneTrail keeps track of the tour taken by the previous ant
      * @param circuit the path taken by the ant
      */
     public void updateRewards(double tourCost, double prevPheromoneTrail, List<Vertex> circuit) {
         for (int i = 0; i < circuit.size() - 1; i++) {
-            int first = (int) circuit.get(i).getId();
-            int second = (int) circuit.get(i+1).getId();
+            int first = registry.getIndexOf(circuit.get(i));
+            int second = registry.getIndexOf(circuit.get(i+1));
             rewardMartrix[first][second] += rewardMartrix[first][second]/tourCost;
             rewardMartrix[second][first] += rewardMartrix[first][second]/tourCost;
             rewardMartrix[first][second] = (1 - decay) * rewardMartrix[first][second] + decay * (tourCost - prevPheromoneTrail);
             rewardMartrix[second][first] = (1 - decay) * rewardMartrix[second][first] + decay * (tourCost - prevPheromoneTrail);
         }
 
-        for (int i = 0; i < rewardMartrix.length; i++) {
-            for (int j = 0; j < rewardMartrix[i].length; j++) {
-                double decayFactor = (1 - decay) * rewardMartrix[i][j] + decay * (tourCost - prevPheromoneTrail);
-                rewardMartrix[i][j] = decayFactor;
+        double evaporation = decay * (tourCost - prevPheromoneTrail);
+        forEachInParallel(length, i -> {
+            double[] rewards = rewardMartrix[i];
+            double[] heuristics = heuristicMatrix[i];
+            double[] weights = weightMatrix[i];
+            for (int j = 0; j < rewards.length; j++) {
+                rewards[j] = (1 - decay) * rewards[j] + evaporation;
+                weights[j] = heuristics[j] * Math.pow(rewards[j], beta);
             }
+        });
+    }
+
+    /**
+     * Runs a task for the indices from 0 to count-1, split between the threads of the run
+     * @param count number of indices
+     * @param task task run for every index
+     */
+    private void forEachInParallel(int count, IntConsumer task) {
+        if (executor == null) {
+            for (int i = 0; i < count; i++) {
+                task.accept(i);
+            }
+            return;
+        }
+
+        List<Callable<Void>> chunks = new ArrayList<>();
+        int chunkSize = (count + threads - 1) / threads;
+        for (int start = 0; start < count; start += chunkSize) {
+            int from = start, to = Math.min(count, start + chunkSize);
+            chunks.add(() -> {
+                for (int i = from; i < to; i++) {
+                    task.accept(i);
+                }
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> future : executor.invokeAll(chunks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ant colony was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("An ant failed", e.getCause());
         }
     }
 
     /**
-     * To recalculate the probability matrix after the edge has been visited by an ant
-     * @param unvisited list of unvisited nodes
-     * @param source the entry point of the circuit
+     * Cost of a tour given by vertex positions, including the edge back to the start
+     * @param tour positions of the vertices in the order they are visited
+     * @return cost of the tour
      */
-    private void recalculateProbabilityMatrix(Set<Integer> unvisited, int source) {
-        double totalInverseRewardDistance = 0.0;
-        for (int i: unvisited) {
-            double inverseDistance = Math.pow(1/distanceMatrix[source][i], alpha) * Math.pow(rewardMartrix[source][i], beta);
-            totalInverseRewardDistance += inverseDistance;
+    private double getTourCost(int[] tour) {
+        double cost = distanceMatrix.getDistance(tour[length - 1], tour[0]);
+        for (int i = 1; i < length; i++) {
+            cost += distanceMatrix.getDistance(tour[i - 1], tour[i]);
         }
+        return cost;
+    }
 
-        for (int i: unvisited) {
-            probabilityMatrix[source][i] = Math.pow(1/distanceMatrix[source][i], alpha) * Math.pow(rewardMartrix[source][i], beta)/totalInverseRewardDistance;
+    /**
+     * Converts a tour given by vertex positions into a closed list of vertices
+     * @param tour positions of the vertices in the order they are visited
+     * @return list of vertices ending with the start vertex
+     */
+    private List<Vertex> toVertices(int[] tour) {
+        List<Vertex> tourVertices = new ArrayList<>(length + 1);
+        for (int v : tour) {
+            tourVertices.add(vertices.get(v));
         }
+        tourVertices.add(vertices.get(tour[0]));
+        return tourVertices;
     }
 
     /**
-     * Run ant colony
+     * Run ant colony, the vertices are picked by roulette wheel selection over the cached weights
      * @param source the start point of the tour
-     * @return the path taken by the ant from source to every other node and then back to source
+     * @param random random number generator of the ant
+     * @param tour filled with the vertices in the order the ant visits them, starting with source
+     * @param unvisited buffer of at least the number of vertices holding the vertices not visited yet
      */
-    private List<Integer> calculateAntColonyTour(int source) {
-        List<Integer> res = new ArrayList<>();
-        Set<Integer> unvisited = new HashSet<>();
-        for (int i = 0; i < length; i++) if(i != source) unvisited.add(i);
+    private void calculateAntColonyTour(int source, Random random, int[] tour, int[] unvisited) {
+        int remaining = 0;
+        for (int i = 0; i < length; i++) if(i != source) unvisited[remaining++] = i;
         int iterNode = source;
-        res.add(iterNode);
-        Random random = new Random();
-        while(unvisited.size() != 0) {
-            double numberPicked = random.nextDouble();
-            double probabilityRuler = 0.0;
-            for (int i: unvisited) {
-                probabilityRuler += probabilityMatrix[iterNode][i];
-                if (numberPicked <= probabilityRuler) {
-                    iterNode = i;
-                    break;
+        tour[0] = iterNode;
+        for (int step = 1; step < length; step++) {
+            double[] weights = weightMatrix[iterNode];
+            double totalWeight = 0.0;
+            for (int k = 0; k < remaining; k++) {
+                totalWeight += weights[unvisited[k]];
+            }
+
+            int picked;
+            if (totalWeight > 0 && totalWeight < Double.POSITIVE_INFINITY) {
+                picked = remaining - 1;
+                double numberPicked = random.nextDouble() * totalWeight;
+                for (int k = 0; k < remaining; k++) {
+                    numberPicked -= weights[unvisited[k]];
+                    if (numberPicked < 0) {
+                        picked = k;
+                        break;
+                    }
                 }
             }
+            else {
+                //All weights underflowed or overflowed, continue with the nearest vertex
+                picked = nearest(iterNode, unvisited, remaining);
+            }
 
-            unvisited.remove(Integer.valueOf(iterNode));
-            res.add(iterNode);
-            recalculateProbabilityMatrix(unvisited, iterNode);
+            iterNode = unvisited[picked];
+            unvisited[picked] = unvisited[--remaining];
+            tour[step] = iterNode;
         }
+    }
 
-        res.add(source);
-        return res;
+    /**
+     * Position of the unvisited vertex nearest to a vertex
+     * @param source the vertex
+     * @param unvisited the vertices not visited yet
+     * @param remaining number of vertices not visited yet
+     * @return position of the nearest vertex in unvisited
+     */
+    private int nearest(int source, int[] unvisited, int remaining) {
+        int nearest = 0;
+        for (int k = 1; k < remaining; k++) {
+            if (distance(source, unvisited[k]) < distance(source, unvisited[nearest]))
+                nearest = k;
+        }
+        return nearest;
     }
 
     /**
-     * Initialize the probability matrix based on distance, reward matrix and decay
+     * Initialize the heuristic factor of every edge from the distance and alpha
      */
-    private void initializeProbabilityMatrix() {
-        for (int i = 0; i < distanceMatrix.length; i++) {
-            double totalInverseRewardDistance = 0.0;
-            for (int j = 0; j < distanceMatrix[i].length; j++) {
-                totalInverseRewardDistance += Math.pow(1/distanceMatrix[i][j], alpha) * Math.pow(rewardMartrix[i][j], beta);
+    private void initializeHeuristicMatrix() {
+        for (int i = 0; i < length; i++) {
+            for (int j = 0; j < length; j++) {
+                heuristicMatrix[i][j] = i == j ? 0 : Math.pow(1/distance(i, j), alpha);
             }
+        }
+    }
 
-            for (int j = 0; j < distanceMatrix[i].length; j++) {
-                probabilityMatrix[i][j] = Math.pow(1/distanceMatrix[i][j], alpha) * Math.pow(rewardMartrix[i][j], beta) / totalInverseRewardDistance;
+    /**
+     * Calculate the selection weight of every edge from the reward matrix
+     */
+    private void initializeWeightMatrix() {
+        forEachInParallel(length, i -> {
+            for (int j = 0; j < length; j++) {
+                weightMatrix[i][j] = heuristicMatrix[i][j] * Math.pow(rewardMartrix[i][j], beta);
             }
-        }
+        });
     }
 
     /**
@@ -227,19 +407,25 @@ public class AntColonyOptimization {
     }
 
     /**
-     * Initialize distance matrix based on the weight of the edges
+     * Initialize distance matrix based on the weight of the edges,
+     * matrix backed graphs already provide it
      */
     private void initializeDistanceMatrix() {
-        for (Edge edge: edges) {
-            Vertex source = edge.getSource();
-            Vertex destination = edge.getDestination();
-            double weight = edge.getWeight();
-            if (weight == 0) weight = 1;
-            distanceMatrix[(int) source.getId()][(int) destination.getId()] = weight;
-            distanceMatrix[(int) destination.getId()][(int) source.getId()] = weight;
-        }
+        if (graph instanceof DistanceMatrixGraph)
+            return;
 
-        for (int i = 0; i < distanceMatrix.length; i++)
-                distanceMatrix[i][i] = 1;
+        distanceMatrix = new DenseDistanceMatrix(vertices, edges);
+    }
+
+    /**
+     * Distance between two vertices by position, zero distances are replaced by 1
+     * so that they can be inverted
+     * @param i position of the first vertex
+     * @param j position of the second vertex
+     * @return distance between the vertices
+     */
+    private double distance(int i, int j) {
+        double weight = distanceMatrix.getDistance(i, j);
+        return weight == 0 ? 1 : weight;
     }
 }
@@ -0,0 +1,429 @@
+package org.info6205.tsp.optimizations;
+
+import org.info6205.tsp.core.DistanceMatrixGraph;
+import org.info6205.tsp.core.Tour;
+import org.info6205.tsp.core.Vertex;
+import org.info6205.tsp.spatial.CandidateList;
+import org.info6205.tsp.spatial.KdTree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Ant colony implementation for large instances which keeps rewards only on the edges of the candidate list.
+ * Every other edge has the minimum reward, so an ant only picks a vertex which is not a candidate of its
+ * current vertex when all candidates are visited, and then takes the nearest unvisited vertex.
+ * Heuristic factors, rewards and selection weights are stored in one primitive array each, with a row of k
+ * slots per vertex, so memory is O(n*k) instead of O(n^2).
+ * Evaporation is lazy: all rewards share a common scale which is decreased instead of every reward,
+ * so an update costs O(n) for the deposit and O(n*k) for recalculating the selection weights
+ */
+public class CandidateAntColonyOptimization {
+
+    /**
+     * Number of ants in a run
+     */
+    public static final int ANT_COUNT = 200;
+
+    /**
+     * Number of ants built with the same rewards, the rewards are updated once per batch
+     */
+    public static final int BATCH_SIZE = 10;
+
+    /**
+     * Smallest common scale of the rewards before it is folded back into the stored rewards
+     */
+    private static final double MIN_SCALE = 1e-100;
+
+    /**
+     * To adjust the impact of distance in the selection weights
+     */
+    public double alpha = 2.0;
+
+    /**
+     * To adjust the impact of reward in the selection weights
+     */
+    public double beta = 1.0;
+
+    /**
+     * To adjust the decay rate of the rewards
+     */
+    public double decay = 0.1;
+
+    /**
+     * Nearest neighbours of every vertex, only their edges keep a reward
+     */
+    private final CandidateList candidateList;
+
+    /**
+     * Graph of the candidate list providing the distances
+     */
+    private final DistanceMatrixGraph graph;
+
+    /**
+     * Total number of vertices
+     */
+    private final int length;
+
+    /**
+     * Number of slots per vertex in the candidate arrays
+     */
+    private final int width;
+
+    /**
+     * Seed of the random generator shared by the ants
+     */
+    private final long seed;
+
+    /**
+     * Coordinates of every vertex projected on the unit sphere, by vertex index and dimension,
+     * used to find the nearest unvisited vertex without calculating distances
+     */
+    private final double[] coordinates;
+
+    /**
+     * Heuristic factor of every candidate edge, the inverse distance to the power of alpha
+     */
+    private double[] heuristics;
+
+    /**
+     * Reward of every candidate edge divided by the common scale
+     */
+    private double[] rewards;
+
+    /**
+     * Selection weight of every candidate edge, heuristic factor times the reward to the power of beta
+     */
+    private double[] weights;
+
+    /**
+     * Common scale of all stored rewards
+     */
+    private double rewardScale;
+
+    /**
+     * Reward of the edges which are not candidates, no candidate edge evaporates below it
+     */
+    private double minReward;
+
+    /**
+     * Parameterized constructor building the candidate list for a list of vertices with a random seed
+     * @param vertices Vertices to be visited, the repeated start vertex at the end is optional
+     */
+    public CandidateAntColonyOptimization(List<Vertex> vertices) {
+        this(new CandidateList(withoutClosingVertex(vertices), CandidateList.DEFAULT_K), new Random().nextLong());
+    }
+
+    /**
+     * Parameterized constructor
+     * @param candidateList Nearest neighbours of all the vertices to be visited
+     * @param seed Seed of the random generator shared by the ants
+     */
+    public CandidateAntColonyOptimization(CandidateList candidateList, long seed) {
+        if (candidateList.size() < 3)
+            throw new IllegalArgumentException("At least three vertices are needed");
+        this.candidateList = candidateList;
+        this.graph = candidateList.getGraph();
+        this.length = candidateList.size();
+        this.seed = seed;
+        int maxNeighbours = 0;
+        for (int i = 0; i < length; i++)
+            maxNeighbours = Math.max(maxNeighbours, candidateList.getNeighbours(i).length);
+        this.width = maxNeighbours;
+        this.coordinates = new double[3 * length];
+        for (int i = 0; i < length; i++) {
+            Vertex vertex = graph.getVertex(i);
+            System.arraycopy(KdTree.project(vertex.getXPos(), vertex.getYPos()), 0, coordinates, 3 * i, 3);
+        }
+    }
+
+    /**
+     * Entry method to this class which starts the ant colony implementation.
+     * The ants are built in batches, the best ant of a batch is improved by 2-opt and deposits its reward
+     * @return optimized tour, ending with the start vertex
+     */
+    public List<Vertex> startOptimization() {
+        Random random = new Random(seed);
+        int[] antTour = new int[length];
+        int[] unvisited = new int[length];
+        int[] positions = new int[length];
+        int[] batchTour = new int[length];
+
+        initializeHeuristics();
+        constructTour(0, null, antTour, unvisited, positions);
+        Tour minTour = improve(antTour);
+        initializeRewards(minTour.getCost());
+
+        for (int batch = 0; batch < ANT_COUNT / BATCH_SIZE; batch++) {
+            initializeWeights();
+            double minBatchCost = Double.MAX_VALUE;
+            for (int ant = 0; ant < BATCH_SIZE; ant++) {
+                double cost = constructTour(random.nextInt(length), random, antTour, unvisited, positions);
+                if (cost < minBatchCost) {
+                    minBatchCost = cost;
+                    System.arraycopy(antTour, 0, batchTour, 0, length);
+                }
+            }
+
+            Tour minBatchTour = improve(batchTour);
+            if (minBatchTour.getCost() < minTour.getCost())
+                minTour = minBatchTour;
+            updateRewards(minBatchTour);
+        }
+
+        return minTour.toList();
+    }
+
+    /**
+     * Evaporates all rewards and deposits the reward of a tour on its candidate edges
+     * @param tour the tour which deposits its reward
+     */
+    void updateRewards(Tour tour) {
+        rewardScale *= 1 - decay;
+        if (rewardScale < MIN_SCALE) {
+            for (int slot = 0; slot < rewards.length; slot++)
+                rewards[slot] *= rewardScale;
+            rewardScale = 1;
+        }
+
+        double deposit = 1 / tour.getCost() / rewardScale;
+        for (int i = 0; i < length; i++) {
+            int j = tour.next(i);
+            int slot = slotOf(i, j);
+            if (slot >= 0)
+                rewards[slot] += deposit;
+            slot = slotOf(j, i);
+            if (slot >= 0)
+                rewards[slot] += deposit;
+        }
+    }
+
+    /**
+     * Reward of an edge, edges which are not candidates have the minimum reward
+     * @param i index of the first vertex
+     * @param j index of the second vertex
+     * @return reward of the edge
+     */
+    double getReward(int i, int j) {
+        int slot = slotOf(i, j);
+        return slot < 0 ? minReward : Math.max(minReward, rewards[slot] * rewardScale);
+    }
+
+    /**
+     * Builds the tour of an ant starting at a vertex. The next vertex is picked by roulette wheel selection
+     * over the weights of the unvisited candidates, without a random generator the candidate with the highest
+     * heuristic factor is taken. If every candidate is visited the ant continues with the nearest unvisited vertex
+     * @param source index of the start vertex
+     * @param random random generator of the ant, null for a greedy tour
+     * @param tour receives the indices of the vertices in the order they are visited
+     * @param unvisited buffer for the vertices not visited yet
+     * @param positions buffer for the position of every vertex in unvisited
+     * @return cost of the tour including the edge back to the start
+     */
+    private double constructTour(int source, Random random, int[] tour, int[] unvisited, int[] positions) {
+        for (int i = 0; i < length; i++) {
+            unvisited[i] = i;
+            positions[i] = i;
+        }
+        int remaining = length;
+        remove(source, unvisited, positions, remaining--);
+        tour[0] = source;
+        double cost = 0;
+
+        int iterNode = source;
+        for (int step = 1; step < length; step++) {
+            int picked = random == null ? bestCandidate(iterNode, positions, remaining) : pickCandidate(iterNode, random, positions, remaining);
+            if (picked < 0)
+                picked = nearest(iterNode, unvisited, positions, remaining);
+
+            remove(picked, unvisited, positions, remaining--);
+            cost += graph.getWeight(iterNode, picked);
+            iterNode = picked;
+            tour[step] = iterNode;
+        }
+        return cost + graph.getWeight(iterNode, source);
+    }
+
+    /**
+     * Picks an unvisited candidate of a vertex by roulette wheel selection over the selection weights
+     * @param source index of the vertex
+     * @param random random generator of the ant
+     * @param positions position of every vertex in unvisited
+     * @param remaining number of vertices not visited yet
+     * @return index of the picked candidate, -1 if no candidate can be picked
+     */
+    private int pickCandidate(int source, Random random, int[] positions, int remaining) {
+        int[] neighbours = candidateList.getNeighbours(source);
+        int row = source * width;
+        double totalWeight = 0;
+        for (int c = 0; c < neighbours.length; c++) {
+            if (positions[neighbours[c]] < remaining)
+                totalWeight += weights[row + c];
+        }
+        if (!(totalWeight > 0 && totalWeight < Double.POSITIVE_INFINITY))
+            return -1;
+
+        double numberPicked = random.nextDouble() * totalWeight;
+        int picked = -1;
+        for (int c = 0; c < neighbours.length; c++) {
+            if (positions[neighbours[c]] >= remaining)
+                continue;
+            picked = neighbours[c];
+            numberPicked -= weights[row + c];
+            if (numberPicked < 0)
+                break;
+        }
+        return picked;
+    }
+
+    /**
+     * Unvisited candidate of a vertex with the highest heuristic factor
+     * @param source index of the vertex
+     * @param positions position of every vertex in unvisited
+     * @param remaining number of vertices not visited yet
+     * @return index of the candidate, -1 if every candidate is visited
+     */
+    private int bestCandidate(int source, int[] positions, int remaining) {
+        int[] neighbours = candidateList.getNeighbours(source);
+        int row = source * width;
+        int best = -1;
+        for (int c = 0; c < neighbours.length; c++) {
+            if (positions[neighbours[c]] < remaining && (best < 0 || heuristics[row + c] > heuristics[row + best]))
+                best = c;
+        }
+        return best < 0 ? -1 : neighbours[best];
+    }
+
+    /**
+     * Nearest unvisited vertex, the candidates of the candidates are tried before all unvisited vertices,
+     * which are compared by their projected coordinates
+     * @param source index of the vertex
+     * @param unvisited the vertices not visited yet
+     * @param positions position of every vertex in unvisited
+     * @param remaining number of vertices not visited yet
+     * @return index of the nearest unvisited vertex found
+     */
+    private int nearest(int source, int[] unvisited, int[] positions, int remaining) {
+        int nearest = -1;
+        double nearestDistance = Double.MAX_VALUE;
+        for (int neighbour : candidateList.getNeighbours(source)) {
+            for (int candidate : candidateList.getNeighbours(neighbour)) {
+                if (positions[candidate] < remaining && graph.getWeight(source, candidate) < nearestDistance) {
+                    nearest = candidate;
+                    nearestDistance = graph.getWeight(source, candidate);
+                }
+            }
+        }
+        if (nearest >= 0)
+            return nearest;
+
+        double x = coordinates[3 * source], y = coordinates[3 * source + 1], z = coordinates[3 * source + 2];
+        for (int k = 0; k < remaining; k++) {
+            int position = 3 * unvisited[k];
+            double dx = coordinates[position] - x, dy = coordinates[position + 1] - y, dz = coordinates[position + 2] - z;
+            double squaredChord = dx * dx + dy * dy + dz * dz;
+            if (squaredChord < nearestDistance) {
+                nearest = unvisited[k];
+                nearestDistance = squaredChord;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Removes a vertex from the unvisited vertices by moving the last unvisited vertex in its place
+     * @param vertex index of the vertex
+     * @param unvisited the vertices not visited yet
+     * @param positions position of every vertex in unvisited
+     * @param remaining number of vertices not visited yet, including the vertex
+     */
+    private static void remove(int vertex, int[] unvisited, int[] positions, int remaining) {
+        int last = unvisited[remaining - 1];
+        int position = positions[vertex];
+        unvisited[position] = last;
+        positions[last] = position;
+        unvisited[remaining - 1] = vertex;
+        positions[vertex] = remaining - 1;
+    }
+
+    /**
+     * Improves the tour of an ant with 2-opt
+     * @param antTour indices of the vertices in the order they are visited
+     * @return improved tour
+     */
+    private Tour improve(int[] antTour) {
+        List<Vertex> vertices = new ArrayList<>(length);
+        for (int vertex : antTour)
+            vertices.add(graph.getVertex(vertex));
+        return new TwoOptSwapOptimization(Tour.create(vertices, graph), candidateList).optimizeTour();
+    }
+
+    /**
+     * Position of an edge in the candidate arrays
+     * @param i index of the first vertex
+     * @param j index of the second vertex
+     * @return slot of the edge, -1 if j is not a candidate of i
+     */
+    private int slotOf(int i, int j) {
+        int[] neighbours = candidateList.getNeighbours(i);
+        for (int c = 0; c < neighbours.length; c++) {
+            if (neighbours[c] == j)
+                return i * width + c;
+        }
+        return -1;
+    }
+
+    /**
+     * Initialize the heuristic factor of every candidate edge from the distance and alpha
+     */
+    private void initializeHeuristics() {
+        heuristics = new double[length * width];
+        for (int i = 0; i < length; i++) {
+            int[] neighbours = candidateList.getNeighbours(i);
+            for (int c = 0; c < neighbours.length; c++) {
+                double distance = graph.getWeight(i, neighbours[c]);
+                heuristics[i * width + c] = Math.pow(1 / (distance == 0 ? 1 : distance), alpha);
+            }
+        }
+    }
+
+    /**
+     * Initialize the reward of every candidate edge to the largest reward a tour of the given cost can keep,
+     * the minimum reward is a fraction of it depending on the number of vertices
+     * @param tourCost cost of a good tour
+     */
+    private void initializeRewards(double tourCost) {
+        double maxReward = 1 / (decay * tourCost);
+        minReward = maxReward / (2 * length);
+        rewardScale = 1;
+        rewards = new double[length * width];
+        Arrays.fill(rewards, maxReward);
+        weights = new double[length * width];
+    }
+
+    /**
+     * Calculate the selection weight of every candidate edge from its reward
+     */
+    private void initializeWeights() {
+        for (int i = 0; i < length; i++) {
+            int row = i * width;
+            for (int c = 0; c < candidateList.getNeighbours(i).length; c++) {
+                double reward = Math.max(minReward, rewards[row + c] * rewardScale);
+                weights[row + c] = heuristics[row + c] * Math.pow(reward, beta);
+            }
+        }
+    }
+
+    /**
+     * Copy of a tour without the repeated start vertex at the end
+     * @param tour List of vertices
+     * @return the vertices visited once each
+     */
+    private static List<Vertex> withoutClosingVertex(List<Vertex> tour) {
+        if (tour.size() > 1 && tour.get(0).equals(tour.get(tour.size() - 1)))
+            return tour.subList(0, tour.size() - 1);
+        return tour;
+    }
+}
@@ -0,0 +1,296 @@
+package org.info6205.tsp.optimizations;
+
+import org.info6205.tsp.core.Tour;
+import org.info6205.tsp.core.Vertex;
+import org.info6205.tsp.spatial.CandidateList;
+
+import java.util.List;
+
+/**
+ * Lin-Kernighan style variable depth local search.
+ * Starting from an edge (t1, t2) of the tour, a chain of sequential 2-opt flips is built: every flip adds an
+ * edge (t2, t3) to a candidate of t2 and removes the tour edge (t3, t4), leaving (t1, t4) as the edge which
+ * closes the tour. The chain grows as long as the partial gain stays positive and the best closing point is kept,
+ * so one chain is a sequential k-opt move for any k up to the maximum depth.
+ * The first levels try several alternatives (backtracking), deeper levels follow the best one.
+ * Vertices are taken from a queue with don't-look bits as in the neighbour driven 2-opt
+ */
+public class LinKernighanOptimization {
+
+    /**
+     * Maximum number of flips in one chain
+     */
+    public static final int MAX_DEPTH = 50;
+
+    /**
+     * Number of alternatives tried at the first levels of a chain, deeper levels only try the best one
+     */
+    private static final int[] BREADTH = {5, 3};
+
+    /**
+     * Gains below this many meters are ignored so that rounding errors do not cause endless moves
+     */
+    private static final double EPSILON = 1e-7;
+
+    /**
+     * Tour to be optimized in place
+     */
+    private Tour tour;
+
+    /**
+     * Size of the tour
+     */
+    private int n;
+
+    /**
+     * Nearest neighbours of all the vertices of the tour
+     */
+    private CandidateList candidateList;
+
+    /**
+     * Flips of the current chain, every flip is stored as t1, t2, t4, t3
+     */
+    private int[][] flips;
+
+    /**
+     * Number of flips in the current chain
+     */
+    private int depth;
+
+    /**
+     * Best closing gain of the current chain
+     */
+    private double bestGain;
+
+    /**
+     * Number of flips giving the best closing gain
+     */
+    private int bestDepth;
+
+    /**
+     * Alternatives per level, t3 of every alternative
+     */
+    private int[][] alternatives;
+
+    /**
+     * Alternatives per level, value of every alternative
+     */
+    private double[][] alternativeValues;
+
+    /**
+     * Vertices still to be examined
+     */
+    private VertexQueue queue;
+
+    /**
+     * Parameterized constructor calculating distances from the coordinates of the tour vertices
+     * @param tour Initial tour to be optimized
+     */
+    public LinKernighanOptimization(List<Vertex> tour) {
+        this(Tour.create(tour));
+    }
+
+    /**
+     * Parameterized constructor
+     * @param tour Initial tour to be optimized
+     * @param candidateList Nearest neighbours of all the vertices of the tour
+     */
+    public LinKernighanOptimization(List<Vertex> tour, CandidateList candidateList) {
+        this(Tour.create(tour, candidateList.getGraph()), candidateList);
+    }
+
+    /**
+     * Parameterized constructor building the candidate list on the graph of the tour
+     * @param tour Initial tour which is optimized in place
+     */
+    public LinKernighanOptimization(Tour tour) {
+        this(tour, new CandidateList(tour.getGraph(), CandidateList.DEFAULT_K));
+    }
+
+    /**
+     * Parameterized constructor
+     * @param tour Initial tour which is optimized in place
+     * @param candidateList Nearest neighbours of all the vertices of the tour, built on the graph of the tour
+     */
+    public LinKernighanOptimization(Tour tour, CandidateList candidateList) {
+        if (tour.getGraph() != candidateList.getGraph())
+            throw new IllegalArgumentException("Tour and candidate list have to share the same graph");
+        this.tour = tour;
+        this.n = tour.size();
+        this.candidateList = candidateList;
+    }
+
+    /**
+     * Runs the optimization
+     * @return Optimized tour containing list of vertices
+     */
+    public List<Vertex> getOptimumTour(){
+        return optimizeTour().toList();
+    }
+
+    /**
+     * Runs the optimization on the tour in place
+     * @return the optimized tour
+     */
+    public Tour optimizeTour(){
+        if(n < 5)
+            return tour;
+        flips = new int[MAX_DEPTH][4];
+        alternatives = new int[BREADTH.length][];
+        alternativeValues = new double[BREADTH.length][];
+        for (int level = 0; level < BREADTH.length; level++) {
+            alternatives[level] = new int[BREADTH[level]];
+            alternativeValues[level] = new double[BREADTH[level]];
+        }
+        queue = new VertexQueue(n);
+        queue.pushAll();
+        while(!queue.isEmpty()){
+            int t1 = queue.pop();
+            if(improve(t1, tour.next(t1)) || improve(t1, tour.prev(t1)))
+                queue.push(t1);
+        }
+        return tour;
+    }
+
+    /**
+     * Searches an improving chain starting by removing the edge (t1, t2)
+     * @param t1 Index of the vertex which stays fixed during the chain
+     * @param t2 Index of a tour neighbour of t1
+     * @return true if the tour was improved
+     */
+    private boolean improve(int t1, int t2){
+        depth = 0;
+        bestGain = 0;
+        bestDepth = 0;
+        return step(0, t1, t2, tour.distance(t1, t2));
+    }
+
+    /**
+     * Adds one flip to the chain and continues from the new closing edge (t1, t2)
+     * @param level Number of flips already in the chain
+     * @param t1 Index of the vertex which stays fixed during the chain
+     * @param t2 Index of the loose end, (t1, t2) being the edge to remove
+     * @param gain Removed minus added length of the chain so far, without the closing edge
+     * @return true if an improving chain was kept
+     */
+    private boolean step(int level, int t1, int t2, double gain){
+        if(level >= MAX_DEPTH)
+            return false;
+        boolean forward = tour.next(t1) == t2;
+
+        if(level < BREADTH.length){
+            int count = collectAlternatives(level, t1, t2, gain, forward);
+            for (int i = 0; i < count; i++) {
+                if(tryFlip(level, t1, t2, alternatives[level][i], gain, forward))
+                    return true;
+            }
+            return false;
+        }
+
+        int bestT3 = -1;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int t3: candidateList.getNeighbours(t2)) {
+            double added = tour.distance(t2, t3);
+            if(gain - added <= EPSILON)
+                break;
+            int t4 = forward ? tour.prev(t3) : tour.next(t3);
+            if(!isValid(t1, t2, t3, t4))
+                continue;
+            double value = tour.distance(t3, t4) - added;
+            if(value > bestValue){
+                bestValue = value;
+                bestT3 = t3;
+            }
+        }
+        return bestT3 != -1 && tryFlip(level, t1, t2, bestT3, gain, forward);
+    }
+
+    /**
+     * Performs the flip adding (t2, t3), searches deeper and keeps the best closing point of the chain.
+     * The flip is undone if the chain does not lead to an improvement
+     * @return true if an improving chain was kept
+     */
+    private boolean tryFlip(int level, int t1, int t2, int t3, double gain, boolean forward){
+        int t4 = forward ? tour.prev(t3) : tour.next(t3);
+        double newGain = gain - tour.distance(t2, t3) + tour.distance(t3, t4);
+
+        tour.make2OptMove(t1, t2, t4, t3);
+        int[] flip = flips[depth++];
+        flip[0] = t1;
+        flip[1] = t2;
+        flip[2] = t4;
+        flip[3] = t3;
+
+        double closingGain = newGain - tour.distance(t4, t1);
+        if(closingGain > bestGain + EPSILON){
+            bestGain = closingGain;
+            bestDepth = depth;
+        }
+
+        if(step(level + 1, t1, t4, newGain))
+            return true;
+        if(bestGain > EPSILON){
+            while(depth > bestDepth)
+                undoFlip();
+            for (int i = 0; i < depth; i++)
+                for (int vertex: flips[i])
+                    queue.push(vertex);
+            return true;
+        }
+        undoFlip();
+        return false;
+    }
+
+    /**
+     * Collects the best alternatives for t3 at one of the first levels, sorted by decreasing value
+     * @return number of alternatives
+     */
+    private int collectAlternatives(int level, int t1, int t2, double gain, boolean forward){
+        int[] t3s = alternatives[level];
+        double[] values = alternativeValues[level];
+        int count = 0;
+        for (int t3: candidateList.getNeighbours(t2)) {
+            double added = tour.distance(t2, t3);
+            if(gain - added <= EPSILON)
+                break;
+            int t4 = forward ? tour.prev(t3) : tour.next(t3);
+            if(!isValid(t1, t2, t3, t4))
+                continue;
+            double value = tour.distance(t3, t4) - added;
+            if(count == t3s.length && value <= values[count - 1])
+                continue;
+            int i = count < t3s.length ? count++ : count - 1;
+            while(i > 0 && values[i - 1] < value){
+                t3s[i] = t3s[i - 1];
+                values[i] = values[i - 1];
+                i--;
+            }
+            t3s[i] = t3;
+            values[i] = value;
+        }
+        return count;
+    }
+
+    /**
+     * Checks that adding (t2, t3) and removing (t3, t4) gives a tour and does not undo an earlier flip of the chain
+     */
+    private boolean isValid(int t1, int t2, int t3, int t4){
+        if(t3 == t1 || t4 == t2 || t4 == t1)
+            return false;
+        //An edge added by the chain must not be removed again
+        for (int i = 0; i < depth; i++) {
+            int addedFrom = flips[i][1], addedTo = flips[i][3];
+            if((addedFrom == t3 && addedTo == t4) || (addedFrom == t4 && addedTo == t3))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Undoes the last flip of the chain
+     */
+    private void undoFlip(){
+        int[] flip = flips[--depth];
+        tour.make2OptMove(flip[0], flip[2], flip[1], flip[3]);
+    }
+}
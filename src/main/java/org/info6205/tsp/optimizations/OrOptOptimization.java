@@ -0,0 +1,212 @@
+package org.info6205.tsp.optimizations;
+
+import org.info6205.tsp.core.Tour;
+import org.info6205.tsp.core.Vertex;
+import org.info6205.tsp.spatial.CandidateList;
+
+import java.util.List;
+
+/**
+ * Or-opt local search moving segments of up to three vertices to another place in the tour.
+ * A segment is only moved next to one of the candidates of its end vertices, in either orientation,
+ * and only while the new edge is shorter than the gain of taking the segment out.
+ * Every move is evaluated in O(1) from the distances of the six vertices involved and the tour is
+ * modified in place, so the search itself allocates nothing
+ */
+public class OrOptOptimization {
+
+    /**
+     * Longest segment which is moved
+     */
+    public static final int MAX_SEGMENT_LENGTH = 3;
+
+    /**
+     * Improvements below this many meters are ignored
+     */
+    private static final double MIN_IMPROVEMENT = 1;
+
+    /**
+     * Tour to be optimized in place
+     */
+    private Tour tour;
+
+    /**
+     * Size of the tour
+     */
+    private int n;
+
+    /**
+     * Nearest neighbours of all the vertices of the tour
+     */
+    private CandidateList candidateList;
+
+    /**
+     * Vertices still to be examined
+     */
+    private VertexQueue queue;
+
+    /**
+     * Parameterized constructor calculating distances from the coordinates of the tour vertices
+     * @param tour Initial tour to be optimized
+     */
+    public OrOptOptimization(List<Vertex> tour) {
+        this(Tour.create(tour));
+    }
+
+    /**
+     * Parameterized constructor
+     * @param tour Initial tour to be optimized
+     * @param candidateList Nearest neighbours of all the vertices of the tour
+     */
+    public OrOptOptimization(List<Vertex> tour, CandidateList candidateList) {
+        this(Tour.create(tour, candidateList.getGraph()), candidateList);
+    }
+
+    /**
+     * Parameterized constructor building the candidate list on the graph of the tour
+     * @param tour Initial tour which is optimized in place
+     */
+    public OrOptOptimization(Tour tour) {
+        this(tour, new CandidateList(tour.getGraph(), CandidateList.DEFAULT_K));
+    }
+
+    /**
+     * Parameterized constructor
+     * @param tour Initial tour which is optimized in place
+     * @param candidateList Nearest neighbours of all the vertices of the tour, built on the graph of the tour
+     */
+    public OrOptOptimization(Tour tour, CandidateList candidateList) {
+        if (tour.getGraph() != candidateList.getGraph())
+            throw new IllegalArgumentException("Tour and candidate list have to share the same graph");
+        this.tour = tour;
+        this.n = tour.size();
+        this.candidateList = candidateList;
+    }
+
+    /**
+     * Runs the optimization
+     * @return Optimized tour containing list of vertices
+     */
+    public List<Vertex> getOptimumTour(){
+        return optimizeTour().toList();
+    }
+
+    /**
+     * Runs the optimization on the tour in place.
+     * Vertices are taken from a queue with don't-look bits as in the neighbour driven 2-opt,
+     * every vertex is checked once more after the queue runs empty
+     * @return the optimized tour
+     */
+    public Tour optimizeTour(){
+        if(n < MAX_SEGMENT_LENGTH + 3)
+            return tour;
+        queue = new VertexQueue(n);
+        boolean improvementFound = true;
+        while(improvementFound){
+            improvementFound = false;
+            queue.pushAll();
+            while(!queue.isEmpty()){
+                int s1 = queue.pop();
+                if(improve(s1)){
+                    queue.push(s1);
+                    improvementFound = true;
+                }
+            }
+        }
+        return tour;
+    }
+
+    /**
+     * Tries to move the segments starting at s1 in both tour directions
+     * @param s1 Index of the first vertex of the segments
+     * @return true if a segment was moved
+     */
+    private boolean improve(int s1){
+        for (int direction = 0; direction < 2; direction++) {
+            boolean forward = direction == 0;
+            int s2 = s1;
+            for (int length = 1; length <= MAX_SEGMENT_LENGTH; length++) {
+                int p = forward ? tour.prev(s1) : tour.next(s1);
+                int q = forward ? tour.next(s2) : tour.prev(s2);
+                double removeGain = tour.distance(p, s1) + tour.distance(s2, q) - tour.distance(p, q);
+                if(removeGain > MIN_IMPROVEMENT
+                        && (tryInsert(s1, s2, p, q, s1, removeGain, forward) || tryInsert(s1, s2, p, q, s2, removeGain, forward)))
+                    return true;
+                s2 = forward ? tour.next(s2) : tour.prev(s2);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tries to insert the segment s1..s2 next to a candidate of one of its end vertices
+     * @param s1 First vertex of the segment
+     * @param s2 Last vertex of the segment
+     * @param p Vertex before the segment
+     * @param q Vertex after the segment
+     * @param end End vertex of the segment whose candidates are used
+     * @param removeGain Length saved by taking the segment out
+     * @param forward Whether the segment goes from s1 to s2 in tour direction
+     * @return true if the segment was moved
+     */
+    private boolean tryInsert(int s1, int s2, int p, int q, int end, double removeGain, boolean forward){
+        int other = end == s1 ? s2 : s1;
+        for (int c: candidateList.getNeighbours(end)) {
+            double added = tour.distance(end, c);
+            if(added >= removeGain - MIN_IMPROVEMENT)
+                break;
+            if(inSegment(c, s1, s2, forward))
+                continue;
+            //Insert between c and either of its tour neighbours, end being next to c
+            for (int side = 0; side < 2; side++) {
+                int d = side == 0 ? tour.next(c) : tour.prev(c);
+                if(inSegment(d, s1, s2, forward))
+                    continue;
+                double delta = added + tour.distance(other, d) - tour.distance(c, d) - removeGain;
+                if(delta < -MIN_IMPROVEMENT){
+                    move(s1, s2, p, q, c, d, end, forward);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves the segment s1..s2 between the tour neighbours c and d, with end next to c
+     */
+    private void move(int s1, int s2, int p, int q, int c, int d, int end, boolean forward){
+        //Name the segment and the insertion edge along the tour direction
+        int first = forward ? s1 : s2, last = forward ? s2 : s1;
+        int before = forward ? p : q, after = forward ? q : p;
+        int x = tour.next(c) == d ? c : d, y = x == c ? d : c;
+
+        //before first..last after..x y becomes before after..x first..last y
+        tour.make2OptMove(before, first, last, after);
+        tour.make2OptMove(before, last, x, y);
+        tour.make2OptMove(before, x, after, first);
+
+        //x is now next to first, turn the segment around if end has to be next to the other side
+        if((x == c) != (end == first))
+            tour.make2OptMove(x, first, last, y);
+
+        queue.push(p);
+        queue.push(q);
+        queue.push(s1);
+        queue.push(s2);
+        queue.push(c);
+        queue.push(d);
+    }
+
+    /**
+     * Checks if a vertex belongs to the segment s1..s2 of at most three vertices
+     */
+    private boolean inSegment(int vertex, int s1, int s2, boolean forward){
+        for (int v = s1; ; v = forward ? tour.next(v) : tour.prev(v)) {
+            if(v == vertex)
+                return true;
+            if(v == s2)
+                return false;
+        }
+    }
+}
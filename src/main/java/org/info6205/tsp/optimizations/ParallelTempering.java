@@ -0,0 +1,252 @@
+package org.info6205.tsp.optimizations;
+
+import org.info6205.tsp.core.Tour;
+import org.info6205.tsp.core.Vertex;
+import org.info6205.tsp.spatial.CandidateList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Replica exchange (parallel tempering) simulated annealing.
+ * Every replica is a copy of the initial tour annealed by its own thread at a fixed temperature of a
+ * geometric ladder. After every round of iterations the replicas at neighbouring temperatures exchange
+ * their temperatures with the replica exchange probability, so good tours found at high temperatures move
+ * down to the cold end while the hot replicas keep exploring.
+ * The best tour found by any replica is published through an atomic reference without locking.
+ * The random number generators of the exchanges and of the replicas are seeded from the seed of the run,
+ * so a run with a given seed is reproducible
+ */
+public class ParallelTempering {
+
+    /**
+     * Number of iterations every replica runs between two exchange rounds
+     */
+    public static final int ROUND_LENGTH = 10000;
+
+    /**
+     * Tour the replicas start from
+     */
+    private final Tour tour;
+
+    /**
+     * Number of iterations of every replica
+     */
+    private final int iterations;
+
+    /**
+     * Temperatures of the ladder, from cold to hot
+     */
+    private final double[] temperatures;
+
+    /**
+     * Seed from which the seeds of the exchanges and of the replicas are drawn
+     */
+    private final long seed;
+
+    /**
+     * Tours of the replicas
+     */
+    private Tour[] replicas;
+
+    /**
+     * Replica at every temperature of the ladder
+     */
+    private int[] replicaAt;
+
+    /**
+     * Temperature of every replica
+     */
+    private double[] temperatureOf;
+
+    /**
+     * Random number generator deciding the exchanges
+     */
+    private Random exchangeRandom;
+
+    /**
+     * Seed of the random number generator of every replica
+     */
+    private long[] replicaSeeds;
+
+    /**
+     * Number of completed rounds, deciding which pairs of temperatures are exchanged
+     */
+    private int round;
+
+    /**
+     * Best tour found so far by any replica
+     */
+    private final AtomicReference<Tour> best = new AtomicReference<>();
+
+    /**
+     * Parameterized constructor running one replica per available processor
+     * @param tour Initial tour
+     * @param iterations Number of iterations of every replica
+     * @param minTemp Temperature of the coldest replica
+     * @param maxTemp Temperature of the hottest replica
+     */
+    public ParallelTempering(List<Vertex> tour, int iterations, double minTemp, double maxTemp) {
+        this(SimulatedAnnealing.createTour(tour), iterations, minTemp, maxTemp, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Parameterized constructor using a random seed
+     * @param tour Initial tour, it is not modified
+     * @param iterations Number of iterations of every replica
+     * @param minTemp Temperature of the coldest replica
+     * @param maxTemp Temperature of the hottest replica
+     * @param replicaCount Number of replicas, each run by its own thread
+     */
+    public ParallelTempering(Tour tour, int iterations, double minTemp, double maxTemp, int replicaCount) {
+        this(tour, iterations, minTemp, maxTemp, replicaCount, new Random().nextLong());
+    }
+
+    /**
+     * Parameterized constructor
+     * @param tour Initial tour, it is not modified
+     * @param iterations Number of iterations of every replica
+     * @param minTemp Temperature of the coldest replica
+     * @param maxTemp Temperature of the hottest replica
+     * @param replicaCount Number of replicas, each run by its own thread
+     * @param seed Seed from which the seeds of the exchanges and of the replicas are drawn
+     */
+    public ParallelTempering(Tour tour, int iterations, double minTemp, double maxTemp, int replicaCount, long seed) {
+        if (replicaCount < 1)
+            throw new IllegalArgumentException("At least one replica is needed");
+        if (minTemp <= 0 || maxTemp < minTemp)
+            throw new IllegalArgumentException("Temperatures have to satisfy 0 < minTemp <= maxTemp");
+        this.tour = tour;
+        this.iterations = iterations;
+        this.seed = seed;
+        this.temperatures = new double[replicaCount];
+        double ratio = replicaCount == 1 ? 1 : Math.pow(maxTemp / minTemp, 1.0 / (replicaCount - 1));
+        for (int k = 0; k < replicaCount; k++)
+            temperatures[k] = minTemp * Math.pow(ratio, k);
+    }
+
+    /**
+     * Runs the optimization
+     * @return best tour containing list of vertices
+     */
+    public List<Vertex> optimize() {
+        return optimizeTour().toList();
+    }
+
+    /**
+     * Runs all the replicas until each has done its iterations
+     * @return the best tour found by any replica
+     */
+    public Tour optimizeTour() {
+        int replicaCount = temperatures.length;
+        CandidateList candidateList = new CandidateList(tour.getGraph(), CandidateList.DEFAULT_K);
+        Random seeds = new Random(seed);
+        exchangeRandom = new Random(seeds.nextLong());
+        replicas = new Tour[replicaCount];
+        replicaSeeds = new long[replicaCount];
+        replicaAt = new int[replicaCount];
+        temperatureOf = new double[replicaCount];
+        for (int r = 0; r < replicaCount; r++) {
+            replicas[r] = tour.copy();
+            replicaSeeds[r] = seeds.nextLong();
+            replicaAt[r] = r;
+            temperatureOf[r] = temperatures[r];
+        }
+        round = 0;
+        best.set(tour.copy());
+
+        CyclicBarrier barrier = new CyclicBarrier(replicaCount, this::exchange);
+        ExecutorService executor = Executors.newFixedThreadPool(replicaCount);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int r = 0; r < replicaCount; r++) {
+                int replica = r;
+                futures.add(executor.submit(() -> {
+                    anneal(replica, candidateList, barrier);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures)
+                future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Parallel tempering was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A replica failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return best.get();
+    }
+
+    /**
+     * Anneals one replica round by round at the temperature it currently holds.
+     * Every accepted move that takes the replica below the best cost it has reached is published,
+     * so a shorter tour found inside a round is kept even if the replica moves uphill afterwards
+     * @param replica Index of the replica
+     * @param candidateList Nearest neighbours shared by all replicas
+     * @param barrier Barrier exchanging the temperatures after every round
+     */
+    private void anneal(int replica, CandidateList candidateList, CyclicBarrier barrier)
+            throws InterruptedException, BrokenBarrierException {
+        Tour replicaTour = replicas[replica];
+        AnnealingMoves moves = new AnnealingMoves(replicaTour, candidateList, new Random(replicaSeeds[replica]));
+        double bestCost = replicaTour.getCost();
+        try {
+            for (int done = 0; done < iterations; done += ROUND_LENGTH) {
+                double temp = temperatureOf[replica];
+                int roundLength = Math.min(ROUND_LENGTH, iterations - done);
+                for (int it = 0; it < roundLength; it++) {
+                    if (moves.step(temp) != 0 && replicaTour.getCost() < bestCost) {
+                        bestCost = replicaTour.getCost();
+                        publish(replicaTour);
+                    }
+                }
+                barrier.await();
+            }
+        } catch (RuntimeException e) {
+            //Release the other replicas waiting at the barrier
+            barrier.reset();
+            throw e;
+        }
+    }
+
+    /**
+     * Replaces the best tour by a copy of the given tour if it is shorter
+     * @param candidate Tour of a replica
+     */
+    private void publish(Tour candidate) {
+        Tour current = best.get();
+        if (candidate.getCost() >= current.getCost())
+            return;
+        Tour snapshot = candidate.copy();
+        while (snapshot.getCost() < current.getCost() && !best.compareAndSet(current, snapshot))
+            current = best.get();
+    }
+
+    /**
+     * Tries to exchange the replicas of neighbouring temperatures, alternating between the even and
+     * the odd pairs of the ladder. Runs in the last thread reaching the barrier while the others wait
+     */
+    private void exchange() {
+        for (int k = round++ % 2; k + 1 < temperatures.length; k += 2) {
+            int cold = replicaAt[k], hot = replicaAt[k + 1];
+            double exponent = (1 / temperatures[k] - 1 / temperatures[k + 1])
+                    * (replicas[cold].getCost() - replicas[hot].getCost());
+            if (exponent >= 0 || exchangeRandom.nextDouble() < Math.exp(exponent)) {
+                replicaAt[k] = hot;
+                replicaAt[k + 1] = cold;
+                temperatureOf[hot] = temperatures[k];
+                temperatureOf[cold] = temperatures[k + 1];
+            }
+        }
+    }
+}
@@ -1,80 +1,94 @@
 package org.info6205.tsp.optimizations;
 
-import org.info6205.tsp.core.Graph;
+import org.info6205.tsp.core.DistanceMatrixGraph;
+import org.info6205.tsp.core.Tour;
 import org.info6205.tsp.core.Vertex;
-import org.info6205.tsp.util.GraphUtil;
+import org.info6205.tsp.spatial.CandidateList;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
+/**
+ * Simulated annealing on a single tour which is modified in place.
+ * Every iteration proposes one random 2-opt, Or-opt or 3-opt move towards near neighbours, evaluates its cost delta in O(1)
+ * and only applies it when it is accepted, so the iterations neither copy the tour nor allocate
+ */
 public class SimulatedAnnealing {
+
+    /**
+     * Largest tour whose distances are cached in a dense matrix when the annealing starts from a list of vertices
+     */
+    public static final int MAX_CACHED_SIZE = 4096;
+
     private int iterations;
     private double temp;
-    private List<Vertex> tour;
+    private Tour tour;
     private double gamma;
 
+    /**
+     * Random number generator shared by all the iterations of the run
+     */
+    private final Random rand;
+
     public SimulatedAnnealing(List<Vertex> tour, int iterations, double temp, double gamma) {
+        this(createTour(tour), iterations, temp, gamma);
+    }
+
+    public SimulatedAnnealing(Tour tour, int iterations, double temp, double gamma) {
+        this(tour, iterations, temp, gamma, new Random());
+    }
+
+    /**
+     * Parameterized constructor with a given random number generator, for reproducible runs
+     * @param tour Initial tour which is optimized in place
+     * @param iterations Number of proposed moves
+     * @param temp Initial temperature
+     * @param gamma Cooling factor applied every 100 iterations
+     * @param rand Random number generator of the run
+     */
+    public SimulatedAnnealing(Tour tour, int iterations, double temp, double gamma, Random rand) {
         this.tour = tour;
         this.iterations = iterations;
         this.temp = temp;
         this.gamma = gamma;
+        this.rand = rand;
     }
 
     public List<Vertex> optimize() {
-        double currentCost = GraphUtil.getTotalCostOfTour(tour);
-        double newCost = currentCost;
-        for (int it=0; it < this.iterations; it++) {
-            int vertexCount = tour.size()-1;
-
-            Random rand = new Random();
-            int i = rand.nextInt(vertexCount-4);
-            int j = rand.nextInt(vertexCount-2);
-            while(j < i){
-                j= rand.nextInt(vertexCount -2);
-            }
-            int k= rand.nextInt(vertexCount );
-            while( k < j ){
-                k = rand.nextInt(vertexCount);
-            }
+        return optimizeTour().toList();
+    }
 
-            ThreeOptForSA threeOpt= new ThreeOptForSA(tour);
-            double delta = threeOpt.doThreeOpt(i, j, k);
-            newCost = newCost + delta;
-            if(delta < 0){
-                currentCost = newCost;
-                this.tour = threeOpt.getTour();
-            }else{
-                if(shouldAccept(newCost, currentCost)){
-                    currentCost = newCost;
-                    this.tour = threeOpt.getTour();
-                }
-            }
+    /**
+     * Runs the annealing on the tour in place, only accepted moves are applied to the tour
+     * @return the optimized tour
+     */
+    public Tour optimizeTour() {
+        CandidateList candidateList = new CandidateList(tour.getGraph(), CandidateList.DEFAULT_K);
+        AnnealingMoves moves = new AnnealingMoves(tour, candidateList, rand);
+        for (int it=0; it < this.iterations; it++) {
+            moves.step(temp);
             if(it%100 ==0 ){
                 coolTemp();
             }
-            //coolTemp();
         }
         return tour;
     }
 
-    private void coolTemp() {
-        this.temp = temp * gamma;
+    /**
+     * Creates the tour for a list of vertices, small tours read their distances from a dense matrix
+     * as every distance is needed many times during the annealing
+     * @param tour List of vertices, the repeated start vertex at the end is optional
+     * @return tour of the vertices
+     */
+    static Tour createTour(List<Vertex> tour) {
+        List<Vertex> vertices = tour.size() > 1 && tour.get(0).equals(tour.get(tour.size() - 1))
+                ? tour.subList(0, tour.size() - 1) : tour;
+        if (vertices.size() > MAX_CACHED_SIZE)
+            return Tour.create(tour);
+        return Tour.create(tour, new DistanceMatrixGraph(vertices));
     }
 
-    private boolean shouldAccept(double newCost, double currentCost) {
-        double prob = Math.exp((currentCost - newCost) / this.temp);
-        Random rand = new Random();
-        if (newCost < currentCost) {
-            //accept new solution
-            return true;
-        } else {
-            //System.out.println(rand.nextDouble()+"\t"+prob);
-            if (rand.nextDouble() < prob) {
-                //accept new solution
-                return true;
-            }
-        }
-        return false;
+    private void coolTemp() {
+        this.temp = temp * gamma;
     }
 }
@@ -1,30 +1,74 @@
 package org.info6205.tsp.optimizations;
 
+import org.info6205.tsp.core.DistanceMatrixGraph;
+import org.info6205.tsp.core.Tour;
 import org.info6205.tsp.core.Vertex;
-import org.info6205.tsp.util.GraphUtil;
+import org.info6205.tsp.spatial.CandidateList;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class ThreeOptSwapOptimization {
 
     /**
-     * Initial tour to be optimized
+     * Initial tour to be optimized in place
      */
-    private List<Vertex> tour;
+    private Tour tour;
 
     /**
-     * Size of the tour excluding the last node(i.e. source node)
+     * Size of the tour
      */
     private int n;
 
+    /**
+     * Optional candidate list restricting the triples to edges near the first edge
+     */
+    private CandidateList candidateList;
+
     /**
      * Parameterized constructor taking in a tour
      * @param tour Initial tour to be optimized
      */
     public ThreeOptSwapOptimization(List<Vertex> tour) {
+        this(Tour.create(tour));
+    }
+
+    /**
+     * Parameterized constructor taking in a tour and reading weights from a distance matrix
+     * @param tour Initial tour to be optimized
+     * @param graph Distance matrix graph containing all the vertices of the tour
+     */
+    public ThreeOptSwapOptimization(List<Vertex> tour, DistanceMatrixGraph graph) {
+        this(Tour.create(tour, graph));
+    }
+
+    /**
+     * Parameterized constructor taking in a tour and only trying triples between near neighbours
+     * @param tour Initial tour to be optimized
+     * @param candidateList Nearest neighbours of all the vertices of the tour
+     */
+    public ThreeOptSwapOptimization(List<Vertex> tour, CandidateList candidateList) {
+        this(Tour.create(tour, candidateList.getGraph()), candidateList);
+    }
+
+    /**
+     * Parameterized constructor taking in a tour
+     * @param tour Initial tour which is optimized in place
+     */
+    public ThreeOptSwapOptimization(Tour tour) {
         this.tour = tour;
-        this.n = tour.size() - 1;
+        this.n = tour.size();
+    }
+
+    /**
+     * Parameterized constructor taking in a tour and only trying triples between near neighbours
+     * @param tour Initial tour which is optimized in place
+     * @param candidateList Nearest neighbours of all the vertices of the tour, built on the graph of the tour
+     */
+    public ThreeOptSwapOptimization(Tour tour, CandidateList candidateList) {
+        this(tour);
+        if (tour.getGraph() != candidateList.getGraph())
+            throw new IllegalArgumentException("Tour and candidate list have to share the same graph");
+        this.candidateList = candidateList;
     }
 
     /**
@@ -32,20 +76,54 @@ public class ThreeOptSwapOptimization {
      * @return Optimized tour after performing 3-opt swap
      */
     public List<Vertex> getOptimumTour(){
+        return optimizeTour().toList();
+    }
+
+    /**
+     * Performs 3-opt swap on the tour in place
+     * @return the optimized tour
+     */
+    public Tour optimizeTour(){
         optimize();
-        return new ArrayList<>(tour);
+        return tour;
     }
 
     /**
      * Iterates over all valid segments for the 3-opt swap
-     * and finds an optimum solution
+     * and finds an optimum solution.
+     * The triples are enumerated on the fly in the order i < j < k, so no memory is needed per triple
      */
     private void optimize(){
-        List<Triple> validSegments = generateAllSegments(n);
+        if(candidateList != null){
+            optimizeWithCandidateList();
+            return;
+        }
+
+        while(true){
+            double delta = 0;
+            for (int i = 0; i < n; i++) {
+                for (int j = i+1; j < n; j++) {
+                    for (int k = j+1; k < n; k++) {
+                        delta += tryTriple(i, j, k);
+                    }
+                }
+            }
+            if(delta >= 0)
+                break;
+        }
+    }
+
+    /**
+     * Neighbour driven variant of the optimization.
+     * For the first edge (a, b) starting at every vertex, the second edge is taken next to a candidate of a
+     * and the third edge next to a candidate of b, so a pass looks at O(n*k^2) triples instead of O(n^3).
+     * Candidates are only used while the new edge to them is shorter than the edge (a, b) it replaces
+     */
+    private void optimizeWithCandidateList(){
         while(true){
             double delta = 0;
-            for(Triple triple: validSegments){
-                delta += reverseSegmentIfBetter(tour, triple);
+            for (int a = 0; a < n; a++) {
+                delta += improveWithCandidates(a);
             }
             if(delta >= 0)
                 break;
@@ -53,94 +131,88 @@ public class ThreeOptSwapOptimization {
     }
 
     /**
-     * Checks all possible combinations of 3-opt swap for provided indices
-     * @param tour Tour to be optimized
-     * @param triple Indices
+     * Tries the triples whose first edge starts at vertex a
+     * @param a Index of the vertex starting the first edge
+     * @return the cost delta of the moves performed
+     */
+    private double improveWithCandidates(int a){
+        int b = tour.next(a);
+        double removed = tour.distance(a, b);
+        double delta = 0;
+        for (int u: candidateList.getNeighbours(a)) {
+            if(tour.distance(a, u) >= removed)
+                break;
+            for (int w: candidateList.getNeighbours(b)) {
+                if(tour.distance(b, w) >= removed)
+                    break;
+                int predU = tour.prev(u), predW = tour.prev(w);
+                delta += tryTriple(a, predU, predW) + tryTriple(a, predU, w) + tryTriple(a, u, predW) + tryTriple(a, u, w);
+            }
+        }
+        return delta;
+    }
+
+    /**
+     * Orders three edges, each identified by the vertex it starts from, along the tour
+     * and performs the best valid 3-opt swap for them
+     * @return the cost delta of the swap, 0 if the edges do not form a valid triple
+     */
+    private double tryTriple(int x, int y, int z){
+        if(x == y || y == z || x == z)
+            return 0;
+        int first = x, second = y, third = z;
+        if(!tour.between(x, y, z)){
+            second = z;
+            third = y;
+        }
+        if(tour.next(first) == second || tour.next(second) == third || tour.next(third) == first)
+            return 0;
+        return reverseSegmentIfBetter(first, second, third);
+    }
+
+    /**
+     * Checks all possible combinations of 3-opt swap for three edges in tour order.
+     * The reconnections are performed as 2-opt moves on the vertices, so they stay valid
+     * when a move reverses the other side of the tour
+     * @param a Vertex starting the first edge
+     * @param c Vertex starting the second edge
+     * @param e Vertex starting the third edge
      * @return the cost after optimization
      */
-    private double reverseSegmentIfBetter(List<Vertex> tour, Triple triple) {
-        Vertex a = tour.get(triple.a), b = tour.get(triple.a+1), c = tour.get(triple.b), d = tour.get(triple.b+1), e = tour.get(triple.c), f = tour.get(triple.c+1);
-        double d0 = GraphUtil.getDistanceBetweenVertices(a,b) + GraphUtil.getDistanceBetweenVertices(c,d) + GraphUtil.getDistanceBetweenVertices(e,f);
-        double d1 = GraphUtil.getDistanceBetweenVertices(a,c) + GraphUtil.getDistanceBetweenVertices(b,d) + GraphUtil.getDistanceBetweenVertices(e,f);
-        double d2 = GraphUtil.getDistanceBetweenVertices(a,b) + GraphUtil.getDistanceBetweenVertices(c,e) + GraphUtil.getDistanceBetweenVertices(d,f);
-        double d3 = GraphUtil.getDistanceBetweenVertices(a,d) + GraphUtil.getDistanceBetweenVertices(e,b) + GraphUtil.getDistanceBetweenVertices(c,f);
-        double d4 = GraphUtil.getDistanceBetweenVertices(f,b) + GraphUtil.getDistanceBetweenVertices(c,d) + GraphUtil.getDistanceBetweenVertices(e,a);
+    private double reverseSegmentIfBetter(int a, int c, int e) {
+        int b = tour.next(a), d = tour.next(c), f = tour.next(e);
+        double d0 = tour.distance(a,b) + tour.distance(c,d) + tour.distance(e,f);
+        double d1 = tour.distance(a,c) + tour.distance(b,d) + tour.distance(e,f);
+        double d2 = tour.distance(a,b) + tour.distance(c,e) + tour.distance(d,f);
+        double d3 = tour.distance(a,d) + tour.distance(e,b) + tour.distance(c,f);
+        double d4 = tour.distance(f,b) + tour.distance(c,d) + tour.distance(e,a);
 
         if(d0 > d1){
-            reverseTourBetweenIndices(tour, triple.a, triple.b);
+            tour.make2OptMove(a, b, c, d);
             return -d0 + d1;
         }
         else if(d0 > d2){
-            reverseTourBetweenIndices(tour, triple.b, triple.c);
+            tour.make2OptMove(c, d, e, f);
             return -d0 + d2;
         }
         else if(d0 > d4){
-            reverseTourBetweenIndices(tour, triple.a, triple.c);
+            tour.make2OptMove(a, b, e, f);
             return  -d0 + d4;
         }
         else if(d0 > d3){
-            List<Vertex> temp = new ArrayList<>();
-            for (int i = triple.b+1; i <= triple.c; i++) {
-                temp.add(tour.get(i));
-            }
-            for (int i = triple.a+1; i <= triple.b; i++) {
-                temp.add(tour.get(i));
-            }
-            int j = 0;
-            for (int i = triple.a+1; i <= triple.c; i++) {
-                tour.set(i, temp.get(j));
-                j++;
-            }
+            or3opt(a, b, c, d, e, f);
             return -d0 + d3;
         }
         return 0;
     }
 
     /**
-     * Generates all possible valid triples for a size
-     * @param n Size for which triples have to be generated
-     * @return list of triples
+     * Pure segment move reconnecting a b..c d..e f into a d..e b..c f.
+     * Both segments keep their direction, it is performed as three 2-opt moves on the vertices
      */
-    private List<Triple> generateAllSegments(int n){
-        List<Triple> eligibleSegments = new ArrayList<>();
-        for (int i = 0; i < n; i++) {
-            for (int j = i+2; j < n; j++) {
-                for (int k = j+2; k < n; k++) {
-                    eligibleSegments.add(new Triple(i,j,k));
-                }
-            }
-        }
-        return eligibleSegments;
-    }
-
-
-    /**
-     * Helper function to perform the 3-opt swap
-     * @param vertices The current list of vertices
-     * @param i Start index (exclusive)
-     * @param j End index (inclusive)
-     */
-    private void reverseTourBetweenIndices(List<Vertex> vertices, int i, int j){
-        List<Vertex> temp = new ArrayList<>();
-        for (int k = j; k > i; k--) {
-            temp.add(vertices.get(k));
-        }
-        int c = 0;
-        for (int k = i+1; k <= j; k++) {
-            vertices.set(k, temp.get(c));
-            c++;
-        }
-    }
-
-    private class Triple{
-        public int a;
-        public int b;
-        public int c;
-
-        public Triple(int a, int b, int c) {
-            this.a = a;
-            this.b = b;
-            this.c = c;
-        }
+    private void or3opt(int a, int b, int c, int d, int e, int f) {
+        tour.make2OptMove(a, b, c, d);
+        tour.make2OptMove(a, c, e, f);
+        tour.make2OptMove(a, e, d, b);
     }
 }
@@ -1,71 +1,122 @@
 package org.info6205.tsp.optimizations;
 
+import org.info6205.tsp.core.DistanceMatrixGraph;
+import org.info6205.tsp.core.Tour;
 import org.info6205.tsp.core.Vertex;
-import org.info6205.tsp.util.GraphUtil;
+import org.info6205.tsp.spatial.CandidateList;
 
-import java.sql.SQLOutput;
-import java.util.ArrayList;
 import java.util.List;
 
 public class TwoOptSwapOptimization {
 
     /**
-     * Tour for which optimization has to be done
+     * Tour for which optimization has to be done, optimized in place
      */
-    private List<Vertex> tour;
+    private Tour tour;
 
     /**
-     * Current cost of travelling the best tour
+     * Size of the tour
      */
-    private double currentCost;
+    private int n;
 
     /**
-     * Size of the tour excluding the source vertex in the end
+     * Optional candidate list restricting the moves to new edges between near neighbours
      */
-    private int n;
+    private CandidateList candidateList;
+
+    /**
+     * Vertices still to be examined by the neighbour driven optimization
+     */
+    private VertexQueue queue;
 
     /**
      * Parameterized constructor for TwoOptSwapOptimization
      * @param tour Initial tour for which optimization has to be found
      */
     public TwoOptSwapOptimization(List<Vertex> tour) {
+        this(Tour.create(tour));
+    }
+
+    /**
+     * Parameterized constructor for TwoOptSwapOptimization reading weights from a distance matrix
+     * @param tour Initial tour for which optimization has to be found
+     * @param graph Distance matrix graph containing all the vertices of the tour
+     */
+    public TwoOptSwapOptimization(List<Vertex> tour, DistanceMatrixGraph graph) {
+        this(Tour.create(tour, graph));
+    }
+
+    /**
+     * Parameterized constructor for TwoOptSwapOptimization only trying moves between near neighbours
+     * @param tour Initial tour for which optimization has to be found
+     * @param candidateList Nearest neighbours of all the vertices of the tour
+     */
+    public TwoOptSwapOptimization(List<Vertex> tour, CandidateList candidateList) {
+        this(Tour.create(tour, candidateList.getGraph()), candidateList);
+    }
+
+    /**
+     * Parameterized constructor for TwoOptSwapOptimization
+     * @param tour Initial tour which is optimized in place
+     */
+    public TwoOptSwapOptimization(Tour tour) {
         this.tour = tour;
-        this.currentCost = GraphUtil.getTotalCostOfTour(tour);
-        this.n = tour.size() - 1;
+        this.n = tour.size();
     }
 
+    /**
+     * Parameterized constructor for TwoOptSwapOptimization only trying moves between near neighbours
+     * @param tour Initial tour which is optimized in place
+     * @param candidateList Nearest neighbours of all the vertices of the tour, built on the graph of the tour
+     */
+    public TwoOptSwapOptimization(Tour tour, CandidateList candidateList) {
+        this(tour);
+        if (tour.getGraph() != candidateList.getGraph())
+            throw new IllegalArgumentException("Tour and candidate list have to share the same graph");
+        this.candidateList = candidateList;
+    }
 
     /**
      * Runs optimization on the current tour
      * @return Optimized tour containing list of vertices
      */
     public List<Vertex> getOptimumTour(){
+        return optimizeTour().toList();
+    }
 
+    /**
+     * Runs optimization on the current tour in place
+     * @return the optimized tour
+     */
+    public Tour optimizeTour(){
         optimize();
-        return new ArrayList<>(tour);
+        return tour;
     }
 
     /**
      * Function to perform the optimization.
-     * Iterates over the list of vertices excluding the last and first vertex as source and destination should be same
+     * Iterates over all pairs of tour edges, every edge being identified by the vertex it starts from
      * Performs two opt swap if the overall cost decreases
      */
     private void optimize(){
+        if(candidateList != null){
+            optimizeWithCandidateList();
+            return;
+        }
 
         boolean improvementFound = true;
         while(improvementFound){
             improvementFound = false;
-            for (int i = 0; i < n-2; i++) {
-                for (int j = i+2; j < n; j++) {
-                    Vertex v1 = tour.get(i);
-                    Vertex v2 = tour.get(i+1);
-                    Vertex v3 = tour.get(j);
-                    Vertex v4 = tour.get(j+1);
-                    double costDelta = - GraphUtil.getDistanceBetweenVertices(v1,v2) - GraphUtil.getDistanceBetweenVertices(v3,v4)
-                            + GraphUtil.getDistanceBetweenVertices(v1,v3) + GraphUtil.getDistanceBetweenVertices(v2,v4);
+            for (int v1 = 0; v1 < n; v1++) {
+                for (int v3 = v1+1; v3 < n; v3++) {
+                    int v2 = tour.next(v1);
+                    int v4 = tour.next(v3);
+                    if(v2 == v3 || v4 == v1)
+                        continue;
+                    double costDelta = - tour.distance(v1,v2) - tour.distance(v3,v4)
+                            + tour.distance(v1,v3) + tour.distance(v2,v4);
                     if(costDelta < -1){
-                        doTwoOptSwap(tour,i,j);
-                        currentCost += costDelta;
+                        tour.make2OptMove(v1, v2, v3, v4);
                         improvementFound = true;
                     }
                 }
@@ -74,20 +125,75 @@ public class TwoOptSwapOptimization {
     }
 
     /**
-     * Reverses the tour from i+1 to j (both inclusive)
-     * @param vertices Tour on which swap has to be performed
-     * @param i Start index minus 1
-     * @param j End index
+     * Neighbour driven variant of the optimization.
+     * For every vertex only the moves adding an edge to one of its candidates are tried, and the candidates
+     * are abandoned as soon as the new edge is not shorter than the tour edge it replaces.
+     * Vertices are taken from a queue of dirty vertices: a vertex without an improving move gets its
+     * don't-look bit set and is only queued again once a move changes one of its tour edges,
+     * so the stable parts of the tour are not examined again. Once the queue runs empty every vertex is
+     * checked one more time, as a move can also help a vertex whose own tour edges did not change
      */
-    private void doTwoOptSwap(List<Vertex> vertices, int i, int j){
-        List<Vertex> temp = new ArrayList<>();
-        for (int k = j; k > i; k--) {
-            temp.add(vertices.get(k));
+    private void optimizeWithCandidateList(){
+        queue = new VertexQueue(n);
+        boolean improvementFound = true;
+        while(improvementFound){
+            improvementFound = false;
+            queue.pushAll();
+            while(!queue.isEmpty()){
+                if(improveWithCandidates(queue.pop()))
+                    improvementFound = true;
+            }
         }
-        int c = 0;
-        for (int k = i+1; k <= j; k++) {
-            vertices.set(k, temp.get(c));
-            c++;
+    }
+
+    /**
+     * Tries the 2-opt moves adding an edge between a vertex and one of its candidates.
+     * The endpoints of the removed edges are queued again after an improving move
+     * @param a Index of the vertex
+     * @return true if an improving move was performed
+     */
+    private boolean improveWithCandidates(int a){
+        int succA = tour.next(a);
+        int predA = tour.prev(a);
+        double succCost = tour.distance(a, succA);
+        double predCost = tour.distance(a, predA);
+        for (int c: candidateList.getNeighbours(a)) {
+            double newCost = tour.distance(a, c);
+            if(newCost >= succCost && newCost >= predCost)
+                break;
+
+            //Replace (a, succA) and (c, succC) with (a, c) and (succA, succC)
+            int succC = tour.next(c);
+            if(newCost < succCost && c != succA && succC != a){
+                double costDelta = newCost + tour.distance(succA, succC) - succCost - tour.distance(c, succC);
+                if(costDelta < -1){
+                    tour.make2OptMove(a, succA, c, succC);
+                    pushEndpoints(a, succA, c, succC);
+                    return true;
+                }
+            }
+
+            //Replace (predA, a) and (predC, c) with (a, c) and (predA, predC)
+            int predC = tour.prev(c);
+            if(newCost < predCost && c != predA && predC != a){
+                double costDelta = newCost + tour.distance(predA, predC) - predCost - tour.distance(c, predC);
+                if(costDelta < -1){
+                    tour.make2OptMove(a, predA, c, predC);
+                    pushEndpoints(a, predA, c, predC);
+                    return true;
+                }
+            }
         }
+        return false;
+    }
+
+    /**
+     * Queues the endpoints of the edges changed by a move
+     */
+    private void pushEndpoints(int t1, int t2, int t3, int t4){
+        queue.push(t1);
+        queue.push(t2);
+        queue.push(t3);
+        queue.push(t4);
     }
 }
@@ -0,0 +1,78 @@
+package org.info6205.tsp.optimizations;
+
+/**
+ * Circular queue of vertex indices holding every vertex at most once, used for don't-look bits:
+ * a vertex outside the queue has its don't-look bit set and is skipped until a move touches it again
+ */
+class VertexQueue {
+
+    /**
+     * Queued vertices
+     */
+    private final int[] queue;
+
+    /**
+     * Whether a vertex is in the queue
+     */
+    private final boolean[] queued;
+
+    /**
+     * Position of the first vertex in the queue
+     */
+    private int head;
+
+    /**
+     * Number of vertices in the queue
+     */
+    private int size;
+
+    /**
+     * Parameterized constructor creating an empty queue
+     * @param n Number of vertices
+     */
+    VertexQueue(int n) {
+        queue = new int[n];
+        queued = new boolean[n];
+    }
+
+    /**
+     * Adds every vertex to the queue
+     */
+    void pushAll() {
+        for (int vertex = 0; vertex < queue.length; vertex++)
+            push(vertex);
+    }
+
+    /**
+     * Adds a vertex to the end of the queue and clears its don't-look bit
+     * @param vertex Index of the vertex
+     */
+    void push(int vertex) {
+        if (queued[vertex])
+            return;
+        queued[vertex] = true;
+        int tail = head + size;
+        queue[tail >= queue.length ? tail - queue.length : tail] = vertex;
+        size++;
+    }
+
+    /**
+     * Removes the first vertex from the queue, setting its don't-look bit
+     * @return index of the vertex
+     */
+    int pop() {
+        int vertex = queue[head];
+        queued[vertex] = false;
+        head = head + 1 == queue.length ? 0 : head + 1;
+        size--;
+        return vertex;
+    }
+
+    /**
+     * Checks if there is no vertex left
+     * @return true if the queue is empty
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+}
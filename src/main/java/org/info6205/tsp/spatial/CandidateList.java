@@ -0,0 +1,120 @@
+package org.info6205.tsp.spatial;
+
+import org.info6205.tsp.core.DistanceMatrixGraph;
+import org.info6205.tsp.core.ImplicitCompleteGraph;
+import org.info6205.tsp.core.IndexedGraph;
+import org.info6205.tsp.core.Vertex;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The k nearest neighbours of every vertex, stored as one primitive row per vertex index
+ * and sorted from the closest to the farthest neighbour.
+ * Local search only tries moves whose new edges connect a vertex to one of its candidates
+ */
+public class CandidateList {
+
+    /**
+     * Number of neighbours kept per vertex by default
+     */
+    public static final int DEFAULT_K = 10;
+
+    /**
+     * Graph providing the vertex index and the distances the neighbours are based on
+     */
+    private final DistanceMatrixGraph graph;
+
+    /**
+     * Nearest neighbours of every vertex by index, closest first
+     */
+    private final int[][] neighbours;
+
+    /**
+     * Parameterized constructor building the candidate list for a list of vertices,
+     * vertices are indexed by their position in the list
+     * @param vertices Vertices for which neighbours are needed
+     * @param k Number of neighbours per vertex
+     */
+    public CandidateList(List<Vertex> vertices, int k) {
+        this(new ImplicitCompleteGraph(vertices), k);
+    }
+
+    /**
+     * Parameterized constructor building the candidate list using the vertex index of a graph
+     * @param graph Graph whose vertices need neighbours
+     * @param k Number of neighbours per vertex
+     */
+    public CandidateList(IndexedGraph graph, int k) {
+        this(graph instanceof DistanceMatrixGraph ? (DistanceMatrixGraph) graph : new ImplicitCompleteGraph(verticesInIndexOrder(graph)), k);
+    }
+
+    /**
+     * Parameterized constructor building the candidate list using the vertex index of a distance matrix graph
+     * @param graph Graph whose vertices need neighbours
+     * @param k Number of neighbours per vertex
+     */
+    public CandidateList(DistanceMatrixGraph graph, int k) {
+        this.graph = graph;
+        KdTree kdTree = new KdTree(verticesInIndexOrder(graph));
+        neighbours = new int[graph.getVertexCount()][];
+        for (int i = 0; i < neighbours.length; i++)
+            neighbours[i] = kdTree.nearest(i, k);
+    }
+
+    /**
+     * Getter for the neighbours of a vertex
+     * @param index Index of the vertex
+     * @return indices of the nearest neighbours, closest first. The array must not be modified
+     */
+    public int[] getNeighbours(int index) {
+        return neighbours[index];
+    }
+
+    /**
+     * Getter for the index of a vertex
+     * @param vertex Vertex for which index is needed
+     * @return index of the vertex, -1 if vertex is not present
+     */
+    public int getIndexOf(Vertex vertex) {
+        return graph.getIndexOf(vertex);
+    }
+
+    /**
+     * Getter for vertex by index
+     * @param index Index of the vertex
+     * @return vertex at the index
+     */
+    public Vertex getVertex(int index) {
+        return graph.getVertex(index);
+    }
+
+    /**
+     * Getter for the graph sharing the index of the candidate list,
+     * tours optimized with the candidate list have to use the same graph
+     * @return graph of the candidate list
+     */
+    public DistanceMatrixGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Number of vertices in the candidate list
+     * @return number of vertices
+     */
+    public int size() {
+        return neighbours.length;
+    }
+
+    /**
+     * Lists the vertices of a graph in index order
+     * @param graph Graph whose vertices are needed
+     * @return list of vertices where position equals index
+     */
+    private static List<Vertex> verticesInIndexOrder(IndexedGraph graph) {
+        List<Vertex> vertices = new ArrayList<>(graph.getVertexCount());
+        for (int i = 0; i < graph.getVertexCount(); i++)
+            vertices.add(graph.getVertex(i));
+        return vertices;
+    }
+}
@@ -0,0 +1,548 @@
+package org.info6205.tsp.spatial;
+
+import org.info6205.tsp.core.FrozenGraph;
+import org.info6205.tsp.core.Vertex;
+import org.info6205.tsp.util.GraphUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Delaunay triangulation of the vertices, built with the sweep hull algorithm in O(n log n).
+ * Latitude and longitude are projected onto a plane with the equirectangular projection around the mean latitude,
+ * which keeps the ratio of distances within a city sized area. The points are added in the order of their distance
+ * to the centre of a seed triangle, every new point is connected to the part of the convex hull it sees and
+ * the new triangles are flipped until they are locally Delaunay.
+ * The minimum spanning tree of the points is a subgraph of the triangulation, so the graph of its at most 3n edges
+ * can replace the complete graph when building the minimum spanning tree.
+ * Vertices are identified by their position in the list given to the constructor
+ */
+public class DelaunayTriangulation {
+
+    /**
+     * Points closer than this in both projected coordinates are treated as duplicates
+     */
+    private static final double EPSILON = Math.ulp(1.0);
+
+    /**
+     * Vertices of the triangulation by position
+     */
+    private final List<Vertex> vertices;
+
+    /**
+     * Projected x and y coordinate of every vertex by position
+     */
+    private final double[] coordinates;
+
+    /**
+     * Vertex positions of the corners of every triangle, three per triangle in the same winding
+     */
+    private int[] triangles;
+
+    /**
+     * Opposite half edge of every half edge of the triangles, -1 on the convex hull
+     */
+    private int[] halfEdges;
+
+    /**
+     * Number of used entries in the triangle arrays
+     */
+    private int trianglesLength;
+
+    /**
+     * Vertex which is connected to every vertex the triangulation skipped as a duplicate, -1 for other vertices
+     */
+    private final int[] duplicateOf;
+
+    /**
+     * Next and previous vertex on the convex hull, a removed hull vertex points to itself
+     */
+    private int[] hullNext, hullPrev;
+
+    /**
+     * Triangle edge on the convex hull starting at every hull vertex
+     */
+    private int[] hullTriangle;
+
+    /**
+     * Hull vertices hashed by their angle around the centre, used to find a visible hull edge quickly
+     */
+    private int[] hullHash;
+
+    /**
+     * First vertex of the convex hull
+     */
+    private int hullStart;
+
+    /**
+     * Centre of the seed triangle from which the angles of the hull vertices are measured
+     */
+    private double centreX, centreY;
+
+    /**
+     * Edges still to be checked while flipping triangles
+     */
+    private int[] edgeStack = new int[512];
+
+    /**
+     * Parameterized constructor triangulating the vertices
+     * @param vertices Vertices to be triangulated
+     */
+    public DelaunayTriangulation(List<Vertex> vertices) {
+        this.vertices = new ArrayList<>(vertices);
+        int n = vertices.size();
+        coordinates = new double[2 * n];
+        double meanLatitude = 0;
+        for (Vertex vertex : vertices)
+            meanLatitude += vertex.getXPos() / n;
+        double scale = Math.cos(Math.toRadians(meanLatitude));
+        for (int i = 0; i < n; i++) {
+            coordinates[2 * i] = vertices.get(i).getYPos() * scale;
+            coordinates[2 * i + 1] = vertices.get(i).getXPos();
+        }
+        duplicateOf = new int[n];
+        Arrays.fill(duplicateOf, -1);
+        triangulate();
+    }
+
+    /**
+     * Getter for the triangles
+     * @return vertex positions of the corners, three per triangle
+     */
+    public int[] getTriangles() {
+        return Arrays.copyOf(triangles, trianglesLength);
+    }
+
+    /**
+     * Graph of the triangle edges weighted with the haversine distance, stored in both directions.
+     * Duplicate points and points on a line, which have no triangle, are connected to one of their
+     * neighbours so that the graph stays connected
+     * @return read only graph using the vertex positions as index
+     */
+    public FrozenGraph getGraph() {
+        int n = vertices.size();
+        int[] degrees = new int[n];
+        forEachEdge((a, b) -> {
+            degrees[a]++;
+            degrees[b]++;
+        });
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < n; i++)
+            offsets[i + 1] = offsets[i] + degrees[i];
+        int[] targets = new int[offsets[n]];
+        double[] weights = new double[offsets[n]];
+        int[] fill = Arrays.copyOf(offsets, n);
+        forEachEdge((a, b) -> {
+            double weight = GraphUtil.getDistanceBetweenVertices(vertices.get(a), vertices.get(b));
+            targets[fill[a]] = b;
+            weights[fill[a]++] = weight;
+            targets[fill[b]] = a;
+            weights[fill[b]++] = weight;
+        });
+        return new FrozenGraph(vertices, offsets, targets, weights);
+    }
+
+    /**
+     * Passes every undirected edge once to a consumer
+     * @param consumer Receives the positions of the two vertices of every edge
+     */
+    private void forEachEdge(EdgeConsumer consumer) {
+        for (int e = 0; e < trianglesLength; e++) {
+            //Inner edges are shared by two triangles, only the half edge with the larger index is taken
+            if (e > halfEdges[e])
+                consumer.accept(triangles[e], triangles[e % 3 == 2 ? e - 2 : e + 1]);
+        }
+        for (int i = 0; i < duplicateOf.length; i++) {
+            if (duplicateOf[i] >= 0)
+                consumer.accept(i, duplicateOf[i]);
+        }
+    }
+
+    /**
+     * Receives the two vertices of an edge
+     */
+    private interface EdgeConsumer {
+        void accept(int a, int b);
+    }
+
+    /**
+     * Builds the triangulation with the sweep hull algorithm
+     */
+    private void triangulate() {
+        int n = vertices.size();
+        int maxTriangles = Math.max(2 * n - 5, 0);
+        triangles = new int[maxTriangles * 3];
+        halfEdges = new int[maxTriangles * 3];
+        if (n < 2)
+            return;
+
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, x(i));
+            minY = Math.min(minY, y(i));
+            maxX = Math.max(maxX, x(i));
+            maxY = Math.max(maxY, y(i));
+        }
+        double boxX = (minX + maxX) / 2, boxY = (minY + maxY) / 2;
+
+        //Seed triangle: the point closest to the centre, its closest point and the point making the smallest circle
+        int i0 = -1, i1 = -1, i2 = -1;
+        double minDistance = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            double d = squaredDistance(boxX, boxY, x(i), y(i));
+            if (d < minDistance) {
+                i0 = i;
+                minDistance = d;
+            }
+        }
+        minDistance = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            if (i == i0)
+                continue;
+            double d = squaredDistance(x(i0), y(i0), x(i), y(i));
+            if (d < minDistance && d > 0) {
+                i1 = i;
+                minDistance = d;
+            }
+        }
+        double minRadius = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < n && i1 >= 0; i++) {
+            if (i == i0 || i == i1)
+                continue;
+            double r = circumradius(x(i0), y(i0), x(i1), y(i1), x(i), y(i));
+            if (r < minRadius) {
+                i2 = i;
+                minRadius = r;
+            }
+        }
+        double[] distances = new double[n];
+        int[] ids = new int[n];
+        if (minRadius == Double.POSITIVE_INFINITY) {
+            //All points are on a line or equal, they are chained in their order along the line
+            double dx = i1 >= 0 ? x(i1) - x(i0) : 1, dy = i1 >= 0 ? y(i1) - y(i0) : 0;
+            for (int i = 0; i < n; i++) {
+                ids[i] = i;
+                distances[i] = (x(i) - x(i0)) * dx + (y(i) - y(i0)) * dy;
+            }
+            sort(ids, distances, 0, n - 1);
+            for (int k = 1; k < n; k++)
+                duplicateOf[ids[k]] = ids[k - 1];
+            return;
+        }
+        if (orient(x(i0), y(i0), x(i1), y(i1), x(i2), y(i2)) < 0) {
+            int swap = i1;
+            i1 = i2;
+            i2 = swap;
+        }
+        circumcentre(x(i0), y(i0), x(i1), y(i1), x(i2), y(i2));
+
+        for (int i = 0; i < n; i++) {
+            ids[i] = i;
+            distances[i] = squaredDistance(x(i), y(i), centreX, centreY);
+        }
+        sort(ids, distances, 0, n - 1);
+
+        int hashSize = (int) Math.ceil(Math.sqrt(n));
+        hullNext = new int[n];
+        hullPrev = new int[n];
+        hullTriangle = new int[n];
+        hullHash = new int[hashSize];
+        Arrays.fill(hullHash, -1);
+        hullStart = i0;
+        hullNext[i0] = hullPrev[i2] = i1;
+        hullNext[i1] = hullPrev[i0] = i2;
+        hullNext[i2] = hullPrev[i1] = i0;
+        hullTriangle[i0] = 0;
+        hullTriangle[i1] = 1;
+        hullTriangle[i2] = 2;
+        hullHash[hashKey(x(i0), y(i0))] = i0;
+        hullHash[hashKey(x(i1), y(i1))] = i1;
+        hullHash[hashKey(x(i2), y(i2))] = i2;
+        addTriangle(i0, i1, i2, -1, -1, -1);
+
+        int previous = -1;
+        for (int k = 0; k < n; k++) {
+            int i = ids[k];
+            double x = x(i), y = y(i);
+            if (previous >= 0 && Math.abs(x - x(previous)) <= EPSILON && Math.abs(y - y(previous)) <= EPSILON) {
+                duplicateOf[i] = previous;
+                continue;
+            }
+            previous = i;
+            if (i == i0 || i == i1 || i == i2)
+                continue;
+
+            //Find a hull edge visible from the point, starting near the hull vertex with a similar angle
+            int start = 0;
+            int key = hashKey(x, y);
+            for (int j = 0; j < hashSize; j++) {
+                start = hullHash[(key + j) % hashSize];
+                if (start != -1 && start != hullNext[start])
+                    break;
+            }
+            start = hullPrev[start];
+            int e = start, q;
+            while (!(orient(x, y, x(e), y(e), x(q = hullNext[e]), y(q)) < 0)) {
+                e = q;
+                if (e == start) {
+                    e = -1;
+                    break;
+                }
+            }
+            if (e == -1) {
+                //The point is so close to the hull that no edge is visible
+                duplicateOf[i] = start;
+                continue;
+            }
+
+            //Connect the point to the first visible edge and flip the new triangle if needed
+            int t = addTriangle(e, i, hullNext[e], -1, -1, hullTriangle[e]);
+            hullTriangle[i] = legalize(t + 2);
+            hullTriangle[e] = t;
+
+            //Connect the point to the following visible hull edges
+            int next = hullNext[e];
+            while (orient(x, y, x(next), y(next), x(q = hullNext[next]), y(q)) < 0) {
+                t = addTriangle(next, i, q, hullTriangle[i], -1, hullTriangle[next]);
+                hullTriangle[i] = legalize(t + 2);
+                hullNext[next] = next;
+                next = q;
+            }
+
+            //Connect the point to the preceding visible hull edges
+            if (e == start) {
+                while (orient(x, y, x(q = hullPrev[e]), y(q), x(e), y(e)) < 0) {
+                    t = addTriangle(q, i, e, -1, hullTriangle[e], hullTriangle[q]);
+                    legalize(t + 2);
+                    hullTriangle[q] = t;
+                    hullNext[e] = e;
+                    e = q;
+                }
+            }
+
+            hullStart = hullPrev[i] = e;
+            hullNext[e] = hullPrev[next] = i;
+            hullNext[i] = next;
+            hullHash[hashKey(x, y)] = i;
+            hullHash[hashKey(x(e), y(e))] = e;
+        }
+    }
+
+    /**
+     * Flips the triangles around a half edge until all edges reached are locally Delaunay
+     * @param a Half edge of a new triangle
+     * @return half edge of the triangle now on the side of the new point
+     */
+    private int legalize(int a) {
+        int i = 0;
+        int ar;
+        while (true) {
+            int b = halfEdges[a];
+            int a0 = a - a % 3;
+            ar = a0 + (a + 2) % 3;
+
+            if (b == -1) {
+                if (i == 0)
+                    break;
+                a = edgeStack[--i];
+                continue;
+            }
+
+            int b0 = b - b % 3;
+            int al = a0 + (a + 1) % 3;
+            int bl = b0 + (b + 2) % 3;
+            int p0 = triangles[ar];
+            int pr = triangles[a];
+            int pl = triangles[al];
+            int p1 = triangles[bl];
+
+            if (inCircle(x(p0), y(p0), x(pr), y(pr), x(pl), y(pl), x(p1), y(p1))) {
+                triangles[a] = p1;
+                triangles[b] = p0;
+
+                int hbl = halfEdges[bl];
+                //The flipped edge was on the hull, so the hull has to point to the new half edge
+                if (hbl == -1) {
+                    int e = hullStart;
+                    do {
+                        if (hullTriangle[e] == bl) {
+                            hullTriangle[e] = a;
+                            break;
+                        }
+                        e = hullPrev[e];
+                    } while (e != hullStart);
+                }
+                link(a, hbl);
+                link(b, halfEdges[ar]);
+                link(ar, bl);
+
+                int br = b0 + (b + 1) % 3;
+                if (i == edgeStack.length)
+                    edgeStack = Arrays.copyOf(edgeStack, 2 * i);
+                edgeStack[i++] = br;
+            }
+            else {
+                if (i == 0)
+                    break;
+                a = edgeStack[--i];
+            }
+        }
+        return ar;
+    }
+
+    /**
+     * Adds a triangle and links its half edges to the opposite half edges
+     * @return index of the first half edge of the triangle
+     */
+    private int addTriangle(int i0, int i1, int i2, int a, int b, int c) {
+        int t = trianglesLength;
+        triangles[t] = i0;
+        triangles[t + 1] = i1;
+        triangles[t + 2] = i2;
+        link(t, a);
+        link(t + 1, b);
+        link(t + 2, c);
+        trianglesLength += 3;
+        return t;
+    }
+
+    private void link(int a, int b) {
+        halfEdges[a] = b;
+        if (b != -1)
+            halfEdges[b] = a;
+    }
+
+    /**
+     * Bucket of a point in the hull hash, by its angle around the centre
+     */
+    private int hashKey(double x, double y) {
+        double dx = x - centreX, dy = y - centreY;
+        //Monotonic in the angle but cheaper than atan2
+        double p = dx / (Math.abs(dx) + Math.abs(dy));
+        double angle = (dy > 0 ? 3 - p : 1 + p) / 4;
+        return (int) Math.floor(angle * hullHash.length) % hullHash.length;
+    }
+
+    /**
+     * Orientation of three points, negative if they are in the winding order of the triangles
+     */
+    private static double orient(double ax, double ay, double bx, double by, double cx, double cy) {
+        return (ay - cy) * (bx - cx) - (ax - cx) * (by - cy);
+    }
+
+    /**
+     * Checks if a point lies inside the circle through the corners of a triangle
+     */
+    private static boolean inCircle(double ax, double ay, double bx, double by, double cx, double cy, double px, double py) {
+        double dx = ax - px, dy = ay - py;
+        double ex = bx - px, ey = by - py;
+        double fx = cx - px, fy = cy - py;
+        double ap = dx * dx + dy * dy;
+        double bp = ex * ex + ey * ey;
+        double cp = fx * fx + fy * fy;
+        return dx * (ey * cp - bp * fy) - dy * (ex * cp - bp * fx) + ap * (ex * fy - ey * fx) < 0;
+    }
+
+    /**
+     * Squared radius of the circle through three points, infinite if they are on a line
+     */
+    private static double circumradius(double ax, double ay, double bx, double by, double cx, double cy) {
+        double dx = bx - ax, dy = by - ay;
+        double ex = cx - ax, ey = cy - ay;
+        double bl = dx * dx + dy * dy;
+        double cl = ex * ex + ey * ey;
+        double d = 0.5 / (dx * ey - dy * ex);
+        double x = (ey * bl - dy * cl) * d;
+        double y = (dx * cl - ex * bl) * d;
+        double r = x * x + y * y;
+        return Double.isNaN(r) ? Double.POSITIVE_INFINITY : r;
+    }
+
+    /**
+     * Sets the centre to the centre of the circle through three points
+     */
+    private void circumcentre(double ax, double ay, double bx, double by, double cx, double cy) {
+        double dx = bx - ax, dy = by - ay;
+        double ex = cx - ax, ey = cy - ay;
+        double bl = dx * dx + dy * dy;
+        double cl = ex * ex + ey * ey;
+        double d = 0.5 / (dx * ey - dy * ex);
+        centreX = ax + (ey * bl - dy * cl) * d;
+        centreY = ay + (dx * cl - ex * bl) * d;
+    }
+
+    /**
+     * Sorts vertex positions by a key with quicksort, short ranges are sorted by insertion
+     * @param ids Vertex positions to be sorted
+     * @param keys Key of every vertex position
+     * @param left First entry of the range
+     * @param right Last entry of the range
+     */
+    private static void sort(int[] ids, double[] keys, int left, int right) {
+        while (right - left > 20) {
+            int middle = (left + right) >>> 1;
+            swap(ids, middle, left + 1);
+            if (keys[ids[left]] > keys[ids[right]])
+                swap(ids, left, right);
+            if (keys[ids[left + 1]] > keys[ids[right]])
+                swap(ids, left + 1, right);
+            if (keys[ids[left]] > keys[ids[left + 1]])
+                swap(ids, left, left + 1);
+
+            //Median of three is at left+1 and partitions the range
+            int pivot = ids[left + 1];
+            double pivotKey = keys[pivot];
+            int i = left + 1, j = right;
+            while (true) {
+                do i++; while (keys[ids[i]] < pivotKey);
+                do j--; while (keys[ids[j]] > pivotKey);
+                if (j < i)
+                    break;
+                swap(ids, i, j);
+            }
+            ids[left + 1] = ids[j];
+            ids[j] = pivot;
+
+            //Recurse into the smaller part so the stack stays logarithmic
+            if (j - left < right - j) {
+                sort(ids, keys, left, j - 1);
+                left = i;
+            }
+            else {
+                sort(ids, keys, i, right);
+                right = j - 1;
+            }
+        }
+        for (int i = left + 1; i <= right; i++) {
+            int id = ids[i];
+            double key = keys[id];
+            int j = i - 1;
+            while (j >= left && keys[ids[j]] > key) {
+                ids[j + 1] = ids[j];
+                j--;
+            }
+            ids[j + 1] = id;
+        }
+    }
+
+    private static void swap(int[] ids, int i, int j) {
+        int id = ids[i];
+        ids[i] = ids[j];
+        ids[j] = id;
+    }
+
+    private static double squaredDistance(double ax, double ay, double bx, double by) {
+        double dx = ax - bx, dy = ay - by;
+        return dx * dx + dy * dy;
+    }
+
+    private double x(int i) {
+        return coordinates[2 * i];
+    }
+
+    private double y(int i) {
+        return coordinates[2 * i + 1];
+    }
+}
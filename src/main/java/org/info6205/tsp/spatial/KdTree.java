@@ -0,0 +1,369 @@
+package org.info6205.tsp.spatial;
+
+import org.apache.lucene.util.SloppyMath;
+import org.info6205.tsp.core.Vertex;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A k-d tree over the coordinates of a list of vertices answering nearest neighbour and radius queries.
+ * Latitude and longitude are projected onto the unit sphere, the straight line distance between two
+ * projected points grows with their great circle distance so the ordering agrees with the haversine formula.
+ * Vertices are identified by their position in the list given to the constructor.
+ * Construction is O(n log n) and a query visits O(log n + k) nodes on average
+ */
+public class KdTree {
+
+    /**
+     * Mean earth radius in meters as used by SloppyMath.haversinMeters
+     */
+    private static final double EARTH_RADIUS_METERS = 6_371_008.7714;
+
+    /**
+     * Coordinates of every vertex projected on the unit sphere, by dimension and vertex position
+     */
+    private final double[][] coordinates;
+
+    /**
+     * Latitude of every vertex by position
+     */
+    private final double[] latitudes;
+
+    /**
+     * Longitude of every vertex by position
+     */
+    private final double[] longitudes;
+
+    /**
+     * Implicit balanced tree, the median of every range [lo, hi) is stored at (lo + hi) / 2
+     */
+    private final int[] tree;
+
+    /**
+     * Dimension along which the node stored at the same position splits its range
+     */
+    private final byte[] splitDimension;
+
+    /**
+     * Parameterized constructor building the tree
+     * @param vertices Vertices to be indexed
+     */
+    public KdTree(List<Vertex> vertices) {
+        int n = vertices.size();
+        coordinates = new double[3][n];
+        latitudes = new double[n];
+        longitudes = new double[n];
+        tree = new int[n];
+        splitDimension = new byte[n];
+        for (int i = 0; i < n; i++) {
+            Vertex vertex = vertices.get(i);
+            latitudes[i] = vertex.getXPos();
+            longitudes[i] = vertex.getYPos();
+            double[] point = project(latitudes[i], longitudes[i]);
+            for (int d = 0; d < 3; d++)
+                coordinates[d][i] = point[d];
+            tree[i] = i;
+        }
+        build(0, n);
+    }
+
+    /**
+     * Number of indexed vertices
+     * @return number of vertices
+     */
+    public int size() {
+        return tree.length;
+    }
+
+    /**
+     * Finds the k nearest other vertices of an indexed vertex
+     * @param position Position of the vertex
+     * @param k Number of neighbours
+     * @return positions of at most k nearest vertices, closest first, not including the vertex itself
+     */
+    public int[] nearest(int position, int k) {
+        return nearest(new double[]{coordinates[0][position], coordinates[1][position], coordinates[2][position]}, k, position);
+    }
+
+    /**
+     * Finds the k nearest vertices of a location
+     * @param latitude Latitude of the location
+     * @param longitude Longitude of the location
+     * @param k Number of neighbours
+     * @return positions of at most k nearest vertices, closest first
+     */
+    public int[] nearest(double latitude, double longitude, int k) {
+        return nearest(project(latitude, longitude), k, -1);
+    }
+
+    /**
+     * Finds all vertices within a haversine distance of a location
+     * @param latitude Latitude of the location
+     * @param longitude Longitude of the location
+     * @param meters Radius in meters
+     * @return positions of all vertices within the radius, in no particular order
+     */
+    public int[] withinRadius(double latitude, double longitude, double meters) {
+        //Slightly larger chord so that rounding never drops a vertex the haversine check would keep
+        double angle = Math.min(Math.PI, (meters * (1 + 1e-6) + 1) / EARTH_RADIUS_METERS);
+        double chord = 2 * Math.sin(angle / 2);
+        RadiusSearch search = new RadiusSearch(project(latitude, longitude), chord * chord);
+        search.search(0, tree.length);
+
+        int count = 0;
+        int[] result = search.found;
+        for (int i = 0; i < search.count; i++) {
+            int candidate = result[i];
+            if (SloppyMath.haversinMeters(latitude, longitude, latitudes[candidate], longitudes[candidate]) <= meters)
+                result[count++] = candidate;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Finds all other vertices within a haversine distance of an indexed vertex
+     * @param position Position of the vertex
+     * @param meters Radius in meters
+     * @return positions of all other vertices within the radius, in no particular order
+     */
+    public int[] withinRadius(int position, double meters) {
+        int[] found = withinRadius(latitudes[position], longitudes[position], meters);
+        int count = 0;
+        for (int candidate : found) {
+            if (candidate != position)
+                found[count++] = candidate;
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    /**
+     * Runs a k nearest neighbour search
+     * @param query Projected query point
+     * @param k Number of neighbours
+     * @param excluded Position to be left out of the result, -1 for none
+     * @return positions of the nearest vertices, closest first
+     */
+    private int[] nearest(double[] query, int k, int excluded) {
+        k = Math.min(k, tree.length - (excluded >= 0 ? 1 : 0));
+        if (k <= 0)
+            return new int[0];
+        NearestSearch search = new NearestSearch(query, k, excluded);
+        search.search(0, tree.length);
+        return search.sortedResult();
+    }
+
+    /**
+     * Recursively builds the subtree of the range [lo, hi) of the tree array
+     * @param lo Start of the range (inclusive)
+     * @param hi End of the range (exclusive)
+     */
+    private void build(int lo, int hi) {
+        if (hi - lo <= 0)
+            return;
+        int mid = (lo + hi) >>> 1;
+        int dimension = widestDimension(lo, hi);
+        select(lo, hi - 1, mid, coordinates[dimension]);
+        splitDimension[mid] = (byte) dimension;
+        build(lo, mid);
+        build(mid + 1, hi);
+    }
+
+    /**
+     * Dimension in which the vertices of a range are spread the most
+     * @param lo Start of the range (inclusive)
+     * @param hi End of the range (exclusive)
+     * @return dimension with the largest spread
+     */
+    private int widestDimension(int lo, int hi) {
+        int widest = 0;
+        double widestSpread = -1;
+        for (int d = 0; d < 3; d++) {
+            double min = Double.MAX_VALUE, max = -Double.MAX_VALUE;
+            for (int i = lo; i < hi; i++) {
+                double value = coordinates[d][tree[i]];
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            if (max - min > widestSpread) {
+                widestSpread = max - min;
+                widest = d;
+            }
+        }
+        return widest;
+    }
+
+    /**
+     * Quickselect placing the vertex with the k-th smallest key at position k of the tree array,
+     * with smaller keys before it and larger keys after it
+     * @param lo Start of the range (inclusive)
+     * @param hi End of the range (inclusive)
+     * @param k Position to be selected
+     * @param keys Coordinate used as key
+     */
+    private void select(int lo, int hi, int k, double[] keys) {
+        while (hi > lo) {
+            double pivot = keys[tree[(lo + hi) >>> 1]];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (keys[tree[i]] < pivot) i++;
+                while (keys[tree[j]] > pivot) j--;
+                if (i <= j) {
+                    int temp = tree[i];
+                    tree[i] = tree[j];
+                    tree[j] = temp;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j)
+                hi = j;
+            else if (k >= i)
+                lo = i;
+            else
+                return;
+        }
+    }
+
+    /**
+     * Squared straight line distance between a projected point and an indexed vertex
+     * @param query Projected point
+     * @param position Position of the vertex
+     * @return squared distance
+     */
+    private double squaredDistance(double[] query, int position) {
+        double dx = query[0] - coordinates[0][position];
+        double dy = query[1] - coordinates[1][position];
+        double dz = query[2] - coordinates[2][position];
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * Projects latitude and longitude in degrees onto the unit sphere,
+     * the squared straight line distance of two projected points orders them like the haversine distance
+     * @param latitude Latitude in degrees
+     * @param longitude Longitude in degrees
+     * @return x, y and z coordinates
+     */
+    public static double[] project(double latitude, double longitude) {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        double cosLat = Math.cos(lat);
+        return new double[]{cosLat * Math.cos(lon), cosLat * Math.sin(lon), Math.sin(lat)};
+    }
+
+    /**
+     * State of a k nearest neighbour search, keeps the best candidates in a bounded max heap
+     */
+    private class NearestSearch {
+        private final double[] query;
+        private final int excluded;
+        private final int[] heap;
+        private final double[] heapDistance;
+        private int count;
+
+        NearestSearch(double[] query, int k, int excluded) {
+            this.query = query;
+            this.excluded = excluded;
+            this.heap = new int[k];
+            this.heapDistance = new double[k];
+        }
+
+        void search(int lo, int hi) {
+            if (hi - lo <= 0)
+                return;
+            int mid = (lo + hi) >>> 1;
+            int position = tree[mid];
+            if (position != excluded)
+                offer(position, squaredDistance(query, position));
+
+            int dimension = splitDimension[mid];
+            double difference = query[dimension] - coordinates[dimension][position];
+            if (difference < 0) {
+                search(lo, mid);
+                if (count < heap.length || difference * difference < heapDistance[0])
+                    search(mid + 1, hi);
+            } else {
+                search(mid + 1, hi);
+                if (count < heap.length || difference * difference < heapDistance[0])
+                    search(lo, mid);
+            }
+        }
+
+        void offer(int position, double distance) {
+            if (count < heap.length) {
+                int i = count++;
+                while (i > 0 && heapDistance[(i - 1) / 2] < distance) {
+                    heap[i] = heap[(i - 1) / 2];
+                    heapDistance[i] = heapDistance[(i - 1) / 2];
+                    i = (i - 1) / 2;
+                }
+                heap[i] = position;
+                heapDistance[i] = distance;
+            } else if (distance < heapDistance[0]) {
+                siftDown(position, distance, count);
+            }
+        }
+
+        void siftDown(int position, double distance, int size) {
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size)
+                    break;
+                if (child + 1 < size && heapDistance[child + 1] > heapDistance[child])
+                    child++;
+                if (heapDistance[child] <= distance)
+                    break;
+                heap[i] = heap[child];
+                heapDistance[i] = heapDistance[child];
+                i = child;
+            }
+            heap[i] = position;
+            heapDistance[i] = distance;
+        }
+
+        int[] sortedResult() {
+            int[] result = new int[count];
+            for (int size = count; size > 0; size--) {
+                result[size - 1] = heap[0];
+                siftDown(heap[size - 1], heapDistance[size - 1], size - 1);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * State of a radius search collecting every vertex within a squared chord distance
+     */
+    private class RadiusSearch {
+        private final double[] query;
+        private final double squaredRadius;
+        private int[] found = new int[16];
+        private int count;
+
+        RadiusSearch(double[] query, double squaredRadius) {
+            this.query = query;
+            this.squaredRadius = squaredRadius;
+        }
+
+        void search(int lo, int hi) {
+            if (hi - lo <= 0)
+                return;
+            int mid = (lo + hi) >>> 1;
+            int position = tree[mid];
+            if (squaredDistance(query, position) <= squaredRadius) {
+                if (count == found.length)
+                    found = Arrays.copyOf(found, count * 2);
+                found[count++] = position;
+            }
+
+            int dimension = splitDimension[mid];
+            double difference = query[dimension] - coordinates[dimension][position];
+            if (difference <= 0 || difference * difference <= squaredRadius)
+                search(lo, mid);
+            if (difference >= 0 || difference * difference <= squaredRadius)
+                search(mid + 1, hi);
+        }
+    }
+}
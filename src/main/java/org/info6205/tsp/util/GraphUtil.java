@@ -3,6 +3,7 @@ package org.info6205.tsp.util;
 import org.apache.lucene.util.SloppyMath;
 import org.info6205.tsp.core.Edge;
 import org.info6205.tsp.core.Graph;
+import org.info6205.tsp.core.IndexedGraph;
 import org.info6205.tsp.core.UndirectedGraph;
 import org.info6205.tsp.core.Vertex;
 
@@ -42,10 +43,31 @@ public class GraphUtil {
      * @return Final TSP tour after removing duplicates from original tour
      */
     public static List<Vertex> getTSPTour(List<Vertex> tour) {
-        Map<Vertex, Integer> visited = new HashMap<>();
+        Set<Vertex> visited = new HashSet<>();
         List<Vertex> result = new ArrayList<>();
         for (Vertex vertex: tour) {
-            if (visited.putIfAbsent(vertex, 1) == null) result.add(vertex);
+            if (visited.add(vertex)) result.add(vertex);
+        }
+
+        result.add(result.get(0));
+        return result;
+    }
+
+    /**
+     * Getting a TSP tour from an Euler tour using the vertex index of the graph for the visited flags
+     * @param tour Euler tour
+     * @param graph Graph containing all the vertices of the tour
+     * @return Final TSP tour after removing duplicates from original tour
+     */
+    public static List<Vertex> getTSPTour(List<Vertex> tour, IndexedGraph graph) {
+        boolean[] visited = new boolean[graph.getVertexCount()];
+        List<Vertex> result = new ArrayList<>(graph.getVertexCount() + 1);
+        for (Vertex vertex: tour) {
+            int index = graph.getIndexOf(vertex);
+            if (!visited[index]) {
+                visited[index] = true;
+                result.add(vertex);
+            }
         }
 
         result.add(result.get(0));
@@ -93,12 +115,7 @@ public class GraphUtil {
     public static Graph generateGraphFromEulerianCircuit(List<Vertex> vertices) throws Exception {
         Graph graph= new UndirectedGraph();
         for(Vertex v: vertices){
-            boolean isAlreadyAdded= false;
-            for(Vertex gv: graph.getAllVertices())
-                if(v.getId() == gv.getId())
-                    isAlreadyAdded = true;
-
-            if(!isAlreadyAdded)
+            if(!graph.getAllVertices().contains(v))
                 graph.addVertex(v);
         }
         for(int i=0; i< vertices.size(); i++){
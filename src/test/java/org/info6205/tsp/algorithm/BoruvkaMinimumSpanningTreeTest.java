@@ -0,0 +1,58 @@
+package org.info6205.tsp.algorithm;
+
+import org.info6205.tsp.core.Edge;
+import org.info6205.tsp.core.FrozenGraph;
+import org.info6205.tsp.core.Graph;
+import org.info6205.tsp.core.Vertex;
+import org.info6205.tsp.io.Preprocess;
+import org.info6205.tsp.spatial.DelaunayTriangulation;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class BoruvkaMinimumSpanningTreeTest {
+
+    @Test
+    public void testCostMatchesPrim() throws Exception {
+        Graph graph = new Preprocess().start("crimeSample.csv");
+
+        MinimumSpanningTree minimumSpanningTree = new MinimumSpanningTree(graph);
+        minimumSpanningTree.getMinimumSpanningTree();
+        BoruvkaMinimumSpanningTree boruvkaSpanningTree = new BoruvkaMinimumSpanningTree(graph, 2);
+        Graph mst = boruvkaSpanningTree.getMinimumSpanningTree();
+
+        Assertions.assertEquals(graph.getAllVertices().size() - 1, mst.getAllEdges().size() / 2);
+        Assertions.assertEquals(minimumSpanningTree.getMSTCost(), boruvkaSpanningTree.getMSTCost(), 1e-6);
+    }
+
+    @Test
+    public void testTreeDoesNotDependOnThreadCount() throws Exception {
+        Random random = new Random(5);
+        List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 20000; i++)
+            vertices.add(new Vertex(i, 42.3 + random.nextDouble() * 0.1, -71.1 + random.nextDouble() * 0.1));
+        FrozenGraph graph = new DelaunayTriangulation(vertices).getGraph();
+
+        BoruvkaMinimumSpanningTree sequential = new BoruvkaMinimumSpanningTree(graph, 1);
+        Set<String> sequentialEdges = edges(sequential.getMinimumSpanningTree());
+        BoruvkaMinimumSpanningTree parallel = new BoruvkaMinimumSpanningTree(graph, 4);
+        Set<String> parallelEdges = edges(parallel.getMinimumSpanningTree());
+        MinimumSpanningTree prim = new MinimumSpanningTree(graph);
+        prim.getMinimumSpanningTree();
+
+        Assertions.assertEquals(2 * (vertices.size() - 1), sequentialEdges.size());
+        Assertions.assertEquals(sequentialEdges, parallelEdges);
+        Assertions.assertEquals(prim.getMSTCost(), parallel.getMSTCost(), 1e-6);
+    }
+
+    private Set<String> edges(Graph mst) {
+        Set<String> edges = new HashSet<>();
+        for (Edge edge : mst.getAllEdges())
+            edges.add(edge.getSource().getId() + "-" + edge.getDestination().getId());
+        return edges;
+    }
+}
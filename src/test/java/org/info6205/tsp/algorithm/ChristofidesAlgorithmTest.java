@@ -72,7 +72,8 @@ public class ChristofidesAlgorithmTest {
             System.out.println("Best tour: " + bestTour);
 
 
-            Assertions.assertTrue( bestCost >= mstCost * 1.5 && bestCost <= mstCost * 1.75);
+            //A tour costs at least the minimum spanning tree, the best shortcut of the Eulerian circuit can stay well below 1.5 times of it
+            Assertions.assertTrue( bestCost >= mstCost && bestCost <= mstCost * 1.75);
         }
         catch (Exception e){
             e.printStackTrace();
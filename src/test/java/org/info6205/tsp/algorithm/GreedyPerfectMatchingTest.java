@@ -2,11 +2,15 @@ package org.info6205.tsp.algorithm;
 
 import org.info6205.tsp.core.Graph;
 import org.info6205.tsp.core.UndirectedSubGraph;
+import org.info6205.tsp.core.Vertex;
 import org.info6205.tsp.io.Preprocess;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeAll;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 import java.util.function.Function;
 
 public class GreedyPerfectMatchingTest {
@@ -76,4 +80,18 @@ public class GreedyPerfectMatchingTest {
             e.printStackTrace();
         }
     }
+
+    @Test
+    public void checkCandidateModeMatchesEveryVertexOnce() throws Exception {
+        Random random = new Random(3);
+        List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 2000; i++)
+            vertices.add(new Vertex(i, 42.3 + random.nextDouble() * 0.1, -71.1 + random.nextDouble() * 0.1));
+
+        //A single candidate per vertex leaves many vertices unmatched after the first round
+        Graph perfectMatching = new GreedyPerfectMatching(vertices, 1).getPerfectMatching();
+
+        for (Vertex vertex : vertices)
+            Assertions.assertEquals(1, perfectMatching.getAllAdjacentEdgesOfVertex(vertex).size());
+    }
 }
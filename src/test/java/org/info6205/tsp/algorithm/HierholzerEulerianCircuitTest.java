@@ -0,0 +1,58 @@
+package org.info6205.tsp.algorithm;
+
+import org.info6205.tsp.core.Edge;
+import org.info6205.tsp.core.Graph;
+import org.info6205.tsp.core.UndirectedGraph;
+import org.info6205.tsp.core.UndirectedSubGraph;
+import org.info6205.tsp.core.Vertex;
+import org.info6205.tsp.io.Preprocess;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class HierholzerEulerianCircuitTest {
+
+    @Test
+    public void testCircuitUsesEveryEdgeOfChristofidesMultigraphOnce() throws Exception {
+        Graph graph = new Preprocess().start("crimeSample.csv");
+        Graph multigraph = new MinimumSpanningTree(graph).getMinimumSpanningTree();
+        Graph subGraph = new UndirectedSubGraph(multigraph.getOddDegreeVertices(), graph);
+        multigraph.addExistingEdgesToGraph(new MinimumWeightPerfectMatching(subGraph).getPerfectMatching().getAllEdges().stream().collect(Collectors.toList()));
+
+        List<Vertex> circuit = new HierholzerEulerianCircuit(multigraph).getEulerianCircuit();
+
+        //Every undirected edge is stored in both directions
+        Map<List<Vertex>, Integer> remaining = new HashMap<>();
+        for (Edge edge : multigraph.getAllEdges())
+            remaining.merge(List.of(edge.getSource(), edge.getDestination()), 1, Integer::sum);
+        Assertions.assertEquals(multigraph.getAllEdges().size() / 2 + 1, circuit.size());
+        Assertions.assertEquals(circuit.get(0), circuit.get(circuit.size() - 1));
+        for (int i = 0; i + 1 < circuit.size(); i++) {
+            Assertions.assertTrue(remaining.merge(List.of(circuit.get(i), circuit.get(i + 1)), -1, Integer::sum) >= 0);
+            Assertions.assertTrue(remaining.merge(List.of(circuit.get(i + 1), circuit.get(i)), -1, Integer::sum) >= 0);
+        }
+    }
+
+    @Test
+    public void testLongCycleDoesNotOverflowTheStack() throws Exception {
+        int n = 200000;
+        List<Vertex> vertices = new ArrayList<>();
+        Graph graph = new UndirectedGraph();
+        for (int i = 0; i < n; i++) {
+            vertices.add(new Vertex(i, Math.cos(2 * Math.PI * i / n), Math.sin(2 * Math.PI * i / n)));
+            graph.addVertex(vertices.get(i));
+        }
+        for (int i = 0; i < n; i++)
+            graph.addEdge(vertices.get(i), vertices.get((i + 1) % n));
+
+        List<Vertex> circuit = new HierholzerEulerianCircuit(graph).getEulerianCircuit();
+
+        Assertions.assertEquals(n + 1, circuit.size());
+        Assertions.assertEquals(circuit.get(0), circuit.get(n));
+    }
+}
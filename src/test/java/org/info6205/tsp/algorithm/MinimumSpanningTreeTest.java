@@ -5,8 +5,12 @@ import org.info6205.tsp.core.Graph;
 import org.info6205.tsp.core.UndirectedGraph;
 import org.info6205.tsp.core.Vertex;
 import org.info6205.tsp.io.Preprocess;
+import org.info6205.tsp.util.GraphUtil;
 import org.junit.jupiter.api.*;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.Assert.assertEquals;
 
 public class MinimumSpanningTreeTest {
@@ -64,4 +68,34 @@ public class MinimumSpanningTreeTest {
         Assertions.assertEquals(mst.getAllEdges().size()/2, mst.getAllVertices().size()-1);
 
     }
+
+    @Test
+    public void testDenseAndSparseGraphsGiveSameCost() throws Exception {
+        Graph graph = new Preprocess().start("crimeSample.csv");
+        Graph matrixGraph = new Preprocess().start("crimeSample.csv", Preprocess.GraphType.DISTANCE_MATRIX);
+        MinimumSpanningTree minimumSpanningTree = new MinimumSpanningTree(graph);
+        Graph mst = minimumSpanningTree.getMinimumSpanningTree();
+        MinimumSpanningTree matrixSpanningTree = new MinimumSpanningTree(matrixGraph);
+        matrixSpanningTree.getMinimumSpanningTree();
+
+        //The tree plus a few more edges per vertex is sparse and still contains the tree
+        UndirectedGraph sparseGraph = new UndirectedGraph();
+        List<Vertex> vertices = new ArrayList<>(graph.getAllVertices());
+        for (Vertex vertex : vertices)
+            sparseGraph.addVertex(vertex);
+        for (Edge edge : mst.getAllEdges())
+            sparseGraph.addEdge(edge.getSource(), edge.getDestination(), edge.getWeight());
+        for (int i = 0; i < vertices.size(); i++) {
+            for (int j = i + 1; j < vertices.size(); j += 17)
+                sparseGraph.addEdge(vertices.get(i), vertices.get(j), GraphUtil.getDistanceBetweenVertices(vertices.get(i), vertices.get(j)));
+        }
+        Assertions.assertTrue(MinimumSpanningTree.isDense(vertices.size(), graph.getAllEdges().size()));
+        Assertions.assertFalse(MinimumSpanningTree.isDense(vertices.size(), sparseGraph.getAllEdges().size()));
+        MinimumSpanningTree sparseSpanningTree = new MinimumSpanningTree(sparseGraph);
+        Graph sparseTree = sparseSpanningTree.getMinimumSpanningTree();
+
+        Assertions.assertEquals(minimumSpanningTree.getMSTCost(), matrixSpanningTree.getMSTCost(), 1e-6);
+        Assertions.assertEquals(minimumSpanningTree.getMSTCost(), sparseSpanningTree.getMSTCost(), 1e-6);
+        Assertions.assertEquals(vertices.size() - 1, sparseTree.getAllEdges().size() / 2);
+    }
 }
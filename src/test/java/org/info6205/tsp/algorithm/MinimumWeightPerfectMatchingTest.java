@@ -0,0 +1,88 @@
+package org.info6205.tsp.algorithm;
+
+import org.info6205.tsp.core.Edge;
+import org.info6205.tsp.core.Graph;
+import org.info6205.tsp.core.UndirectedGraph;
+import org.info6205.tsp.core.UndirectedSubGraph;
+import org.info6205.tsp.core.Vertex;
+import org.info6205.tsp.io.Preprocess;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+
+public class MinimumWeightPerfectMatchingTest {
+
+    static Function<Graph, Double> getGraphCost = (graph) -> graph.getAllEdges().stream().mapToDouble(Edge::getWeight).sum()/2;
+
+    @Test
+    public void testMatchingIsPerfectAndNotWorseThanGreedy() throws Exception {
+        Graph graph = new Preprocess().start("crimeSample.csv");
+        Graph mst = new MinimumSpanningTree(graph).getMinimumSpanningTree();
+        Set<Vertex> oddVertices = mst.getOddDegreeVertices();
+
+        Graph matching = new MinimumWeightPerfectMatching(new UndirectedSubGraph(oddVertices, graph)).getPerfectMatching();
+        Graph greedyMatching = new GreedyPerfectMatching(new UndirectedSubGraph(oddVertices, graph)).getPerfectMatching();
+
+        for (Vertex vertex : oddVertices)
+            Assertions.assertEquals(1, matching.getAllAdjacentEdgesOfVertex(vertex).size());
+        Assertions.assertTrue(getGraphCost.apply(matching) <= getGraphCost.apply(greedyMatching) + 1e-6);
+    }
+
+    @Test
+    public void testMatchingIsOptimalOnSmallGraphs() throws Exception {
+        Random random = new Random(7);
+        for (int round = 0; round < 20; round++) {
+            List<Vertex> vertices = new ArrayList<>();
+            for (int i = 0; i < 12; i++)
+                vertices.add(new Vertex(i, 51.5 + random.nextDouble() * 0.1, -0.1 + random.nextDouble() * 0.1));
+            Graph graph = new UndirectedGraph();
+            for (Vertex vertex : vertices)
+                graph.addVertex(vertex);
+            double[][] weights = new double[vertices.size()][vertices.size()];
+            for (int i = 0; i < vertices.size(); i++) {
+                for (int j = i + 1; j < vertices.size(); j++) {
+                    Edge edge = new Edge(vertices.get(i), vertices.get(j));
+                    graph.addEdge(vertices.get(i), vertices.get(j), edge.getWeight());
+                    weights[i][j] = weights[j][i] = edge.getWeight();
+                }
+            }
+
+            //Two candidates per vertex often miss the optimum, which exercises adding the edges with negative reduced cost
+            double cost = getGraphCost.apply(new MinimumWeightPerfectMatching(graph, 2).getPerfectMatching());
+            Assertions.assertEquals(bruteForce(weights), cost, 0.01 * vertices.size());
+        }
+    }
+
+    @Test
+    public void testOddNumberOfVerticesThrows() throws Exception {
+        Graph graph = new UndirectedGraph();
+        graph.addVertex(new Vertex(1, 0, 0));
+        Assertions.assertThrows(Exception.class, () -> new MinimumWeightPerfectMatching(graph).getPerfectMatching());
+    }
+
+    /**
+     * Cost of the minimum weight perfect matching over all subsets of matched vertices
+     */
+    private static double bruteForce(double[][] weights) {
+        int n = weights.length;
+        double[] best = new double[1 << n];
+        Arrays.fill(best, Double.POSITIVE_INFINITY);
+        best[0] = 0;
+        for (int set = 1; set < 1 << n; set++) {
+            if (Integer.bitCount(set) % 2 != 0)
+                continue;
+            int i = Integer.numberOfTrailingZeros(set);
+            for (int j = i + 1; j < n; j++) {
+                if ((set & (1 << j)) != 0)
+                    best[set] = Math.min(best[set], weights[i][j] + best[set & ~(1 << i) & ~(1 << j)]);
+            }
+        }
+        return best[(1 << n) - 1];
+    }
+}
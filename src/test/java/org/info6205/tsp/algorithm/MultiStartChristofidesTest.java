@@ -0,0 +1,27 @@
+package org.info6205.tsp.algorithm;
+
+import org.info6205.tsp.core.Graph;
+import org.info6205.tsp.core.Vertex;
+import org.info6205.tsp.io.Preprocess;
+import org.info6205.tsp.util.GraphUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+
+public class MultiStartChristofidesTest {
+
+    @Test
+    public void testConcurrentRunsReturnValidBestTour() throws Exception {
+        Graph graph = new Preprocess().start("crimeSample.csv", Preprocess.GraphType.DISTANCE_MATRIX);
+
+        MultiStartChristofides multiStartChristofides = new MultiStartChristofides(graph, 8, 42, 4);
+        List<Vertex> bestTour = multiStartChristofides.getBestTour();
+
+        Assertions.assertEquals(graph.getAllVertices().size() + 1, bestTour.size());
+        Assertions.assertEquals(graph.getAllVertices().size(), new HashSet<>(bestTour).size());
+        Assertions.assertEquals(bestTour.get(0), bestTour.get(bestTour.size() - 1));
+        Assertions.assertEquals(GraphUtil.getTotalCostOfTour(bestTour), multiStartChristofides.getBestCost(), 1e-6);
+    }
+}
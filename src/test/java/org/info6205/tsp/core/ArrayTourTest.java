@@ -0,0 +1,57 @@
+package org.info6205.tsp.core;
+
+import org.info6205.tsp.io.Preprocess;
+import org.info6205.tsp.util.GraphUtil;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class ArrayTourTest {
+
+    @Test
+    public void testNeighboursAndBetween() {
+        List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 6; i++)
+            vertices.add(new Vertex(i, 42.3 + i * 0.01, -71.1));
+        vertices.add(vertices.get(0));
+        ArrayTour tour = new ArrayTour(vertices);
+
+        Assertions.assertEquals(6, tour.size());
+        Assertions.assertEquals(1, tour.next(0));
+        Assertions.assertEquals(5, tour.prev(0));
+        Assertions.assertEquals(0, tour.next(5));
+        Assertions.assertTrue(tour.between(1, 3, 4));
+        Assertions.assertTrue(tour.between(4, 0, 1));
+        Assertions.assertFalse(tour.between(4, 2, 1));
+        Assertions.assertEquals(GraphUtil.getTotalCostOfTour(vertices), tour.getCost(), 1e-6);
+        Assertions.assertEquals(vertices, tour.toList());
+    }
+
+    @Test
+    public void testRandomMovesKeepCostAndPositionsConsistent() throws Exception {
+        DistanceMatrixGraph graph = (DistanceMatrixGraph) new Preprocess().start("crimeSample.csv", Preprocess.GraphType.DISTANCE_MATRIX);
+        List<Vertex> vertices = new ArrayList<>(graph.getAllVertices());
+        Collections.shuffle(vertices, new Random(7));
+        ArrayTour tour = new ArrayTour(vertices, graph);
+
+        Random random = new Random(11);
+        for (int it = 0; it < 1000; it++) {
+            int t1 = random.nextInt(tour.size());
+            int t3 = random.nextInt(tour.size());
+            if (random.nextBoolean())
+                tour.make2OptMove(t1, tour.next(t1), t3, tour.next(t3));
+            else
+                tour.make2OptMove(t1, tour.prev(t1), t3, tour.prev(t3));
+        }
+
+        for (int i = 0; i < tour.size(); i++)
+            Assertions.assertEquals(i, tour.getPosition(tour.at(i)));
+        List<Vertex> list = tour.toList();
+        Assertions.assertEquals(graph.getVertexCount() + 1, list.size());
+        Assertions.assertEquals(graph.getVertexCount(), list.stream().distinct().count());
+        Assertions.assertEquals(GraphUtil.getTotalCostOfTour(list), tour.getCost(), 1e-3);
+    }
+}
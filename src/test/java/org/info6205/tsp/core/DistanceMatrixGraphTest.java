@@ -0,0 +1,90 @@
+package org.info6205.tsp.core;
+
+import org.info6205.tsp.algorithm.ChristofidesAlgorithm;
+import org.info6205.tsp.algorithm.MinimumSpanningTree;
+import org.info6205.tsp.io.Preprocess;
+import org.info6205.tsp.util.GraphUtil;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class DistanceMatrixGraphTest {
+
+    @Test
+    public void testWeightsMatchHaversineDistance() throws Exception {
+        Graph graph = new Preprocess().start("crimeSample.csv", Preprocess.GraphType.DISTANCE_MATRIX);
+        DistanceMatrixGraph matrixGraph = (DistanceMatrixGraph) graph;
+        List<Vertex> vertices = new ArrayList<>(graph.getAllVertices());
+
+        for (int i = 0; i < vertices.size(); i++) {
+            for (int j = 0; j < vertices.size(); j++) {
+                Assertions.assertEquals(GraphUtil.getDistanceBetweenVertices(vertices.get(i), vertices.get(j)),
+                        matrixGraph.getWeight(matrixGraph.getIndexOf(vertices.get(i)), matrixGraph.getIndexOf(vertices.get(j))), 1e-6);
+            }
+        }
+
+        //Edges are repeated in both directions as in UndirectedGraph
+        Assertions.assertEquals(vertices.size() * (vertices.size() - 1), graph.getAllEdges().size());
+    }
+
+    @Test
+    public void testMSTCostMatchesAdjacencyListGraph() throws Exception {
+        Graph listGraph = new Preprocess().start("crimeSample.csv");
+        Graph matrixGraph = new Preprocess().start("crimeSample.csv", Preprocess.GraphType.DISTANCE_MATRIX);
+
+        MinimumSpanningTree listMST = new MinimumSpanningTree(listGraph);
+        Graph listTree = listMST.getMinimumSpanningTree();
+        MinimumSpanningTree matrixMST = new MinimumSpanningTree(matrixGraph);
+        Graph matrixTree = matrixMST.getMinimumSpanningTree();
+
+        Assertions.assertEquals(listTree.getAllEdges().size(), matrixTree.getAllEdges().size());
+        Assertions.assertEquals(listMST.getMSTCost(), matrixMST.getMSTCost(), 1e-6);
+    }
+
+    @Test
+    public void testChristofidesTourOnDistanceMatrixGraph() throws Exception {
+        Graph graph = new Preprocess().start("crimeSample.csv", Preprocess.GraphType.DISTANCE_MATRIX);
+
+        List<Vertex> tour = new ChristofidesAlgorithm(graph).generateTSPTour();
+
+        Assertions.assertEquals(graph.getAllVertices().size() + 1, tour.size());
+    }
+
+    @Test
+    public void testImplicitGraphMatchesDistanceMatrixGraph() throws Exception {
+        DistanceMatrixGraph matrixGraph = (DistanceMatrixGraph) new Preprocess().start("crimeSample.csv", Preprocess.GraphType.DISTANCE_MATRIX);
+        DistanceMatrixGraph implicitGraph = (DistanceMatrixGraph) new Preprocess().start("crimeSample.csv", Preprocess.GraphType.IMPLICIT);
+
+        int n = matrixGraph.getVertexCount();
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                Assertions.assertEquals(matrixGraph.getWeight(i, j), implicitGraph.getWeight(i, j), 1e-6);
+            }
+        }
+
+        //Lazy views report the same number of edges they iterate over
+        Vertex vertex = implicitGraph.getVertex(n / 2);
+        Assertions.assertEquals(n - 1, implicitGraph.getAllAdjacentEdgesOfVertex(vertex).stream().count());
+        Assertions.assertTrue(implicitGraph.getAllAdjacentEdgesOfVertex(vertex).stream().noneMatch(e -> e.getDestination() == vertex));
+        Assertions.assertEquals(implicitGraph.getAllEdges().size(), implicitGraph.getAllEdges().stream().count());
+    }
+
+    @Test
+    public void testGraphIsReadOnly() {
+        Graph graph = new DistanceMatrixGraph(List.of(new Vertex(0, 42.36, -71.09), new Vertex(1, 42.34, -71.09)));
+
+        Assertions.assertThrows(Exception.class, () -> graph.addVertex(new Vertex(2, 42.35, -71.08)));
+    }
+
+    @Test
+    public void testMatrixBuiltFromEdgesIsFrozenAsIs() throws Exception {
+        Graph listGraph = new Preprocess().start("crimeSample.csv");
+        List<Vertex> vertices = new ArrayList<>(listGraph.getAllVertices());
+        DistanceMatrixGraph matrixGraph = new DistanceMatrixGraph(vertices, new DenseDistanceMatrix(vertices, listGraph.getAllEdges()));
+
+        for (Edge edge : listGraph.getAllEdges())
+            Assertions.assertEquals(edge.getWeight(), matrixGraph.getWeight(matrixGraph.getIndexOf(edge.getSource()), matrixGraph.getIndexOf(edge.getDestination())));
+        Assertions.assertSame(matrixGraph, matrixGraph.freeze());
+    }
+}
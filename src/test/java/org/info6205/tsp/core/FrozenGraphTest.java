@@ -0,0 +1,61 @@
+package org.info6205.tsp.core;
+
+import org.info6205.tsp.algorithm.MinimumSpanningTree;
+import org.info6205.tsp.io.Preprocess;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+public class FrozenGraphTest {
+
+    @Test
+    public void testFrozenGraphMatchesAdjacencyListGraph() throws Exception {
+        Graph graph = new Preprocess().start("crimeSample.csv");
+        IndexedGraph frozen = graph.freeze();
+
+        Assertions.assertEquals(graph.getAllVertices(), frozen.getAllVertices());
+        Assertions.assertEquals(graph.getAllEdges().size(), frozen.getAllEdges().size());
+        Assertions.assertEquals(graph.getOddDegreeVertices(), frozen.getOddDegreeVertices());
+        for (Vertex vertex : graph.getAllVertices()) {
+            Set<Edge> edges = graph.getAllAdjacentEdgesOfVertex(vertex);
+            Set<Edge> frozenEdges = frozen.getAllAdjacentEdgesOfVertex(vertex);
+            Assertions.assertEquals(edges.size(), frozenEdges.size());
+            Assertions.assertEquals(totalWeight(edges), totalWeight(frozenEdges), 1e-6);
+            for (Edge edge : frozenEdges)
+                Assertions.assertSame(vertex, edge.getSource());
+        }
+
+        MinimumSpanningTree mst = new MinimumSpanningTree(graph);
+        mst.getMinimumSpanningTree();
+        MinimumSpanningTree frozenMST = new MinimumSpanningTree(frozen);
+        frozenMST.getMinimumSpanningTree();
+        Assertions.assertEquals(mst.getMSTCost(), frozenMST.getMSTCost(), 1e-6);
+    }
+
+    @Test
+    public void testFrozenGraphIsNotAffectedByChanges() throws Exception {
+        UndirectedGraph graph = new UndirectedGraph();
+        List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            vertices.add(new Vertex(i, i, i));
+            graph.addVertex(vertices.get(i));
+        }
+        graph.addEdge(vertices.get(0), vertices.get(1), 1);
+        IndexedGraph frozen = graph.freeze();
+
+        graph.addEdge(vertices.get(1), vertices.get(2), 2);
+
+        Assertions.assertEquals(2, frozen.getAllEdges().size());
+        //The edge is stored in both directions
+        Assertions.assertEquals(2, frozen.getEdgesBetweenVertices(vertices.get(1), vertices.get(0)).size());
+        Assertions.assertTrue(frozen.getAllAdjacentEdgesOfVertex(vertices.get(2)).isEmpty());
+        Assertions.assertSame(frozen, frozen.freeze());
+        Assertions.assertThrows(Exception.class, () -> frozen.addEdge(vertices.get(0), vertices.get(2), 3));
+    }
+
+    private double totalWeight(Set<Edge> edges) {
+        return edges.stream().mapToDouble(Edge::getWeight).sum();
+    }
+}
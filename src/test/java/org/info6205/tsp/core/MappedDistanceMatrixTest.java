@@ -0,0 +1,81 @@
+package org.info6205.tsp.core;
+
+import org.info6205.tsp.io.Preprocess;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class MappedDistanceMatrixTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testReopenedMatrixMatchesDenseMatrix() throws Exception {
+        DistanceMatrixGraph graph = (DistanceMatrixGraph) new Preprocess().start("crimeSample.csv", Preprocess.GraphType.DISTANCE_MATRIX);
+        Path file = tempDir.resolve("crimeSample.dm");
+
+        MappedDistanceMatrix.create(file, graph.getDistanceMatrix()).close();
+
+        //Small segments so that the matrix is spread over several mappings
+        try (MappedDistanceMatrix mapped = MappedDistanceMatrix.open(file, 12)) {
+            Assertions.assertEquals(graph.getVertexCount(), mapped.size());
+            for (int i = 0; i < mapped.size(); i++) {
+                for (int j = 0; j < mapped.size(); j++) {
+                    double expected = graph.getWeight(i, j);
+                    //Distances are stored as floats
+                    Assertions.assertEquals(expected, mapped.getDistance(i, j), Math.max(1e-3, expected * 1e-6));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPreprocessReusesMatrixFile() throws Exception {
+        Path file = tempDir.resolve("crimeSample.dm");
+
+        DistanceMatrixGraph first = new Preprocess().start("crimeSample.csv", file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        DistanceMatrixGraph second = new Preprocess().start("crimeSample.csv", file);
+
+        Assertions.assertEquals(lastModified, Files.getLastModifiedTime(file).toMillis());
+        Assertions.assertEquals(first.getWeight(3, 42), second.getWeight(3, 42));
+    }
+
+    @Test
+    public void testOpeningInvalidFileFails() throws Exception {
+        Path file = tempDir.resolve("invalid.dm");
+        Files.write(file, new byte[32]);
+
+        Assertions.assertThrows(java.io.IOException.class, () -> MappedDistanceMatrix.open(file));
+    }
+
+    @Test
+    public void testFileOfOtherVerticesWithSameCountIsRebuilt() throws Exception {
+        Path file = tempDir.resolve("moved.dm");
+        List<Vertex> vertices = new ArrayList<>();
+        List<Vertex> moved = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            vertices.add(new Vertex(i, 42.3 + i * 0.001, -71.1));
+            moved.add(new Vertex(i, 42.3, -71.1 + i * 0.002));
+        }
+        MappedDistanceMatrix.openOrCreate(file, vertices).close();
+
+        try (MappedDistanceMatrix reopened = MappedDistanceMatrix.openOrCreate(file, moved)) {
+            HaversineDistanceMatrix expected = new HaversineDistanceMatrix(moved);
+            Assertions.assertEquals(MappedDistanceMatrix.fingerprint(moved), reopened.getFingerprint());
+            for (int j = 1; j < moved.size(); j++)
+                Assertions.assertEquals(expected.getDistance(0, j), reopened.getDistance(0, j), 1e-2);
+        }
+
+        //A file without fingerprint, as written by earlier versions, is rebuilt as well
+        MappedDistanceMatrix.create(file, new HaversineDistanceMatrix(vertices)).close();
+        try (MappedDistanceMatrix reopened = MappedDistanceMatrix.openOrCreate(file, vertices)) {
+            Assertions.assertEquals(MappedDistanceMatrix.fingerprint(vertices), reopened.getFingerprint());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.info6205.tsp.core;
+
+import org.info6205.tsp.io.Preprocess;
+import org.info6205.tsp.util.GraphUtil;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class TwoLevelListTourTest {
+
+    @Test
+    public void testRandomMovesMatchArrayTour() throws Exception {
+        DistanceMatrixGraph graph = (DistanceMatrixGraph) new Preprocess().start("teamprojectfinal.csv", Preprocess.GraphType.DISTANCE_MATRIX);
+        List<Vertex> vertices = new ArrayList<>(graph.getAllVertices());
+        Collections.shuffle(vertices, new Random(3));
+
+        assertSameMoves(new ArrayTour(vertices, graph), new TwoLevelListTour(vertices, graph), 5000);
+    }
+
+    @Test
+    public void testRandomMovesOnSmallTours() {
+        for (int n = 3; n <= 12; n++) {
+            List<Vertex> vertices = new ArrayList<>();
+            for (int i = 0; i < n; i++)
+                vertices.add(new Vertex(i, 42.3 + i * 0.01, -71.1 + (i % 3) * 0.01));
+            DistanceMatrixGraph graph = new ImplicitCompleteGraph(vertices);
+
+            assertSameMoves(new ArrayTour(vertices, graph), new TwoLevelListTour(vertices, graph), 500);
+        }
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 20; i++)
+            vertices.add(new Vertex(i, 42.3 + i * 0.01, -71.1));
+        Tour tour = new TwoLevelListTour(vertices);
+        Tour copy = tour.copy();
+
+        tour.reverse(3, 12);
+
+        Assertions.assertEquals(4, copy.next(3));
+        Assertions.assertEquals(11, tour.next(12));
+        Assertions.assertEquals(GraphUtil.getTotalCostOfTour(tour.toList()), tour.getCost(), 1e-6);
+    }
+
+    private void assertSameMoves(Tour expected, Tour actual, int moves) {
+        int n = expected.size();
+        Random random = new Random(n);
+        for (int it = 0; it < moves; it++) {
+            int t1 = random.nextInt(n);
+            int t3 = random.nextInt(n);
+            int t2, t4;
+            if (random.nextBoolean()) {
+                t2 = expected.next(t1);
+                t4 = expected.next(t3);
+            }
+            else {
+                t2 = expected.prev(t1);
+                t4 = expected.prev(t3);
+            }
+            expected.make2OptMove(t1, t2, t3, t4);
+            actual.make2OptMove(t1, t2, t3, t4);
+
+            //Both tours have to be the same cycle, possibly in opposite directions
+            boolean sameDirection = expected.next(0) == actual.next(0);
+            int a = random.nextInt(n), b = random.nextInt(n), c = random.nextInt(n);
+            for (int v = 0; v < n; v++) {
+                Assertions.assertEquals(expected.next(v), sameDirection ? actual.next(v) : actual.prev(v));
+                Assertions.assertEquals(expected.prev(v), sameDirection ? actual.prev(v) : actual.next(v));
+            }
+            Assertions.assertEquals(expected.between(a, b, c), sameDirection ? actual.between(a, b, c) : actual.between(c, b, a));
+            Assertions.assertEquals(expected.getCost(), actual.getCost(), 1e-3);
+        }
+    }
+}
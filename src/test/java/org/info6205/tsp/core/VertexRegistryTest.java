@@ -0,0 +1,47 @@
+package org.info6205.tsp.core;
+
+import org.info6205.tsp.io.Preprocess;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+
+public class VertexRegistryTest {
+
+    @Test
+    public void testIdsAreUsedAsIndicesWhenDense() {
+        Vertex v0 = new Vertex(0, 0, 0);
+        Vertex v1 = new Vertex(1, 0, 0);
+        Vertex v2 = new Vertex(2, 0, 0);
+        VertexRegistry registry = new VertexRegistry(List.of(v0, v1, v2));
+
+        Assertions.assertEquals(3, registry.size());
+        Assertions.assertEquals(1, registry.getIndexOf(new Vertex(1, 5, 5)));
+        Assertions.assertEquals(-1, registry.getIndexOf(new Vertex(3, 0, 0)));
+        Assertions.assertEquals(2, registry.register(v2));
+    }
+
+    @Test
+    public void testIndicesStayDenseAfterRemoval() {
+        Vertex v1 = new Vertex(10, 0, 0);
+        Vertex v2 = new Vertex(20, 0, 0);
+        Vertex v3 = new Vertex(30, 0, 0);
+        VertexRegistry registry = new VertexRegistry(List.of(v1, v2, v3));
+
+        Assertions.assertTrue(registry.remove(v1));
+
+        Assertions.assertEquals(2, registry.size());
+        Assertions.assertEquals(-1, registry.getIndexOf(v1));
+        Assertions.assertEquals(v3, registry.getVertex(registry.getIndexOf(v3)));
+        Assertions.assertEquals(v2, registry.getVertex(registry.getIndexOf(v2)));
+    }
+
+    @Test
+    public void testUndirectedGraphIndexesEveryVertex() throws Exception {
+        IndexedGraph graph = (IndexedGraph) new Preprocess().start("crimeSample.csv");
+
+        Assertions.assertEquals(graph.getAllVertices().size(), graph.getVertexCount());
+        for (Vertex vertex : graph.getAllVertices()) {
+            Assertions.assertEquals(vertex, graph.getVertex(graph.getIndexOf(vertex)));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.info6205.tsp.optimizations;
+
+import org.info6205.tsp.core.ArrayTour;
+import org.info6205.tsp.core.DistanceMatrixGraph;
+import org.info6205.tsp.core.Tour;
+import org.info6205.tsp.core.TwoLevelListTour;
+import org.info6205.tsp.core.Vertex;
+import org.info6205.tsp.spatial.CandidateList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+
+public class AnnealingMovesTest {
+
+    private static final int MOVES = 20000;
+
+    @Test
+    public void testTwoOptDeltaMatchesCostChange() {
+        checkMoves(moves -> moves.twoOpt(Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    public void testOrOptDeltaMatchesCostChange() {
+        checkMoves(moves -> moves.orOpt(Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    public void testSegmentExchangeDeltaMatchesCostChange() {
+        checkMoves(moves -> moves.segmentExchange(Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    public void testStepDeltaMatchesCostChange() {
+        checkMoves(moves -> moves.step(Double.POSITIVE_INFINITY));
+    }
+
+    /**
+     * Applies many random moves on small tours of both representations, an infinite temperature accepts every valid move.
+     * Every vertex is a candidate of every other, so adjacent positions, wrapping segments and insertion points
+     * next to the segment all come up
+     */
+    private static void checkMoves(ToDoubleFunction<AnnealingMoves> move) {
+        for (int n : new int[]{6, 7, 12}) {
+            List<Vertex> vertices = new ArrayList<>();
+            Random random = new Random(n);
+            for (int i = 0; i < n; i++)
+                vertices.add(new Vertex(i, 42.33 + random.nextDouble() * 0.01, -71.08 + random.nextDouble() * 0.01));
+            DistanceMatrixGraph graph = new DistanceMatrixGraph(vertices);
+            CandidateList candidateList = new CandidateList(graph, n - 1);
+
+            for (Tour tour : new Tour[]{new ArrayTour(vertices, graph), new TwoLevelListTour(vertices, graph)}) {
+                AnnealingMoves moves = new AnnealingMoves(tour, candidateList, new Random(42));
+                int applied = 0;
+                for (int i = 0; i < MOVES; i++) {
+                    double costBefore = walkCost(tour);
+                    double delta = move.applyAsDouble(moves);
+                    double costAfter = walkCost(tour);
+                    if (costAfter != costBefore)
+                        applied++;
+                    Assertions.assertEquals(costAfter - costBefore, delta, 1e-9);
+                    Assertions.assertEquals(costAfter, tour.getCost(), 1e-6);
+                }
+                Assertions.assertTrue(applied > MOVES / 10);
+            }
+        }
+    }
+
+    /**
+     * Cost of the tour summed along the successors, asserting that they visit every vertex exactly once
+     * and agree with the predecessors
+     */
+    private static double walkCost(Tour tour) {
+        int n = tour.size();
+        boolean[] visited = new boolean[n];
+        double cost = 0;
+        int vertex = 0;
+        for (int i = 0; i < n; i++) {
+            Assertions.assertFalse(visited[vertex]);
+            visited[vertex] = true;
+            int next = tour.next(vertex);
+            Assertions.assertEquals(vertex, tour.prev(next));
+            cost += tour.distance(vertex, next);
+            vertex = next;
+        }
+        Assertions.assertEquals(0, vertex);
+        return cost;
+    }
+}
@@ -0,0 +1,33 @@
+package org.info6205.tsp.optimizations;
+
+import org.info6205.tsp.core.Graph;
+import org.info6205.tsp.core.Vertex;
+import org.info6205.tsp.io.Preprocess;
+import org.junit.jupiter.api.*;
+
+import java.util.HashSet;
+import java.util.List;
+
+public class AntColonyOptimizationTest {
+
+    @Test
+    public void testAntsVisitEveryVertexOnce() throws Exception {
+        Graph graph = new Preprocess().start("crimeSample.csv", Preprocess.GraphType.DISTANCE_MATRIX);
+
+        List<Vertex> tour = new AntColonyOptimization(graph).startOptimization();
+
+        Assertions.assertEquals(graph.getAllVertices().size() + 1, tour.size());
+        Assertions.assertEquals(graph.getAllVertices().size(), new HashSet<>(tour).size());
+        Assertions.assertEquals(tour.get(0), tour.get(tour.size() - 1));
+    }
+
+    @Test
+    public void testSameSeedGivesSameTourForAnyThreadCount() throws Exception {
+        Graph graph = new Preprocess().start("crimeSample.csv", Preprocess.GraphType.DISTANCE_MATRIX);
+
+        List<Vertex> sequentialTour = new AntColonyOptimization(graph, 42, 1).startOptimization();
+        List<Vertex> parallelTour = new AntColonyOptimization(graph, 42, 3).startOptimization();
+
+        Assertions.assertEquals(sequentialTour, parallelTour);
+    }
+}
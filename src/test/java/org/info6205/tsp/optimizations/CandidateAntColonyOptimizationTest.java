@@ -0,0 +1,55 @@
+package org.info6205.tsp.optimizations;
+
+import org.info6205.tsp.core.Graph;
+import org.info6205.tsp.core.Vertex;
+import org.info6205.tsp.io.Preprocess;
+import org.info6205.tsp.spatial.CandidateList;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+public class CandidateAntColonyOptimizationTest {
+
+    @Test
+    public void testAntsVisitEveryVertexOnce() throws Exception {
+        Graph graph = new Preprocess().start("crimeSample.csv", Preprocess.GraphType.DISTANCE_MATRIX);
+        List<Vertex> vertices = new ArrayList<>(graph.getAllVertices());
+
+        CandidateAntColonyOptimization antColonyOptimization = new CandidateAntColonyOptimization(new CandidateList(vertices, CandidateList.DEFAULT_K), 42);
+        List<Vertex> tour = antColonyOptimization.startOptimization();
+
+        Assertions.assertEquals(vertices.size() + 1, tour.size());
+        Assertions.assertEquals(vertices.size(), new HashSet<>(tour).size());
+        Assertions.assertEquals(tour.get(0), tour.get(tour.size() - 1));
+        Assertions.assertEquals(tour, new CandidateAntColonyOptimization(new CandidateList(vertices, CandidateList.DEFAULT_K), 42).startOptimization());
+    }
+
+    @Test
+    public void testEdgesOutsideCandidateListKeepMinimumReward() throws Exception {
+        Graph graph = new Preprocess().start("crimeSample.csv", Preprocess.GraphType.DISTANCE_MATRIX);
+        List<Vertex> vertices = new ArrayList<>(graph.getAllVertices());
+        CandidateList candidateList = new CandidateList(vertices, 5);
+
+        CandidateAntColonyOptimization antColonyOptimization = new CandidateAntColonyOptimization(candidateList, 7);
+        antColonyOptimization.startOptimization();
+
+        int farthest = farthest(candidateList, 0);
+        double minReward = antColonyOptimization.getReward(0, farthest);
+        Assertions.assertEquals(minReward, antColonyOptimization.getReward(farthest, 0));
+        for (int i = 0; i < candidateList.size(); i++) {
+            for (int neighbour : candidateList.getNeighbours(i))
+                Assertions.assertTrue(antColonyOptimization.getReward(i, neighbour) > minReward);
+        }
+    }
+
+    private int farthest(CandidateList candidateList, int vertex) {
+        int farthest = vertex == 0 ? 1 : 0;
+        for (int i = 0; i < candidateList.size(); i++) {
+            if (candidateList.getGraph().getWeight(vertex, i) > candidateList.getGraph().getWeight(vertex, farthest))
+                farthest = i;
+        }
+        return farthest;
+    }
+}
@@ -8,9 +8,12 @@ import org.info6205.tsp.core.Vertex;
 import org.info6205.tsp.io.Preprocess;
 import org.info6205.tsp.optimizations.ThreeOptSwapOptimization;
 import org.info6205.tsp.optimizations.TwoOptSwapOptimization;
+import org.info6205.tsp.spatial.CandidateList;
 import org.info6205.tsp.util.GraphUtil;
 import org.junit.jupiter.api.*;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 
 public class ChristofidesWithOptimizationTest {
@@ -103,4 +106,35 @@ public class ChristofidesWithOptimizationTest {
             e.printStackTrace();
         }
     }
+
+    @Test
+    public void CostAfterCandidateListOptimizationsWithinRangeOfMSTTest() throws Exception {
+
+        MinimumSpanningTree minimumSpanningTree = new MinimumSpanningTree(testGraph);
+
+        minimumSpanningTree.getMinimumSpanningTree();
+
+        double mstCost = minimumSpanningTree.getMSTCost();
+
+        CandidateList candidateList = new CandidateList(new ArrayList<>(testGraph.getAllVertices()), CandidateList.DEFAULT_K);
+
+        ChristofidesAlgorithm christofidesAlgorithm = new ChristofidesAlgorithm(testGraph);
+
+        for (int i = 0; i < 5; i++) {
+            List<Vertex> tour = christofidesAlgorithm.generateTSPTour();
+
+            List<Vertex> twoOptTour = new TwoOptSwapOptimization(new ArrayList<>(tour), candidateList).getOptimumTour();
+            List<Vertex> threeOptTour = new ThreeOptSwapOptimization(new ArrayList<>(tour), candidateList).getOptimumTour();
+
+            for (List<Vertex> optimizedTour: List.of(twoOptTour, threeOptTour)) {
+                //Every vertex is visited exactly once and the tour returns to its start
+                Assertions.assertEquals(tour.size(), optimizedTour.size());
+                Assertions.assertEquals(tour.size() - 1, new HashSet<>(optimizedTour).size());
+                Assertions.assertEquals(optimizedTour.get(0), optimizedTour.get(optimizedTour.size() - 1));
+
+                Assertions.assertTrue(GraphUtil.getTotalCostOfTour(optimizedTour) <= GraphUtil.getTotalCostOfTour(tour));
+                Assertions.assertEquals(mstCost, GraphUtil.getTotalCostOfTour(optimizedTour), mstCost/4);
+            }
+        }
+    }
 }
@@ -0,0 +1,32 @@
+package org.info6205.tsp.optimizations;
+
+import org.info6205.tsp.algorithm.ChristofidesAlgorithm;
+import org.info6205.tsp.core.DistanceMatrixGraph;
+import org.info6205.tsp.core.Tour;
+import org.info6205.tsp.core.Vertex;
+import org.info6205.tsp.io.Preprocess;
+import org.info6205.tsp.spatial.CandidateList;
+import org.info6205.tsp.util.GraphUtil;
+import org.junit.jupiter.api.*;
+
+import java.util.HashSet;
+import java.util.List;
+
+public class LinKernighanOptimizationTest {
+
+    @Test
+    public void testLinKernighanImprovesOnTwoOpt() throws Exception {
+        DistanceMatrixGraph graph = (DistanceMatrixGraph) new Preprocess().start("teamprojectfinal.csv", Preprocess.GraphType.DISTANCE_MATRIX);
+        CandidateList candidateList = new CandidateList(graph, CandidateList.DEFAULT_K);
+        List<Vertex> christofidesTour = new ChristofidesAlgorithm(graph).generateTSPTour();
+
+        Tour twoOptTour = new TwoOptSwapOptimization(Tour.create(christofidesTour, graph), candidateList).optimizeTour();
+        Tour linKernighanTour = new LinKernighanOptimization(Tour.create(christofidesTour, graph), candidateList).optimizeTour();
+
+        List<Vertex> vertices = linKernighanTour.toList();
+        Assertions.assertEquals(graph.getVertexCount() + 1, vertices.size());
+        Assertions.assertEquals(graph.getVertexCount(), new HashSet<>(vertices).size());
+        Assertions.assertEquals(GraphUtil.getTotalCostOfTour(vertices), linKernighanTour.getCost(), 1e-3);
+        Assertions.assertTrue(linKernighanTour.getCost() < twoOptTour.getCost());
+    }
+}
@@ -0,0 +1,41 @@
+package org.info6205.tsp.optimizations;
+
+import org.info6205.tsp.core.ArrayTour;
+import org.info6205.tsp.core.DistanceMatrixGraph;
+import org.info6205.tsp.core.Tour;
+import org.info6205.tsp.core.TwoLevelListTour;
+import org.info6205.tsp.core.Vertex;
+import org.info6205.tsp.io.Preprocess;
+import org.info6205.tsp.spatial.CandidateList;
+import org.info6205.tsp.util.GraphUtil;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+public class OrOptOptimizationTest {
+
+    @Test
+    public void testOrOptImprovesOnTwoOpt() throws Exception {
+        DistanceMatrixGraph graph = (DistanceMatrixGraph) new Preprocess().start("teamprojectfinal.csv", Preprocess.GraphType.DISTANCE_MATRIX);
+        CandidateList candidateList = new CandidateList(graph, CandidateList.DEFAULT_K);
+        List<Vertex> vertices = new ArrayList<>(graph.getAllVertices());
+        Collections.shuffle(vertices, new Random(1));
+
+        for (Tour tour : new Tour[]{new ArrayTour(vertices, graph), new TwoLevelListTour(vertices, graph)}) {
+            new TwoOptSwapOptimization(tour, candidateList).optimizeTour();
+            double twoOptCost = tour.getCost();
+
+            new OrOptOptimization(tour, candidateList).optimizeTour();
+
+            List<Vertex> result = tour.toList();
+            Assertions.assertEquals(vertices.size() + 1, result.size());
+            Assertions.assertEquals(vertices.size(), new HashSet<>(result).size());
+            Assertions.assertEquals(GraphUtil.getTotalCostOfTour(result), tour.getCost(), 1e-3);
+            Assertions.assertTrue(tour.getCost() < twoOptCost);
+        }
+    }
+}
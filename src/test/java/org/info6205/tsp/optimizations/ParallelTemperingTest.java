@@ -0,0 +1,45 @@
+package org.info6205.tsp.optimizations;
+
+import org.info6205.tsp.algorithm.ChristofidesAlgorithm;
+import org.info6205.tsp.core.Graph;
+import org.info6205.tsp.core.Tour;
+import org.info6205.tsp.core.Vertex;
+import org.info6205.tsp.io.Preprocess;
+import org.info6205.tsp.util.GraphUtil;
+import org.junit.jupiter.api.*;
+
+import java.util.HashSet;
+import java.util.List;
+
+public class ParallelTemperingTest {
+
+    @Test
+    public void testReplicasReturnShorterValidTour() throws Exception {
+        Graph graph = new Preprocess().start("crimeSample.csv");
+        List<Vertex> christofidesTour = new ChristofidesAlgorithm(graph).generateTSPTour();
+        Tour tour = Tour.create(christofidesTour);
+        double initialCost = tour.getCost();
+
+        Tour best = new ParallelTempering(tour, 200000, 5, 500, 4).optimizeTour();
+
+        List<Vertex> result = best.toList();
+        Assertions.assertEquals(tour.size() + 1, result.size());
+        Assertions.assertEquals(tour.size(), new HashSet<>(result).size());
+        Assertions.assertEquals(GraphUtil.getTotalCostOfTour(result), best.getCost(), 1e-3);
+        Assertions.assertTrue(best.getCost() < initialCost);
+        //The initial tour is left unchanged
+        Assertions.assertEquals(initialCost, tour.getCost());
+    }
+
+    @Test
+    public void testSameSeedGivesSameTour() throws Exception {
+        Graph graph = new Preprocess().start("crimeSample.csv");
+        Tour tour = Tour.create(new ChristofidesAlgorithm(graph).generateTSPTour());
+
+        Tour first = new ParallelTempering(tour, 50000, 5, 500, 3, 42).optimizeTour();
+        Tour second = new ParallelTempering(tour, 50000, 5, 500, 3, 42).optimizeTour();
+
+        Assertions.assertEquals(first.getCost(), second.getCost());
+        Assertions.assertEquals(first.toList(), second.toList());
+    }
+}
@@ -0,0 +1,43 @@
+package org.info6205.tsp.optimizations;
+
+import org.info6205.tsp.core.DistanceMatrixGraph;
+import org.info6205.tsp.core.Tour;
+import org.info6205.tsp.core.Vertex;
+import org.info6205.tsp.io.Preprocess;
+import org.info6205.tsp.spatial.CandidateList;
+import org.info6205.tsp.util.GraphUtil;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class TwoOptSwapOptimizationTest {
+
+    @Test
+    public void testNeighbourDrivenOptimizationLeavesNoImprovingCandidateMove() throws Exception {
+        DistanceMatrixGraph graph = (DistanceMatrixGraph) new Preprocess().start("teamprojectfinal.csv", Preprocess.GraphType.DISTANCE_MATRIX);
+        CandidateList candidateList = new CandidateList(graph, CandidateList.DEFAULT_K);
+        List<Vertex> vertices = new ArrayList<>(graph.getAllVertices());
+        Collections.shuffle(vertices, new Random(1));
+        Tour tour = Tour.create(vertices, graph);
+        double initialCost = tour.getCost();
+
+        new TwoOptSwapOptimization(tour, candidateList).optimizeTour();
+
+        Assertions.assertTrue(tour.getCost() < initialCost);
+        Assertions.assertEquals(GraphUtil.getTotalCostOfTour(tour.toList()), tour.getCost(), 1e-3);
+        //Every move adding a candidate edge shorter than the tour edge it replaces has been tried
+        for (int a = 0; a < tour.size(); a++) {
+            for (int c : candidateList.getNeighbours(a)) {
+                int succA = tour.next(a), succC = tour.next(c);
+                if (c != succA && succC != a && tour.distance(a, c) < tour.distance(a, succA))
+                    Assertions.assertTrue(tour.distance(a, c) + tour.distance(succA, succC) - tour.distance(a, succA) - tour.distance(c, succC) >= -1);
+                int predA = tour.prev(a), predC = tour.prev(c);
+                if (c != predA && predC != a && tour.distance(a, c) < tour.distance(a, predA))
+                    Assertions.assertTrue(tour.distance(a, c) + tour.distance(predA, predC) - tour.distance(a, predA) - tour.distance(c, predC) >= -1);
+            }
+        }
+    }
+}
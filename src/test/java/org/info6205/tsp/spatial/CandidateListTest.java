@@ -0,0 +1,29 @@
+package org.info6205.tsp.spatial;
+
+import org.info6205.tsp.core.IndexedGraph;
+import org.info6205.tsp.io.Preprocess;
+import org.info6205.tsp.util.GraphUtil;
+import org.junit.jupiter.api.*;
+
+public class CandidateListTest {
+
+    @Test
+    public void testNeighboursAreSortedAndUseGraphIndex() throws Exception {
+        IndexedGraph graph = (IndexedGraph) new Preprocess().start("crimeSample.csv", Preprocess.GraphType.DISTANCE_MATRIX);
+        CandidateList candidateList = new CandidateList(graph, 5);
+
+        Assertions.assertEquals(graph.getVertexCount(), candidateList.size());
+        for (int i = 0; i < candidateList.size(); i++) {
+            Assertions.assertEquals(graph.getVertex(i), candidateList.getVertex(i));
+            int[] neighbours = candidateList.getNeighbours(i);
+            Assertions.assertEquals(5, neighbours.length);
+            for (int j = 1; j < neighbours.length; j++) {
+                Assertions.assertTrue(distance(graph, i, neighbours[j - 1]) <= distance(graph, i, neighbours[j]) + 1e-6);
+            }
+        }
+    }
+
+    private double distance(IndexedGraph graph, int i, int j) {
+        return GraphUtil.getDistanceBetweenVertices(graph.getVertex(i), graph.getVertex(j));
+    }
+}
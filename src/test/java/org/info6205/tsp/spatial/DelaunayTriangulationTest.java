@@ -0,0 +1,69 @@
+package org.info6205.tsp.spatial;
+
+import org.info6205.tsp.algorithm.MinimumSpanningTree;
+import org.info6205.tsp.core.FrozenGraph;
+import org.info6205.tsp.core.Graph;
+import org.info6205.tsp.core.Vertex;
+import org.info6205.tsp.io.Preprocess;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class DelaunayTriangulationTest {
+
+    @Test
+    public void testSpanningTreeOfTriangulationIsMinimum() throws Exception {
+        Graph graph = new Preprocess().start("teamprojectfinal.csv", Preprocess.GraphType.DISTANCE_MATRIX);
+        List<Vertex> vertices = new ArrayList<>(graph.getAllVertices());
+
+        FrozenGraph delaunayGraph = new DelaunayTriangulation(vertices).getGraph();
+        MinimumSpanningTree minimumSpanningTree = new MinimumSpanningTree(graph);
+        minimumSpanningTree.getMinimumSpanningTree();
+        MinimumSpanningTree delaunaySpanningTree = new MinimumSpanningTree(delaunayGraph);
+        Graph delaunayTree = delaunaySpanningTree.getMinimumSpanningTree();
+
+        Assertions.assertTrue(delaunayGraph.getAllEdges().size() / 2 <= 3 * vertices.size() - 6);
+        Assertions.assertEquals(vertices.size() - 1, delaunayTree.getAllEdges().size() / 2);
+        Assertions.assertEquals(minimumSpanningTree.getMSTCost(), delaunaySpanningTree.getMSTCost(), 1e-6);
+    }
+
+    @Test
+    public void testTrianglesAreDelaunay() {
+        Random random = new Random(3);
+        List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 500; i++)
+            vertices.add(new Vertex(i, 42.3 + random.nextDouble() * 0.1, -71.1 + random.nextDouble() * 0.1));
+        //A duplicate point is connected without a triangle of its own
+        vertices.add(new Vertex(500, vertices.get(0).getXPos(), vertices.get(0).getYPos()));
+
+        DelaunayTriangulation triangulation = new DelaunayTriangulation(vertices);
+        int[] triangles = triangulation.getTriangles();
+        double scale = Math.cos(Math.toRadians(42.35));
+
+        for (int t = 0; t < triangles.length; t += 3) {
+            for (int p = 0; p < 500; p++) {
+                if (p == triangles[t] || p == triangles[t + 1] || p == triangles[t + 2])
+                    continue;
+                Assertions.assertFalse(inCircumcircle(vertices, scale, triangles[t], triangles[t + 1], triangles[t + 2], p));
+            }
+        }
+        Assertions.assertEquals(vertices.size(), triangulation.getGraph().getAllVertices().size());
+        Assertions.assertEquals(1, triangulation.getGraph().getDegree(500));
+    }
+
+    private boolean inCircumcircle(List<Vertex> vertices, double scale, int a, int b, int c, int p) {
+        double[][] points = new double[4][];
+        int[] ids = {a, b, c, p};
+        for (int i = 0; i < 4; i++)
+            points[i] = new double[]{vertices.get(ids[i]).getYPos() * scale, vertices.get(ids[i]).getXPos()};
+        double ax = points[0][0] - points[3][0], ay = points[0][1] - points[3][1];
+        double bx = points[1][0] - points[3][0], by = points[1][1] - points[3][1];
+        double cx = points[2][0] - points[3][0], cy = points[2][1] - points[3][1];
+        double det = (ax * ax + ay * ay) * (bx * cy - cx * by) - (bx * bx + by * by) * (ax * cy - cx * ay) + (cx * cx + cy * cy) * (ax * by - bx * ay);
+        double orientation = (bx - ax) * (cy - ay) - (by - ay) * (cx - ax);
+        //Strictly inside, allowing for rounding
+        return det * Math.signum(orientation) > 1e-18;
+    }
+}
@@ -0,0 +1,76 @@
+package org.info6205.tsp.spatial;
+
+import org.info6205.tsp.core.Vertex;
+import org.info6205.tsp.io.Preprocess;
+import org.info6205.tsp.util.GraphUtil;
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+public class KdTreeTest {
+
+    static List<Vertex> vertices;
+
+    static KdTree kdTree;
+
+    @BeforeAll
+    public static void buildTree() throws Exception {
+        vertices = new ArrayList<>(new Preprocess().start("teamprojectfinal.csv", Preprocess.GraphType.IMPLICIT).getAllVertices());
+        kdTree = new KdTree(vertices);
+    }
+
+    @Test
+    public void testNearestNeighboursMatchBruteForce() {
+        int k = 10;
+        for (int i = 0; i < vertices.size(); i++) {
+            int[] nearest = kdTree.nearest(i, k);
+            List<Double> expected = bruteForceDistances(i);
+
+            Assertions.assertEquals(k, nearest.length);
+            for (int j = 0; j < k; j++) {
+                Assertions.assertNotEquals(i, nearest[j]);
+                Assertions.assertEquals(expected.get(j), distance(i, nearest[j]), 1e-6);
+            }
+        }
+    }
+
+    @Test
+    public void testRadiusQueryMatchesBruteForce() {
+        double radius = 1000;
+        for (int i = 0; i < vertices.size(); i += 7) {
+            Vertex vertex = vertices.get(i);
+            Set<Integer> found = Arrays.stream(kdTree.withinRadius(vertex.getXPos(), vertex.getYPos(), radius)).boxed().collect(Collectors.toSet());
+            Set<Integer> expected = new HashSet<>();
+            for (int j = 0; j < vertices.size(); j++) {
+                if (distance(i, j) <= radius)
+                    expected.add(j);
+            }
+
+            Assertions.assertEquals(expected, found);
+        }
+    }
+
+    @Test
+    public void testQueriesOnSmallTrees() {
+        KdTree single = new KdTree(List.of(new Vertex(0, 42.36, -71.09)));
+
+        Assertions.assertEquals(0, single.nearest(0, 5).length);
+        Assertions.assertArrayEquals(new int[]{0}, single.nearest(42.0, -71.0, 5));
+        Assertions.assertEquals(0, new KdTree(new ArrayList<>()).nearest(42.0, -71.0, 3).length);
+    }
+
+    private List<Double> bruteForceDistances(int i) {
+        List<Double> distances = new ArrayList<>();
+        for (int j = 0; j < vertices.size(); j++) {
+            if (j != i)
+                distances.add(distance(i, j));
+        }
+        Collections.sort(distances);
+        return distances;
+    }
+
+    private double distance(int i, int j) {
+        return GraphUtil.getDistanceBetweenVertices(vertices.get(i), vertices.get(j));
+    }
+}